@@ -0,0 +1,34 @@
+// k6 load test: 2k concurrent clients against search + CRUD reads.
+// Run once per mode and compare http_reqs/s and p95 latency:
+//   VIRTUAL_THREADS_ENABLED=false  ./gradlew bootRun   ->  k6 run bench/search-load.js
+//   VIRTUAL_THREADS_ENABLED=true   ./gradlew bootRun   ->  k6 run bench/search-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 2000),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const filters = [
+    { active: true, marketingOptIn: true, unsubscribed: false },
+    { countryCode: 'PL', active: true },
+    { freeText: 'smith' },
+    { lastActivityFrom: '2024-01-01T00:00:00Z' },
+];
+
+export default function () {
+    const filter = filters[Math.floor(Math.random() * filters.length)];
+    const res = http.post(`${BASE}/api/contacts/search/spec?size=20`, JSON.stringify(filter), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
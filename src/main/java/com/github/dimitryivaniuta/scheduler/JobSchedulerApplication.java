@@ -2,10 +2,12 @@ package com.github.dimitryivaniuta.scheduler;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class JobSchedulerApplication {
     public static void main(String[] args) {
         SpringApplication.run(JobSchedulerApplication.class, args);
@@ -0,0 +1,31 @@
+package com.github.dimitryivaniuta.scheduler.config;
+
+import com.github.dimitryivaniuta.scheduler.mailing.MailingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for SMTP sends. Either way, in-flight sends are capped by {@code scheduler.mailings.concurrency}
+ * in {@code MailingService}; virtual threads only remove the cost of parking a platform thread per send.
+ */
+@Configuration
+public class MailingExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService mailingExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-worker-", 0).factory());
+    }
+
+    @Bean(name = "mailingExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService platformMailingExecutor(MailingProperties properties) {
+        return Executors.newFixedThreadPool(properties.concurrency(),
+                Thread.ofPlatform().name("mail-worker-", 0).daemon().factory());
+    }
+}
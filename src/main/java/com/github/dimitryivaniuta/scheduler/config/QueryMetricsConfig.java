@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.scheduler.config;
+
+import com.github.dimitryivaniuta.scheduler.diagnostics.query.JooqQueryListener;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryMetricsConfig {
+
+    /**
+     * Picked up by the jOOQ auto-configuration; the Hibernate side is
+     * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+     */
+    @Bean
+    public ExecuteListenerProvider queryMetricsListener() {
+        return new DefaultExecuteListenerProvider(new JooqQueryListener());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.dimitryivaniuta.scheduler.config;
+
+import com.github.dimitryivaniuta.scheduler.datasource.ReadReplicaRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ReadReplicaConfig {
+
+    /**
+     * Wraps the auto-configured primary {@code dataSource} so read-only transactions run on a replica.
+     * <p>
+     * {@link LazyConnectionDataSourceProxy} defers fetching a physical connection until the first statement.
+     * By then the transaction manager has called {@code setReadOnly(true)} for
+     * {@code @Transactional(readOnly = true)}, so the proxy can take the connection from the read-only data
+     * source instead. JPA, QueryDSL, {@code JdbcTemplate} and jOOQ all share this bean, so all of them are
+     * routed. Work outside a read-only transaction, including Flyway, stays on the primary.
+     */
+    @Bean
+    static BeanPostProcessor readReplicaRouting(ObjectProvider<ReadReplicaRouter> replicas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                ReadReplicaRouter router = replicas.getObject();
+                if (!router.hasReplicas()) {
+                    return bean;
+                }
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                proxy.setReadOnlyDataSource(router.readOnlyDataSource(primary));
+                return proxy;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.dimitryivaniuta.scheduler.config;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactDto;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactDtoSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Contact serialization: the hand-written {@link ContactDtoSerializer} for JSON, and Smile
+ * ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) as alternatives selected by the
+ * {@code Accept} header. The binary mappers are kept inside their converters, not exposed as beans, so the
+ * auto-configured JSON mapper stays the only {@code ObjectMapper} in the context.
+ */
+@Configuration
+public class SerializationConfig {
+
+    /** Registered with the auto-configured JSON mapper. */
+    @Bean
+    public JacksonModule contactJsonModule() {
+        return new SimpleModule("contact-json").addSerializer(ContactDto.class, new ContactDtoSerializer(false));
+    }
+
+    @Bean
+    public JacksonSmileHttpMessageConverter smileHttpMessageConverter() {
+        return new JacksonSmileHttpMessageConverter(SmileMapper.builder()
+                .addModule(binaryModule())
+                .build());
+    }
+
+    @Bean
+    public JacksonCborHttpMessageConverter cborHttpMessageConverter() {
+        return new JacksonCborHttpMessageConverter(CBORMapper.builder()
+                .addModule(binaryModule())
+                .build());
+    }
+
+    private static JacksonModule binaryModule() {
+        return new SimpleModule("contact-binary").addSerializer(ContactDto.class, new ContactDtoSerializer(true));
+    }
+}
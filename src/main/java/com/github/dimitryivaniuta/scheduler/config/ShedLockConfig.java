@@ -1,5 +1,10 @@
 package com.github.dimitryivaniuta.scheduler.config;
 
+import com.github.dimitryivaniuta.scheduler.lock.FencingTokens;
+import com.github.dimitryivaniuta.scheduler.lock.InstrumentedLockProvider;
+import com.github.dimitryivaniuta.scheduler.lock.KeepAliveLockProvider;
+import com.github.dimitryivaniuta.scheduler.lock.LockProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.provider.redis.spring.RedisLockProvider;
 import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
@@ -11,9 +16,18 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 @EnableSchedulerLock(defaultLockAtMostFor = "PT10M")
 public class ShedLockConfig {
 
+    /**
+     * Redis provider wrapped with Micrometer instrumentation (acquisition latency,
+     * contention, hold time vs lockAtMostFor, held-lock age), then with fencing tokens
+     * and heartbeat-driven renewal. See {@link InstrumentedLockProvider} and {@link KeepAliveLockProvider}.
+     */
     @Bean
-    public LockProvider lockProvider(RedisConnectionFactory connectionFactory) {
-        return new RedisLockProvider(connectionFactory, "job-scheduler");
+    public LockProvider lockProvider(RedisConnectionFactory connectionFactory,
+                                     MeterRegistry meterRegistry,
+                                     FencingTokens fencingTokens,
+                                     LockProperties lockProperties) {
+        LockProvider instrumented = new InstrumentedLockProvider(
+                new RedisLockProvider(connectionFactory, "job-scheduler"), meterRegistry);
+        return new KeepAliveLockProvider(instrumented, fencingTokens, lockProperties);
     }
 }
-
@@ -0,0 +1,22 @@
+package com.github.dimitryivaniuta.scheduler.contact;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.contacts.reads.*} — coalescing of single-contact reads, see
+ * {@code ContactBatchLoader}.
+ *
+ * @param coalesce merge concurrent reads into batched queries; false = one query per read
+ * @param window   how long the first read of a batch waits for others to join it
+ * @param maxBatch ids per query; larger batches are split
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.reads")
+public record ContactReadProperties(
+        @DefaultValue("true") boolean coalesce,
+        @DefaultValue("500us") Duration window,
+        @DefaultValue("256") int maxBatch
+) {
+}
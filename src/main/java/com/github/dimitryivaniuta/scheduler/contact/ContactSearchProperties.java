@@ -0,0 +1,38 @@
+package com.github.dimitryivaniuta.scheduler.contact;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.search.*} — engine selection of {@code /api/contacts/search}, SQL rendering and
+ * {@code /api/contacts/facets}.
+ *
+ * @param exploration share of requests routed to a random engine instead of the fastest
+ * @param verifyRate  share of requests re-run on another engine in the background to compare results
+ * @param verifyConcurrency background verifications running at once; sampled requests beyond it are not verified
+ * @param minSamples  requests per engine and shape before its latency is trusted
+ * @param ewmaAlpha   weight of the newest latency in the moving average
+ * @param canonicalSql render one-sided ranges of the jOOQ engine as {@code BETWEEN} with an open bound, so
+ *                     fewer distinct statements reach the server-side prepared statement cache
+ * @param facetTags    most frequent tags returned by the facets endpoint
+ * @param facetSampleRows rows an approximate facets request reads, on average, when no sample size is given
+ * @param mismatchTtl  how long an engine whose results disagreed with the reference engine is not chosen
+ *                     for that filter shape
+ * @param maxShapes    filter shapes with latency stats; requests of other shapes use the reference engine
+ */
+@ConfigurationProperties(prefix = "scheduler.search")
+public record ContactSearchProperties(
+        @DefaultValue("0.05") double exploration,
+        @DefaultValue("0.01") double verifyRate,
+        @DefaultValue("2") int verifyConcurrency,
+        @DefaultValue("5") int minSamples,
+        @DefaultValue("0.2") double ewmaAlpha,
+        @DefaultValue("true") boolean canonicalSql,
+        @DefaultValue("20") int facetTags,
+        @DefaultValue("1000000") long facetSampleRows,
+        @DefaultValue("PT1H") Duration mismatchTtl,
+        @DefaultValue("200") int maxShapes
+) {
+}
@@ -0,0 +1,21 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import java.util.List;
+
+/**
+ * A rewrite of existing contacts, run by {@link ContactBackfillService}; implementations are Spring beans.
+ * <p>
+ * {@link #apply} sees one row at a time with the values of {@link #columns()} and changes them in place.
+ * It may run on many threads at once and must not depend on other rows. Rows it leaves unchanged are
+ * not written.
+ */
+public interface ContactBackfill {
+
+    /** Unique; identifies the backfill in {@code /api/contacts/backfills/{name}}. */
+    String name();
+
+    /** {@code contacts} columns read and possibly written; not {@code id}, {@code version} or {@code updated_at}. */
+    List<String> columns();
+
+    void apply(ContactBackfillRow row);
+}
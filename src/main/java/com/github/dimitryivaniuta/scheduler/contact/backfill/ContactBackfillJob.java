@@ -0,0 +1,26 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up started and resumed backfills; one replica at a time, with the parallelism inside the run. Workers
+ * heartbeat the lock after every chunk and while throttled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactBackfillJob {
+
+    static final String LOCK_NAME = "contacts-backfill";
+
+    private final ContactBackfillService backfillService;
+
+    @Scheduled(fixedDelayString = "${scheduler.contacts.backfill.interval:PT10S}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT10M")
+    public void run() {
+        backfillService.runPending(LockContext.require());
+    }
+}
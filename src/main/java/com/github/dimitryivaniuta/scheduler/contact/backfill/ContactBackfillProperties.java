@@ -0,0 +1,29 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.contacts.backfill.*}; the interval is read by {@link ContactBackfillJob} via a placeholder.
+ *
+ * @param parallelism       id ranges of a new backfill, each walked by its own virtual thread
+ * @param chunkSize         rows read, transformed and written per transaction
+ * @param maxReplicationLag workers wait while a standby replays further behind than this
+ * @param maxActiveSessions workers wait while more client sessions than this are running statements
+ * @param throttleCheck     how long a load reading is reused
+ * @param throttlePause     wait before the load is checked again
+ * @param maxFailures       failures in a row of one range's next chunk before the backfill is {@code FAILED}
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.backfill")
+public record ContactBackfillProperties(
+        @DefaultValue("8") int parallelism,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("PT5S") Duration maxReplicationLag,
+        @DefaultValue("32") int maxActiveSessions,
+        @DefaultValue("PT1S") Duration throttleCheck,
+        @DefaultValue("PT2S") Duration throttlePause,
+        @DefaultValue("5") int maxFailures
+) {
+}
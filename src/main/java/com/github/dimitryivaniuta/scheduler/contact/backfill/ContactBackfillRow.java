@@ -0,0 +1,63 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One contact as seen by a {@link ContactBackfill}: its id and the backfill's columns, as returned by JDBC
+ * (e.g. {@code String}, {@code Integer}, {@code OffsetDateTime}).
+ */
+public final class ContactBackfillRow {
+
+    private final UUID id;
+    private final long version;
+    private final Map<String, Object> values;
+    private boolean changed;
+
+    ContactBackfillRow(UUID id, long version, Map<String, Object> values) {
+        this.id = id;
+        this.version = version;
+        this.values = values;
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public Object get(String column) {
+        requireColumn(column);
+        return values.get(column);
+    }
+
+    public String getString(String column) {
+        return (String) get(column);
+    }
+
+    /** Setting the current value again does not count as a change. */
+    public void set(String column, Object value) {
+        requireColumn(column);
+        if (!Objects.equals(values.get(column), value)) {
+            values.put(column, value);
+            changed = true;
+        }
+    }
+
+    public boolean changed() {
+        return changed;
+    }
+
+    long version() {
+        return version;
+    }
+
+    Map<String, Object> values() {
+        return values;
+    }
+
+    private void requireColumn(String column) {
+        if (!values.containsKey(column)) {
+            throw new IllegalArgumentException("Column not read by this backfill: " + column);
+        }
+    }
+}
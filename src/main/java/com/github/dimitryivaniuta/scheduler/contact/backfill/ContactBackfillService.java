@@ -0,0 +1,311 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactBackfillRepository;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactBackfillRepository.Backfill;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactBackfillRepository.Range;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactBackfillRepository.Row;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactChangeType;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link ContactBackfill}s over all contacts.
+ * <ul>
+ *     <li>The id space is split into {@code parallelism} ranges, each walked in keyset chunks by its own virtual
+ *     thread. Contact ids are random UUIDs, so the ranges are about equally full.</li>
+ *     <li>Chunks are read in read-only transactions, i.e. from a read replica when there is one; changed rows
+ *     are written to the primary with one {@code UPDATE ... FROM (VALUES ...)} per chunk.</li>
+ *     <li>A row is only written if its {@code version} is still the one read. Rows changed in between (or read
+ *     from a lagging replica) are locked, transformed again and written in the same transaction. Written
+ *     rows get an {@code UPDATE} event in {@code contact_outbox}, in that transaction too.</li>
+ *     <li>Before each chunk, workers wait for {@link ContactBackfillThrottle}, and stop when the backfill is
+ *     paused, the job lost its lock or the load can not be read. Progress is committed with every chunk, so
+ *     work resumes where it stopped.</li>
+ *     <li>A dry run transforms and counts the rows that would change, without writing them.</li>
+ *     <li>A failing chunk is retried by the next run. After {@code maxFailures} failures in a row the backfill
+ *     is {@code FAILED}, with the error kept on its range, until it is resumed.</li>
+ * </ul>
+ * Writes are idempotent, so a worker that outlives its lock can only repeat work. The fencing row is not
+ * taken per chunk: holding it would serialize the workers.
+ */
+@Slf4j
+@Service
+public class ContactBackfillService {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String PAUSED = "PAUSED";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final Set<String> RESERVED_COLUMNS = Set.of("id", "version", "updated_at");
+
+    private final Map<String, ContactBackfill> backfills;
+    private final ContactBackfillRepository repository;
+    private final ContactOutboxRepository outboxRepository;
+    private final ContactBackfillThrottle throttle;
+    private final ContactBackfillProperties properties;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param progress  share of the id space done, 0..1
+     * @param lastError error of a range whose next chunk keeps failing, if any
+     */
+    public record Status(Backfill backfill, long scannedRows, long changedRows, long conflicts,
+                         int rangesDone, int ranges, double progress, String lastError) {
+    }
+
+    public ContactBackfillService(List<ContactBackfill> backfills,
+                                  ContactBackfillRepository repository,
+                                  ContactOutboxRepository outboxRepository,
+                                  ContactBackfillThrottle throttle,
+                                  ContactBackfillProperties properties,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.backfills = backfills.stream().collect(Collectors.toMap(ContactBackfill::name, Function.identity()));
+        this.repository = repository;
+        this.outboxRepository = outboxRepository;
+        this.throttle = throttle;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    // ---------------- control ----------------
+
+    /** Names of the registered backfills. */
+    public Set<String> available() {
+        return backfills.keySet();
+    }
+
+    public List<Status> statuses() {
+        return repository.findAll().stream().map(this::status).toList();
+    }
+
+    public Status status(String name) {
+        return status(repository.find(name)
+                .orElseThrow(() -> new EntityNotFoundException("Backfill never started: " + name)));
+    }
+
+    /** Starts the backfill from the beginning; a finished or failed run of it is discarded. */
+    public Status start(String name, boolean dryRun) {
+        ContactBackfill backfill = backfill(name);
+        columns(backfill);
+        transaction.executeWithoutResult(tx -> {
+            repository.find(name)
+                    .filter(b -> !DONE.equals(b.status()) && !FAILED.equals(b.status()))
+                    .ifPresent(b -> {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Backfill " + name + " is " + b.status());
+                    });
+            repository.create(name, dryRun, ranges(properties.parallelism()));
+        });
+        log.info("Backfill {} started{}", name, dryRun ? " (dry run)" : "");
+        return status(name);
+    }
+
+    /** Workers stop after their current chunk. */
+    public Status pause(String name) {
+        return transition(name, RUNNING, PAUSED);
+    }
+
+    /** Continues a paused backfill, or retries a failed one where it stopped. */
+    public Status resume(String name) {
+        if (FAILED.equals(repository.find(name).map(Backfill::status).orElse(null))) {
+            repository.resetFailures(name);
+            return transition(name, FAILED, RUNNING);
+        }
+        return transition(name, PAUSED, RUNNING);
+    }
+
+    // ---------------- execution ----------------
+
+    /** Runs every {@code RUNNING} backfill until done, paused or the lock is lost. */
+    public void runPending(ActiveLock lock) {
+        for (Backfill backfill : repository.findAll()) {
+            if (RUNNING.equals(backfill.status()) && backfills.containsKey(backfill.name())) {
+                run(backfill, lock);
+            }
+        }
+    }
+
+    private void run(Backfill backfill, ActiveLock lock) {
+        ContactBackfill transform = backfills.get(backfill.name());
+        Map<String, String> columns = columns(transform);
+        List<Range> ranges = repository.ranges(backfill.name()).stream().filter(r -> !r.done()).toList();
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("backfill-" + backfill.name() + "-", 0).factory())) {
+            for (Range range : ranges) {
+                workers.submit(() -> walk(backfill, transform, columns, range, lock));
+            }
+        }
+        if (repository.ranges(backfill.name()).stream().allMatch(Range::done)
+                && repository.transition(backfill.name(), RUNNING, DONE)) {
+            log.info("Backfill {} done", backfill.name());
+        }
+    }
+
+    private void walk(Backfill backfill, ContactBackfill transform, Map<String, String> columns,
+                      Range range, ActiveLock lock) {
+        String name = backfill.name();
+        UUID position = range.position();
+        try {
+            while (!lock.isLost() && RUNNING.equals(repository.status(name))) {
+                if (!throttle.await(lock)) {
+                    return;
+                }
+                UUID after = position;
+                List<Row> rows = readOnly.execute(tx ->
+                        repository.read(columns, after, range.upperBound(), properties.chunkSize()));
+                boolean done = rows.size() < properties.chunkSize();
+                UUID last = rows.isEmpty() ? position : rows.getLast().id();
+                List<Row> changed = apply(transform, rows);
+
+                int conflicts = transaction.execute(tx -> {
+                    int redone = 0;
+                    if (!backfill.dryRun() && !changed.isEmpty()) {
+                        Set<UUID> written = repository.write(columns, changed);
+                        List<UUID> stale = changed.stream().map(Row::id).filter(id -> !written.contains(id)).toList();
+                        if (!stale.isEmpty()) {
+                            redone = stale.size();
+                            List<Row> current = apply(transform, repository.lock(columns, stale));
+                            written.addAll(repository.write(columns, current));
+                        }
+                        outboxRepository.appendAll(ContactChangeType.UPDATE, written);
+                    }
+                    repository.advance(name, range.rangeNo(), last, done, rows.size(), changed.size(), redone);
+                    return redone;
+                });
+
+                meterRegistry.counter("contacts.backfill.scanned", "backfill", name).increment(rows.size());
+                meterRegistry.counter("contacts.backfill.changed", "backfill", name,
+                        "dryRun", String.valueOf(backfill.dryRun())).increment(changed.size());
+                meterRegistry.counter("contacts.backfill.conflicts", "backfill", name).increment(conflicts);
+                lock.heartbeat();
+                if (done) {
+                    return;
+                }
+                position = last;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // the other ranges go on; this one resumes from its last chunk on the next run, up to maxFailures
+            log.error("Backfill {} range {} failed after {}", name, range.rangeNo(), position, e);
+            fail(name, range.rangeNo(), e);
+        }
+    }
+
+    private void fail(String name, int rangeNo, RuntimeException error) {
+        try {
+            int failures = repository.fail(name, rangeNo, String.valueOf(error));
+            if (failures >= properties.maxFailures() && repository.transition(name, RUNNING, FAILED)) {
+                log.error("Backfill {} failed: range {} failed {} times in a row", name, rangeNo, failures);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of backfill {} range {}", name, rangeNo, e);
+        }
+    }
+
+    /** The rows the transform changed, with their new values. */
+    private static List<Row> apply(ContactBackfill transform, List<Row> rows) {
+        List<Row> changed = new ArrayList<>();
+        for (Row row : rows) {
+            ContactBackfillRow view = new ContactBackfillRow(row.id(), row.version(), new LinkedHashMap<>(row.values()));
+            transform.apply(view);
+            if (view.changed()) {
+                changed.add(new Row(view.id(), view.version(), view.values()));
+            }
+        }
+        return changed;
+    }
+
+    // ---------------- helpers ----------------
+
+    private ContactBackfill backfill(String name) {
+        ContactBackfill backfill = backfills.get(name);
+        if (backfill == null) {
+            throw new EntityNotFoundException("Unknown backfill: " + name + "; available: " + backfills.keySet());
+        }
+        return backfill;
+    }
+
+    /** The backfill's columns with their SQL types; fails on columns {@code contacts} does not have. */
+    private Map<String, String> columns(ContactBackfill backfill) {
+        Map<String, String> types = repository.columnTypes();
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String column : backfill.columns()) {
+            if (!types.containsKey(column) || RESERVED_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Backfill " + backfill.name() + " can not write column " + column);
+            }
+            columns.put(column, types.get(column));
+        }
+        return columns;
+    }
+
+    private Status transition(String name, String from, String to) {
+        if (!repository.transition(name, from, to)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Backfill " + name + " is not " + from);
+        }
+        log.info("Backfill {} {}", name, to);
+        return status(name);
+    }
+
+    private Status status(Backfill backfill) {
+        List<Range> ranges = repository.ranges(backfill.name());
+        double covered = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            long lower = i == 0 ? 0 : ranges.get(i - 1).upperBound().getMostSignificantBits() >>> 32;
+            long upper = range.upperBound().getMostSignificantBits() >>> 32;
+            long position = range.position().getMostSignificantBits() >>> 32;
+            covered += range.done() ? upper - lower : Math.max(0, position - lower);
+        }
+        return new Status(backfill,
+                ranges.stream().mapToLong(Range::scannedRows).sum(),
+                ranges.stream().mapToLong(Range::changedRows).sum(),
+                ranges.stream().mapToLong(Range::conflicts).sum(),
+                (int) ranges.stream().filter(Range::done).count(),
+                ranges.size(),
+                ranges.isEmpty() ? 0 : covered / 0xFFFF_FFFFL,
+                ranges.stream().filter(r -> r.failures() > 0).map(Range::lastError).findFirst().orElse(null));
+    }
+
+    /**
+     * {@code count} ranges of equal width over the leading 32 bits of the id; each is
+     * (exclusive lower, inclusive upper]. The all-zero UUID, below the first range, is never generated.
+     */
+    private static List<UUID[]> ranges(int count) {
+        List<UUID[]> bounds = new ArrayList<>();
+        UUID lower = new UUID(0, 0);
+        for (int i = 1; i <= count; i++) {
+            long prefix = i == count ? 0xFFFF_FFFFL : (0x1_0000_0000L * i / count) - 1;
+            UUID upper = new UUID((prefix << 32) | 0xFFFF_FFFFL, -1L);
+            bounds.add(new UUID[]{lower, upper});
+            lower = upper;
+        }
+        return bounds;
+    }
+}
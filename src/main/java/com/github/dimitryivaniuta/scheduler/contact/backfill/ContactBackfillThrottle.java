@@ -0,0 +1,94 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds backfill workers back while the database is under pressure: a standby replays WAL too far behind
+ * ({@code pg_stat_replication} on the primary, so every physical standby counts, routed to or not), or too
+ * many sessions are running statements. The reading is shared by all workers and refreshed at most every
+ * {@code throttleCheck}.
+ * <p>
+ * Both views only show other sessions' lag and state to members of {@code pg_monitor}
+ * ({@code GRANT pg_monitor TO <app user>}). Without it the load is unknown (the columns read as null), and
+ * workers stop rather than run unthrottled.
+ */
+@Slf4j
+@Component
+public class ContactBackfillThrottle {
+
+    private static final String LOAD_QUERY = """
+            SELECT pg_has_role('pg_monitor', 'USAGE') AS monitor,
+                   -- with pg_monitor, a null lag means no standby or one that has caught up
+                   coalesce((SELECT max(extract(epoch FROM replay_lag)) FROM pg_stat_replication), 0) AS lag,
+                   (SELECT count(*) FROM pg_stat_activity
+                    WHERE state = 'active' AND backend_type = 'client backend') AS active
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContactBackfillProperties properties;
+    private final Counter throttled;
+
+    private volatile long checkedAtNanos;
+    private volatile Load load = Load.OK;
+    private volatile boolean unknownLogged;
+
+    private enum Load { OK, HIGH, UNKNOWN }
+
+    public ContactBackfillThrottle(JdbcTemplate jdbcTemplate,
+                                   ContactBackfillProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.throttled = Counter.builder("contacts.backfill.throttled")
+                .description("Waits of backfill workers for replication lag or database load")
+                .register(meterRegistry);
+        this.checkedAtNanos = System.nanoTime() - properties.throttleCheck().toNanos();
+    }
+
+    /**
+     * Returns once the load is acceptable; keeps the job's lock alive while waiting.
+     *
+     * @return false if the load can not be read, i.e. the worker should stop
+     */
+    public boolean await(ActiveLock lock) throws InterruptedException {
+        Load current;
+        while ((current = load()) == Load.HIGH) {
+            throttled.increment();
+            lock.heartbeat();
+            Thread.sleep(properties.throttlePause());
+        }
+        return current == Load.OK;
+    }
+
+    private Load load() {
+        long now = System.nanoTime();
+        if (now - checkedAtNanos < properties.throttleCheck().toNanos()) {
+            return load;
+        }
+        // concurrent workers may both refresh; the reading is cheap and either result will do
+        checkedAtNanos = now;
+        load = jdbcTemplate.queryForObject(LOAD_QUERY, (rs, rowNum) -> {
+            if (!rs.getBoolean("monitor")) {
+                if (!unknownLogged) {
+                    unknownLogged = true;
+                    log.warn("Backfills stopped: replication lag and active sessions can not be read without "
+                            + "pg_monitor; grant it to the application user");
+                }
+                return Load.UNKNOWN;
+            }
+            double lag = rs.getDouble("lag");
+            long active = rs.getLong("active");
+            if (lag > properties.maxReplicationLag().toMillis() / 1000.0 || active > properties.maxActiveSessions()) {
+                log.debug("Backfill throttled: replication lag {}s, {} active sessions", lag, active);
+                return Load.HIGH;
+            }
+            return Load.OK;
+        });
+        return load;
+    }
+}
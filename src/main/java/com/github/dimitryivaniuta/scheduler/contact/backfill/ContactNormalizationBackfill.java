@@ -0,0 +1,32 @@
+package com.github.dimitryivaniuta.scheduler.contact.backfill;
+
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Applies the current {@link ContactNormalizer} rules to contacts written before they changed. */
+@Component
+public class ContactNormalizationBackfill implements ContactBackfill {
+
+    @Override
+    public String name() {
+        return "contact-normalization";
+    }
+
+    @Override
+    public List<String> columns() {
+        return ContactNormalizer.TEXT_COLUMNS;
+    }
+
+    @Override
+    public void apply(ContactBackfillRow row) {
+        for (String column : ContactNormalizer.TEXT_COLUMNS) {
+            String normalized = ContactNormalizer.text(row.getString(column));
+            // email is NOT NULL: a blank one is left for manual cleanup
+            if (normalized != null || !"email".equals(column)) {
+                row.set(column, normalized);
+            }
+        }
+    }
+}
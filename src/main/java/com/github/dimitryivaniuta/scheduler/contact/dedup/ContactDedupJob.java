@@ -0,0 +1,35 @@
+package com.github.dimitryivaniuta.scheduler.contact.dedup;
+
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link ContactDedupService} batches until caught up or {@code batchesPerRun} is reached; one replica at
+ * a time. The first runs after enabling work through the whole table, later ones only through recent changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactDedupJob {
+
+    static final String LOCK_NAME = "contacts-dedup";
+
+    private final ContactDedupService dedupService;
+    private final ContactDedupProperties properties;
+
+    @Scheduled(fixedDelayString = "${scheduler.contacts.dedup.interval:PT5M}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT30M")
+    public void run() {
+        if (!properties.enabled()) {
+            return;
+        }
+        for (int batch = 0; batch < properties.batchesPerRun(); batch++) {
+            if (dedupService.runBatch() == 0) {
+                return;
+            }
+            LockContext.heartbeat();
+        }
+    }
+}
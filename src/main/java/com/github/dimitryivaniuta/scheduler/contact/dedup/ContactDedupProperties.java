@@ -0,0 +1,33 @@
+package com.github.dimitryivaniuta.scheduler.contact.dedup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.contacts.dedup.*}; the interval is read by {@link ContactDedupJob} via a placeholder.
+ *
+ * @param enabled              merges delete contacts, so the job is off unless switched on
+ * @param sliceSize            changed contacts per key refresh / candidate query
+ * @param parallelism          slices processed concurrently; one scan batch is {@code sliceSize * parallelism}
+ * @param mergesPerTransaction merges committed together
+ * @param batchesPerRun        scan batches per job run, at most
+ * @param settle               contacts changed more recently are left for the next run
+ * @param window               sorted-neighborhood width on each side, in {@code name_key} order
+ * @param nameSimilarity       name rule: minimum trigram similarity of names and of companies
+ * @param phoneNameSimilarity  phone rule: minimum trigram similarity of names
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.dedup")
+public record ContactDedupProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2000") int sliceSize,
+        @DefaultValue("8") int parallelism,
+        @DefaultValue("200") int mergesPerTransaction,
+        @DefaultValue("100") int batchesPerRun,
+        @DefaultValue("PT1M") Duration settle,
+        @DefaultValue("5") int window,
+        @DefaultValue("0.9") double nameSimilarity,
+        @DefaultValue("0.5") double phoneNameSimilarity
+) {
+}
@@ -0,0 +1,201 @@
+package com.github.dimitryivaniuta.scheduler.contact.dedup;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactDedupRepository;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactDedupRepository.Candidate;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactDedupRepository.Changed;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactChangeType;
+import com.github.dimitryivaniuta.scheduler.lock.FencedWriteGuard;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Finds and merges duplicate contacts incrementally: each batch covers the contacts changed since the previous
+ * one, in {@code (updated_at, id)} order, and compares them with all others through blocking keys.
+ * <ol>
+ *     <li>Match keys of the batch are refreshed and candidate pairs queried, one slice per virtual thread.</li>
+ *     <li>Pairs are grouped transitively (union-find); the oldest contact of a group survives.</li>
+ *     <li>Duplicates are merged into their survivor and deleted, {@code mergesPerTransaction} at a time, on
+ *     one thread: concurrent merge transactions could lock the same survivor in opposite orders.</li>
+ * </ol>
+ * Progress is recorded after the merges, so a failed batch is redone; merging is idempotent.
+ */
+@Slf4j
+@Service
+public class ContactDedupService {
+
+    private final ContactDedupRepository repository;
+    private final ContactOutboxRepository outboxRepository;
+    private final FencedWriteGuard fencedWriteGuard;
+    private final ContactDedupProperties properties;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+
+    private record Merge(UUID survivorId, UUID duplicateId, String rule) {
+    }
+
+    public ContactDedupService(ContactDedupRepository repository,
+                               ContactOutboxRepository outboxRepository,
+                               FencedWriteGuard fencedWriteGuard,
+                               ContactDedupProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.outboxRepository = outboxRepository;
+        this.fencedWriteGuard = fencedWriteGuard;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Processes the next batch of changed contacts.
+     *
+     * @return contacts scanned; 0 when caught up
+     */
+    public int runBatch() {
+        ContactDedupRepository.State state = repository.state();
+        List<Changed> changed = repository.changedAfter(state.scannedThroughAt(), state.scannedThroughId(),
+                OffsetDateTime.now().minus(properties.settle()), properties.sliceSize() * properties.parallelism());
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        List<List<UUID>> slices = new ArrayList<>();
+        for (int from = 0; from < changed.size(); from += properties.sliceSize()) {
+            slices.add(changed.subList(from, Math.min(from + properties.sliceSize(), changed.size())).stream()
+                    .map(Changed::id)
+                    .toList());
+        }
+
+        // keys of the whole batch first, so pairs within the batch are found from either side
+        inParallel(slices, repository::refreshKeys);
+        List<Candidate> candidates = inParallel(slices, slice -> repository.candidates(slice, properties.window(),
+                properties.nameSimilarity(), properties.phoneNameSimilarity()))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+
+        List<Merge> merges = group(candidates);
+        int merged = 0;
+        for (int from = 0; from < merges.size(); from += properties.mergesPerTransaction()) {
+            merged += merge(merges.subList(from, Math.min(from + properties.mergesPerTransaction(), merges.size())));
+            LockContext.heartbeat();
+        }
+
+        Changed last = changed.getLast();
+        int total = merged;
+        transaction.executeWithoutResult(status ->
+                repository.advance(last.updatedAt(), last.id(), changed.size(), total));
+        meterRegistry.counter("contacts.dedup.scanned").increment(changed.size());
+        log.debug("Dedup batch: {} contacts scanned, {} candidate pairs, {} merged",
+                changed.size(), candidates.size(), merged);
+        return changed.size();
+    }
+
+    // ---------------- grouping ----------------
+
+    /** Union-find over the candidate pairs; every non-oldest member of a group merges into the oldest. */
+    private static List<Merge> group(List<Candidate> candidates) {
+        Map<UUID, UUID> parent = new HashMap<>();
+        Map<UUID, OffsetDateTime> createdAt = new HashMap<>();
+        Map<UUID, String> rules = new HashMap<>();
+        Comparator<UUID> age = Comparator.comparing((UUID id) -> createdAt.get(id)).thenComparing(id -> id);
+        for (Candidate c : candidates) {
+            createdAt.putIfAbsent(c.first(), c.firstCreatedAt());
+            createdAt.putIfAbsent(c.second(), c.secondCreatedAt());
+            rules.putIfAbsent(c.first(), c.rule());
+            rules.putIfAbsent(c.second(), c.rule());
+            UUID a = find(parent, c.first());
+            UUID b = find(parent, c.second());
+            if (!a.equals(b)) {
+                if (age.compare(a, b) <= 0) {
+                    parent.put(b, a);
+                } else {
+                    parent.put(a, b);
+                }
+            }
+        }
+        List<Merge> merges = new ArrayList<>();
+        for (UUID id : parent.keySet()) {
+            UUID root = find(parent, id);
+            if (!root.equals(id)) {
+                merges.add(new Merge(root, id, rules.get(id)));
+            }
+        }
+        merges.sort(Comparator.comparing(Merge::survivorId));
+        return merges;
+    }
+
+    private static UUID find(Map<UUID, UUID> parent, UUID id) {
+        UUID root = id;
+        UUID next;
+        while ((next = parent.putIfAbsent(root, root)) != null && !next.equals(root)) {
+            root = next;
+        }
+        // path compression
+        while (!id.equals(root)) {
+            id = parent.put(id, root);
+        }
+        return root;
+    }
+
+    // ---------------- merging ----------------
+
+    private int merge(List<Merge> merges) {
+        Integer merged = transaction.execute(status -> {
+            LockContext.current().ifPresent(fencedWriteGuard::check);
+            int count = 0;
+            for (Merge merge : merges) {
+                if (repository.merge(merge.survivorId(), merge.duplicateId(), merge.rule())) {
+                    outboxRepository.append(ContactChangeType.UPDATE, merge.survivorId());
+                    outboxRepository.append(ContactChangeType.DELETE, merge.duplicateId());
+                    meterRegistry.counter("contacts.dedup.merged", "rule", merge.rule()).increment();
+                    count++;
+                }
+            }
+            return count;
+        });
+        return merged != null ? merged : 0;
+    }
+
+    // ---------------- parallel slices ----------------
+
+    /** Runs {@code task} for each slice on its own virtual thread, each on its own connection. */
+    private static <R> List<R> inParallel(List<List<UUID>> slices, Function<List<UUID>, R> task) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> futures = slices.stream()
+                    .map(slice -> executor.submit(() -> task.apply(slice)))
+                    .toList();
+            List<R> results = new ArrayList<>(futures.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deduplicating contacts", e);
+        }
+    }
+}
@@ -13,7 +13,9 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -26,7 +28,6 @@ import java.util.UUID;
                 @Index(name = "idx_contacts_last_first", columnList = "last_name, first_name"),
                 @Index(name = "idx_contacts_company", columnList = "company_name"),
                 @Index(name = "idx_contacts_country_city", columnList = "country_code, city"),
-                @Index(name = "idx_contacts_active_marketing", columnList = "is_active, marketing_opt_in, unsubscribed"),
                 @Index(name = "idx_contacts_created_at", columnList = "created_at"),
                 @Index(name = "idx_contacts_last_activity_at", columnList = "last_activity_at")
         }
@@ -147,6 +148,21 @@ public class Contact {
     @Column(name = "last_activity_at")
     private OffsetDateTime lastActivityAt;
 
+    /** derived by the database from opens, clicks and bounces (V11); read back after every write */
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "engagement_score", insertable = false, updatable = false)
+    private Integer engagementScore;
+
+    /** 0 = opened or clicked within 7 days ... 4 = over 180 days ago, 5 = never */
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "recency_bucket", insertable = false, updatable = false)
+    private Integer recencyBucket;
+
+    /** bumped by the database on every update (V12); the ETag of the contact */
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+
     /** audit */
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
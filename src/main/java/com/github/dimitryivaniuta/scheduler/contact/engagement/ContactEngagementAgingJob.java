@@ -0,0 +1,36 @@
+package com.github.dimitryivaniuta.scheduler.contact.engagement;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactEngagementRepository;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ages {@code engagement_score} and {@code recency_bucket} as time passes without new engagement; one replica
+ * at a time. Only contacts whose {@code engagement_expires_at} has passed are touched, so a run costs
+ * in proportion to the contacts that actually change. Also fills in contacts that existed before {@code V11}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactEngagementAgingJob {
+
+    static final String LOCK_NAME = "contacts-engagement-aging";
+
+    private final ContactEngagementRepository repository;
+    private final ContactEngagementProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${scheduler.contacts.engagement.aging-interval:PT1H}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT30M")
+    public void run() {
+        int updated;
+        do {
+            updated = repository.recomputeExpired(properties.batchSize());
+            meterRegistry.counter("contacts.engagement.aged").increment(updated);
+            LockContext.heartbeat();
+        } while (updated == properties.batchSize());
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.dimitryivaniuta.scheduler.contact.engagement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.contacts.engagement.*}; the aging interval is read by {@link ContactEngagementAgingJob}
+ * via a placeholder.
+ *
+ * @param batchSize contacts recomputed per statement
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.engagement")
+public record ContactEngagementProperties(
+        @DefaultValue("5000") int batchSize
+) {
+}
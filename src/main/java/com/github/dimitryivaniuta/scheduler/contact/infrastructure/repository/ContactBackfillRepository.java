@@ -0,0 +1,240 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Keyset reads and batched writes of arbitrary {@code contacts} columns for backfills, and their progress
+ * (see {@code V14__contact_backfills.sql}). Column names must come from {@link #columnTypes()}: they are
+ * put into SQL as they are.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactBackfillRepository {
+
+    /** PostgreSQL accepts at most this many bind parameters per statement. */
+    private static final int MAX_PARAMETERS = 32_767;
+
+    public record Backfill(String name, String status, boolean dryRun,
+                           OffsetDateTime startedAt, OffsetDateTime finishedAt) {
+    }
+
+    /**
+     * Ids in {@code (position, upperBound]} are still to do.
+     *
+     * @param failures consecutive failures of the chunk after {@code position}
+     */
+    public record Range(int rangeNo, UUID position, UUID upperBound, boolean done,
+                        long scannedRows, long changedRows, long conflicts, int failures, String lastError) {
+    }
+
+    /** @param values column -> value, in the order of the requested columns */
+    public record Row(UUID id, long version, Map<String, Object> values) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ---------------- progress ----------------
+
+    public List<Backfill> findAll() {
+        return jdbcTemplate.query(
+                "SELECT name, status, dry_run, started_at, finished_at FROM contact_backfills ORDER BY started_at",
+                (rs, rowNum) -> backfill(rs));
+    }
+
+    public Optional<Backfill> find(String name) {
+        return jdbcTemplate.query(
+                "SELECT name, status, dry_run, started_at, finished_at FROM contact_backfills WHERE name = ?",
+                (rs, rowNum) -> backfill(rs), name).stream().findFirst();
+    }
+
+    public List<Range> ranges(String name) {
+        return jdbcTemplate.query("""
+                        SELECT range_no, position, upper_bound, done, scanned_rows, changed_rows, conflicts,
+                               failures, last_error
+                        FROM contact_backfill_ranges WHERE backfill = ? ORDER BY range_no
+                        """,
+                (rs, rowNum) -> new Range(
+                        rs.getInt("range_no"),
+                        rs.getObject("position", UUID.class),
+                        rs.getObject("upper_bound", UUID.class),
+                        rs.getBoolean("done"),
+                        rs.getLong("scanned_rows"),
+                        rs.getLong("changed_rows"),
+                        rs.getLong("conflicts"),
+                        rs.getInt("failures"),
+                        rs.getString("last_error")),
+                name);
+    }
+
+    /**
+     * Replaces any earlier run of the backfill with a new {@code RUNNING} one.
+     *
+     * @param bounds per range: exclusive lower bound, inclusive upper bound
+     */
+    public void create(String name, boolean dryRun, List<UUID[]> bounds) {
+        jdbcTemplate.update("DELETE FROM contact_backfills WHERE name = ?", name);
+        jdbcTemplate.update("INSERT INTO contact_backfills (name, status, dry_run) VALUES (?, 'RUNNING', ?)",
+                name, dryRun);
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 0; i < bounds.size(); i++) {
+            args.add(new Object[]{name, i, bounds.get(i)[0], bounds.get(i)[1]});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO contact_backfill_ranges (backfill, range_no, position, upper_bound)
+                VALUES (?, ?, ?, ?)
+                """, args);
+    }
+
+    /** @return false if the backfill is not in status {@code from} */
+    public boolean transition(String name, String from, String to) {
+        return jdbcTemplate.update("""
+                UPDATE contact_backfills
+                SET status = ?, finished_at = CASE WHEN ? = 'DONE' THEN now() END
+                WHERE name = ? AND status = ?
+                """, to, to, name, from) > 0;
+    }
+
+    public String status(String name) {
+        return jdbcTemplate.queryForObject("SELECT status FROM contact_backfills WHERE name = ?", String.class, name);
+    }
+
+    public void advance(String name, int rangeNo, UUID position, boolean done,
+                        int scanned, int changed, int conflicts) {
+        jdbcTemplate.update("""
+                UPDATE contact_backfill_ranges
+                SET position = ?, done = ?, scanned_rows = scanned_rows + ?, changed_rows = changed_rows + ?,
+                    conflicts = conflicts + ?, failures = 0, updated_at = now()
+                WHERE backfill = ? AND range_no = ?
+                """, position, done, scanned, changed, conflicts, name, rangeNo);
+    }
+
+    /** @return consecutive failures of the range, this one included */
+    public int fail(String name, int rangeNo, String error) {
+        return jdbcTemplate.queryForObject("""
+                UPDATE contact_backfill_ranges
+                SET failures = failures + 1, last_error = ?, updated_at = now()
+                WHERE backfill = ? AND range_no = ?
+                RETURNING failures
+                """, Integer.class, error, name, rangeNo);
+    }
+
+    /** Gives every range of the backfill a fresh set of attempts. */
+    public void resetFailures(String name) {
+        jdbcTemplate.update("UPDATE contact_backfill_ranges SET failures = 0 WHERE backfill = ?", name);
+    }
+
+    // ---------------- contacts ----------------
+
+    /** Column name -> SQL type including modifiers, e.g. {@code character varying(100)}. */
+    public Map<String, String> columnTypes() {
+        Map<String, String> types = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT attname, format_type(atttypid, atttypmod) AS type
+                FROM pg_attribute
+                WHERE attrelid = 'contacts'::regclass AND attnum > 0 AND NOT attisdropped
+                ORDER BY attnum
+                """, rs -> {
+            types.put(rs.getString("attname"), rs.getString("type"));
+        });
+        return types;
+    }
+
+    /** Up to {@code limit} rows with {@code after < id <= upperBound}, in id order. */
+    public List<Row> read(Map<String, String> columns, UUID after, UUID upperBound, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, version, " + String.join(", ", columns.keySet())
+                        + " FROM contacts WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> row(rs, columns), after, upperBound, limit);
+    }
+
+    /** Current rows, locked until the end of the transaction. */
+    public List<Row> lock(Map<String, String> columns, Collection<UUID> ids) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT id, version, " + String.join(", ", columns.keySet())
+                            + " FROM contacts WHERE id = ANY (?) ORDER BY id FOR UPDATE");
+            ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> row(rs, columns));
+    }
+
+    /**
+     * Writes the rows' values with one {@code UPDATE ... FROM (VALUES ...)} per statement-sized batch, and
+     * bumps {@code updated_at}. A row is only written if its {@code version} is still the one read.
+     *
+     * @return ids written; the others were changed or deleted since they were read
+     */
+    public Set<UUID> write(Map<String, String> columns, List<Row> rows) {
+        Set<UUID> written = new HashSet<>();
+        int perStatement = MAX_PARAMETERS / (columns.size() + 2);
+        for (int from = 0; from < rows.size(); from += perStatement) {
+            List<Row> batch = rows.subList(from, Math.min(from + perStatement, rows.size()));
+            List<Object> args = new ArrayList<>();
+            for (Row row : batch) {
+                args.add(row.id());
+                args.add(row.version());
+                args.addAll(row.values().values());
+            }
+            written.addAll(jdbcTemplate.queryForList(updateSql(columns, batch.size()), UUID.class, args.toArray()));
+        }
+        return written;
+    }
+
+    // ---------------- helpers ----------------
+
+    private static String updateSql(Map<String, String> columns, int rows) {
+        StringJoiner set = new StringJoiner(", ", "UPDATE contacts c SET ", ", updated_at = now()");
+        StringJoiner names = new StringJoiner(", ", "AS v(id, version, ", ")");
+        StringJoiner tuple = new StringJoiner(", ", "(?::uuid, ?::bigint, ", ")");
+        columns.forEach((column, type) -> {
+            set.add(column + " = v." + column);
+            names.add(column);
+            tuple.add("?::" + type);
+        });
+        StringJoiner values = new StringJoiner(", ", " FROM (VALUES ", ") ");
+        for (int i = 0; i < rows; i++) {
+            values.add(tuple.toString());
+        }
+        return set + values.toString() + names + " WHERE c.id = v.id AND c.version = v.version RETURNING c.id";
+    }
+
+    private static Row row(ResultSet rs, Map<String, String> columns) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> column : columns.entrySet()) {
+            values.put(column.getKey(), switch (column.getValue()) {
+                case "timestamp with time zone" -> rs.getObject(column.getKey(), OffsetDateTime.class);
+                case "date" -> rs.getObject(column.getKey(), LocalDate.class);
+                case "citext" -> rs.getString(column.getKey());
+                default -> rs.getObject(column.getKey());
+            });
+        }
+        return new Row(rs.getObject("id", UUID.class), rs.getLong("version"), values);
+    }
+
+    private static Backfill backfill(ResultSet rs) throws SQLException {
+        return new Backfill(
+                rs.getString("name"),
+                rs.getString("status"),
+                rs.getBoolean("dry_run"),
+                rs.getObject("started_at", OffsetDateTime.class),
+                rs.getObject("finished_at", OffsetDateTime.class));
+    }
+}
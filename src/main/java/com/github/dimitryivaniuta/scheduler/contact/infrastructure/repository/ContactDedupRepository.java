@@ -0,0 +1,246 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Match keys, candidate pairs and merges of duplicate contacts (see {@code V13__contact_dedup.sql}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactDedupRepository {
+
+    /** Progress of the incremental scan; both null before the first batch. */
+    public record State(OffsetDateTime scannedThroughAt, UUID scannedThroughId) {
+    }
+
+    public record Changed(UUID id, OffsetDateTime updatedAt) {
+    }
+
+    /** Two contacts that match by {@code rule}: email | secondary | phone | name. */
+    public record Candidate(UUID first, OffsetDateTime firstCreatedAt,
+                            UUID second, OffsetDateTime secondCreatedAt, String rule) {
+    }
+
+    private static final String REFRESH_KEYS = """
+            INSERT INTO contact_match_keys (contact_id, email_key, secondary_email_key, phone_key, name_key,
+                                            name_text, company_text, country_code, created_at)
+            SELECT id,
+                   contact_email_key(email),
+                   contact_email_key(secondary_email),
+                   contact_phone_key(mobile_phone),
+                   CASE WHEN nullif(trim(last_name), '') IS NOT NULL
+                        THEN lower(trim(last_name)) || ' ' || left(lower(trim(coalesce(first_name, ''))), 1) END,
+                   nullif(lower(concat_ws(' ', trim(first_name), trim(last_name))), ''),
+                   nullif(lower(trim(company_name)), ''),
+                   country_code,
+                   created_at
+            FROM contacts
+            WHERE id = ANY (?)
+            ON CONFLICT (contact_id) DO UPDATE
+                SET email_key           = EXCLUDED.email_key,
+                    secondary_email_key = EXCLUDED.secondary_email_key,
+                    phone_key           = EXCLUDED.phone_key,
+                    name_key            = EXCLUDED.name_key,
+                    name_text           = EXCLUDED.name_text,
+                    company_text        = EXCLUDED.company_text,
+                    country_code        = EXCLUDED.country_code
+            """;
+
+    // Blocking: only pairs sharing a key (or neighbors in name_key order) are compared at all.
+    private static final String CANDIDATES = """
+            WITH changed AS (SELECT * FROM contact_match_keys WHERE contact_id = ANY (?))
+            SELECT c.contact_id AS a, c.created_at AS a_created, k.contact_id AS b, k.created_at AS b_created,
+                   'email' AS rule
+            FROM changed c
+            JOIN contact_match_keys k ON k.email_key = c.email_key AND k.contact_id <> c.contact_id
+            UNION ALL
+            SELECT c.contact_id, c.created_at, k.contact_id, k.created_at, 'secondary'
+            FROM changed c
+            JOIN contact_match_keys k ON k.email_key = c.secondary_email_key AND k.contact_id <> c.contact_id
+            UNION ALL
+            SELECT c.contact_id, c.created_at, k.contact_id, k.created_at, 'secondary'
+            FROM changed c
+            JOIN contact_match_keys k ON k.secondary_email_key = c.email_key AND k.contact_id <> c.contact_id
+            UNION ALL
+            SELECT c.contact_id, c.created_at, k.contact_id, k.created_at, 'phone'
+            FROM changed c
+            JOIN contact_match_keys k ON k.phone_key = c.phone_key AND k.contact_id <> c.contact_id
+            WHERE similarity(k.name_text, c.name_text) >= ?
+            UNION ALL
+            SELECT c.contact_id, c.created_at, n.contact_id, n.created_at, 'name'
+            FROM changed c
+            CROSS JOIN LATERAL (
+                (SELECT * FROM contact_match_keys k
+                 WHERE k.name_key >= c.name_key AND k.contact_id <> c.contact_id
+                 ORDER BY k.name_key LIMIT ?)
+                UNION ALL
+                (SELECT * FROM contact_match_keys k
+                 WHERE k.name_key < c.name_key
+                 ORDER BY k.name_key DESC LIMIT ?)
+            ) n
+            WHERE c.name_key IS NOT NULL
+              AND n.country_code IS NOT DISTINCT FROM c.country_code
+              AND similarity(n.name_text, c.name_text) >= ?
+              AND similarity(n.company_text, c.company_text) >= ?
+            """;
+
+    // The survivor keeps its own values and fills gaps from the duplicate; the address moves as a whole.
+    // Opt-in and activity are only combined when both share the email key (rule 'email'): otherwise the
+    // duplicate's consent belongs to a different address than the survivor's, which is what gets mailed.
+    // Unsubscribes, bounces and activity timestamps always keep the stronger value.
+    private static final String MERGE = """
+            UPDATE contacts s
+            SET secondary_email     = coalesce(s.secondary_email, CASE WHEN d.email <> s.email THEN d.email END),
+                first_name          = coalesce(s.first_name, d.first_name),
+                middle_name         = coalesce(s.middle_name, d.middle_name),
+                last_name           = coalesce(s.last_name, d.last_name),
+                mobile_phone        = coalesce(s.mobile_phone, d.mobile_phone),
+                work_phone          = coalesce(s.work_phone, d.work_phone),
+                home_phone          = coalesce(s.home_phone, d.home_phone),
+                company_name        = coalesce(s.company_name, d.company_name),
+                job_title           = coalesce(s.job_title, d.job_title),
+                address_line1       = CASE WHEN s.address_line1 IS NULL AND s.city IS NULL
+                                           THEN d.address_line1 ELSE s.address_line1 END,
+                address_line2       = CASE WHEN s.address_line1 IS NULL AND s.city IS NULL
+                                           THEN d.address_line2 ELSE s.address_line2 END,
+                city                = CASE WHEN s.address_line1 IS NULL AND s.city IS NULL
+                                           THEN d.city ELSE s.city END,
+                state_region        = CASE WHEN s.address_line1 IS NULL AND s.city IS NULL
+                                           THEN d.state_region ELSE s.state_region END,
+                postal_code         = CASE WHEN s.address_line1 IS NULL AND s.city IS NULL
+                                           THEN d.postal_code ELSE s.postal_code END,
+                country_code        = coalesce(s.country_code, d.country_code),
+                time_zone           = coalesce(s.time_zone, d.time_zone),
+                locale              = coalesce(s.locale, d.locale),
+                preferred_channel   = coalesce(s.preferred_channel, d.preferred_channel),
+                tags                = nullif(left(array_to_string(ARRAY(
+                                          SELECT DISTINCT trim(t)
+                                          FROM unnest(string_to_array(concat_ws(',', s.tags, d.tags), ',')) t
+                                          WHERE trim(t) <> ''), ','), 512), ''),
+                birth_date          = coalesce(s.birth_date, d.birth_date),
+                gender              = coalesce(s.gender, d.gender),
+                is_active           = s.is_active OR (? = 'email' AND d.is_active),
+                marketing_opt_in    = s.marketing_opt_in OR (? = 'email' AND d.marketing_opt_in),
+                marketing_opt_in_at = CASE WHEN s.marketing_opt_in OR ? <> 'email' THEN s.marketing_opt_in_at
+                                           ELSE d.marketing_opt_in_at END,
+                unsubscribed        = s.unsubscribed OR d.unsubscribed,
+                unsubscribed_at     = greatest(s.unsubscribed_at, d.unsubscribed_at),
+                bounce_count        = greatest(s.bounce_count, d.bounce_count),
+                last_emailed_at     = greatest(s.last_emailed_at, d.last_emailed_at),
+                last_opened_at      = greatest(s.last_opened_at, d.last_opened_at),
+                last_clicked_at     = greatest(s.last_clicked_at, d.last_clicked_at),
+                last_activity_at    = greatest(s.last_activity_at, d.last_activity_at),
+                updated_at          = now()
+            FROM contacts d
+            WHERE s.id = ? AND d.id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public State state() {
+        return jdbcTemplate.queryForObject(
+                "SELECT scanned_through_at, scanned_through_id FROM contact_dedup_state",
+                (rs, rowNum) -> new State(
+                        rs.getObject("scanned_through_at", OffsetDateTime.class),
+                        rs.getObject("scanned_through_id", UUID.class)));
+    }
+
+    /** Records a finished batch; must join the transaction of its last merges. */
+    public void advance(OffsetDateTime scannedThroughAt, UUID scannedThroughId, int scanned, int merged) {
+        jdbcTemplate.update("""
+                UPDATE contact_dedup_state
+                SET scanned_through_at = ?, scanned_through_id = ?,
+                    scanned_rows = scanned_rows + ?, merged_rows = merged_rows + ?, updated_at = now()
+                """, scannedThroughAt, scannedThroughId, scanned, merged);
+    }
+
+    /**
+     * Next contacts in {@code (updated_at, id)} order after the given position, changed before {@code before};
+     * rows changed later (possibly by still open transactions) are left for the next run.
+     */
+    public List<Changed> changedAfter(OffsetDateTime at, UUID id, OffsetDateTime before, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, updated_at FROM contacts
+                        WHERE (updated_at, id) > (coalesce(?::timestamptz, '-infinity'),
+                                                  coalesce(?::uuid, '00000000-0000-0000-0000-000000000000'))
+                          AND updated_at < ?
+                        ORDER BY updated_at, id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new Changed(rs.getObject("id", UUID.class),
+                        rs.getObject("updated_at", OffsetDateTime.class)),
+                at, id, before, limit);
+    }
+
+    /** Recomputes the match keys of the given contacts in one statement. */
+    public int refreshKeys(Collection<UUID> ids) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REFRESH_KEYS);
+            ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Pairs of one of the given contacts and any other contact that match by a rule. A pair may be returned
+     * more than once, in either order.
+     *
+     * @param window              neighbors on each side of a contact in {@code name_key} order
+     * @param nameSimilarity      minimum trigram similarity of names and of companies for the name rule
+     * @param phoneNameSimilarity minimum trigram similarity of names for the phone rule
+     */
+    public List<Candidate> candidates(Collection<UUID> ids, int window, double nameSimilarity,
+                                      double phoneNameSimilarity) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CANDIDATES);
+            ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            ps.setDouble(2, phoneNameSimilarity);
+            ps.setInt(3, window);
+            ps.setInt(4, window);
+            ps.setDouble(5, nameSimilarity);
+            ps.setDouble(6, nameSimilarity);
+            return ps;
+        }, (rs, rowNum) -> new Candidate(
+                rs.getObject("a", UUID.class), rs.getObject("a_created", OffsetDateTime.class),
+                rs.getObject("b", UUID.class), rs.getObject("b_created", OffsetDateTime.class),
+                rs.getString("rule")));
+    }
+
+    /**
+     * Merges {@code duplicateId} into {@code survivorId} and deletes it; must run in a transaction. Both rows
+     * are locked in id order first, so merges and other writers locking the same pair cannot deadlock.
+     *
+     * @return false if either contact no longer exists (its match keys are removed)
+     */
+    public boolean merge(UUID survivorId, UUID duplicateId, String rule) {
+        List<UUID> locked = jdbcTemplate.queryForList(
+                "SELECT id FROM contacts WHERE id IN (?, ?) ORDER BY id FOR UPDATE", UUID.class,
+                survivorId, duplicateId);
+        if (locked.size() < 2) {
+            jdbcTemplate.update("""
+                    DELETE FROM contact_match_keys k
+                    WHERE k.contact_id IN (?, ?) AND NOT EXISTS (SELECT 1 FROM contacts c WHERE c.id = k.contact_id)
+                    """, survivorId, duplicateId);
+            return false;
+        }
+        jdbcTemplate.update(MERGE, rule, rule, rule, survivorId, duplicateId);
+        jdbcTemplate.update("DELETE FROM contacts WHERE id = ?", duplicateId);
+        jdbcTemplate.update("DELETE FROM contact_match_keys WHERE contact_id = ?", duplicateId);
+        // earlier merges into the duplicate now resolve to the survivor directly
+        jdbcTemplate.update("UPDATE contact_merges SET survivor_id = ? WHERE survivor_id = ?",
+                survivorId, duplicateId);
+        jdbcTemplate.update("""
+                INSERT INTO contact_merges (duplicate_id, survivor_id, rule) VALUES (?, ?, ?)
+                ON CONFLICT (duplicate_id) DO NOTHING
+                """, duplicateId, survivorId, rule);
+        return true;
+    }
+}
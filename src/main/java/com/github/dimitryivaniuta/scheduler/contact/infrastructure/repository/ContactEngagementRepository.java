@@ -0,0 +1,47 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Time-based maintenance of the derived engagement columns of {@code contacts} (see {@code V11__contacts_engagement.sql});
+ * writes of the inputs are handled by the {@code trg_contacts_engagement} trigger.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactEngagementRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recomputes up to {@code limit} contacts whose engagement crossed an age boundary, oldest first.
+     * Rows locked by concurrent writers are skipped; their trigger recomputes them anyway. Like any other
+     * change of filterable columns, this bumps {@code updated_at} (so incremental segment refreshes pick the
+     * contacts up) and records an UPDATE in {@code contact_outbox}, in the same statement.
+     *
+     * @return contacts recomputed
+     */
+    public int recomputeExpired(int limit) {
+        Integer recomputed = jdbcTemplate.queryForObject("""
+                WITH updated AS (
+                    UPDATE contacts c
+                    SET (engagement_score, recency_bucket, engagement_expires_at) =
+                        (SELECT e.score, e.bucket, e.expires_at
+                         FROM contact_engagement(c.last_opened_at, c.last_clicked_at, c.bounce_count, now()) e),
+                        updated_at = now()
+                    WHERE c.id IN (SELECT id FROM contacts
+                                   WHERE engagement_expires_at <= now()
+                                   ORDER BY engagement_expires_at
+                                   LIMIT ?
+                                   FOR UPDATE SKIP LOCKED)
+                    RETURNING c.id
+                ), outbox AS (
+                    INSERT INTO contact_outbox (op, contact_id)
+                    SELECT 'UPDATE', id FROM updated
+                )
+                SELECT count(*) FROM updated
+                """, Integer.class, limit);
+        return recomputed != null ? recomputed : 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies coalesced bounce / complaint / unsubscribe feedback to {@code contacts} with one set-based
+ * {@code UPDATE ... FROM unnest(...)} per batch; entities are never loaded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactFeedbackRepository {
+
+    /** takes the row locks in one fixed order before {@link #APPLY}, whose join order is up to the planner */
+    private static final String LOCK = "SELECT id FROM contacts WHERE email = ANY (?::citext[]) ORDER BY email FOR UPDATE";
+
+    /** also records an UPDATE in {@code contact_outbox} for every contact it touches */
+    private static final String APPLY = """
+            WITH updated AS (
+                UPDATE contacts c
+                   SET bounce_count    = c.bounce_count + v.bounces,
+                       unsubscribed    = c.unsubscribed OR v.suppress OR c.bounce_count + v.bounces >= ?,
+                       unsubscribed_at = CASE
+                                             WHEN c.unsubscribed THEN c.unsubscribed_at
+                                             WHEN v.suppress OR c.bounce_count + v.bounces >= ? THEN v.at
+                                             ELSE c.unsubscribed_at
+                                         END,
+                       updated_at      = now()
+                  FROM unnest(?::text[], ?::int[], ?::boolean[], ?::timestamptz[]) AS v(email, bounces, suppress, at)
+                 WHERE c.email = v.email::citext
+                RETURNING c.id, c.email::text AS email, c.unsubscribed
+            ), outbox AS (
+                INSERT INTO contact_outbox (op, contact_id)
+                SELECT 'UPDATE', id FROM updated
+            )
+            SELECT email, unsubscribed FROM updated
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One row per distinct email.
+     *
+     * @param bounces  hard bounces to add to {@code bounce_count}
+     * @param suppress unsubscribe now (complaint or unsubscribe request)
+     * @param at       used as {@code unsubscribed_at} when the contact becomes suppressed
+     */
+    public record Update(String email, int bounces, boolean suppress, OffsetDateTime at) {
+    }
+
+    /**
+     * @param updated    contacts updated
+     * @param suppressed addresses of updated contacts that are unsubscribed now
+     */
+    public record Applied(int updated, List<String> suppressed) {
+    }
+
+    /**
+     * Contacts reaching {@code suppressAfterBounces} are unsubscribed in the same statement. The contacts are
+     * locked in email order first, so concurrent batches with overlapping addresses cannot deadlock.
+     */
+    @Transactional
+    public Applied apply(List<Update> updates, int suppressAfterBounces) {
+        if (updates.isEmpty()) {
+            return new Applied(0, List.of());
+        }
+        Object[] emails = updates.stream().map(Update::email).toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK);
+            ps.setArray(1, connection.createArrayOf("text", emails));
+            return ps;
+        }, rs -> {
+        });
+        int[] updated = {0};
+        List<String> suppressed = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(APPLY);
+            ps.setInt(1, suppressAfterBounces);
+            ps.setInt(2, suppressAfterBounces);
+            ps.setArray(3, connection.createArrayOf("text", emails));
+            ps.setArray(4, connection.createArrayOf("int4", updates.stream().map(Update::bounces).toArray()));
+            ps.setArray(5, connection.createArrayOf("bool", updates.stream().map(Update::suppress).toArray()));
+            ps.setArray(6, connection.createArrayOf("text", updates.stream().map(u -> u.at().toString()).toArray()));
+            return ps;
+        }, rs -> {
+            updated[0]++;
+            if (rs.getBoolean(2)) {
+                suppressed.add(rs.getString(1));
+            }
+        });
+        return new Applied(updated[0], suppressed);
+    }
+}
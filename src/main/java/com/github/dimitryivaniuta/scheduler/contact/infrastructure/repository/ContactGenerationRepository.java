@@ -0,0 +1,21 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Change generation of {@code contacts} (see {@code V12__contacts_versions.sql}): different after every
+ * committed insert, update or delete, and consistent with the rows visible in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactGenerationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long current() {
+        Long generation = jdbcTemplate.queryForObject("SELECT sum(value) FROM contacts_generation", Long.class);
+        return generation != null ? generation : 0L;
+    }
+}
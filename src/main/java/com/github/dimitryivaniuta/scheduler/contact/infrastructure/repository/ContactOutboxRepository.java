@@ -0,0 +1,64 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ContactOutboxRepository {
+
+    public record Row(long id, ContactChangeType op, UUID contactId, OffsetDateTime occurredAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Must join the transaction of the change it records. */
+    public void append(ContactChangeType op, UUID contactId) {
+        jdbcTemplate.update("INSERT INTO contact_outbox (op, contact_id) VALUES (?, ?)", op.name(), contactId);
+    }
+
+    /** One row per contact, in one statement; must join the transaction of the change, like {@link #append}. */
+    public void appendAll(ContactChangeType op, Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO contact_outbox (op, contact_id) SELECT ?, unnest(?)");
+            ps.setString(1, op.name());
+            ps.setArray(2, connection.createArrayOf("uuid", contactIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Oldest unpublished rows. Rows of transactions that commit late (lower id, committed after a higher one)
+     * are simply picked up by a later call, because published rows are deleted rather than skipped by id.
+     */
+    public List<Row> findOldest(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, op, contact_id, occurred_at FROM contact_outbox ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Row(
+                        rs.getLong("id"),
+                        ContactChangeType.valueOf(rs.getString("op")),
+                        rs.getObject("contact_id", UUID.class),
+                        rs.getObject("occurred_at", OffsetDateTime.class)),
+                limit);
+    }
+
+    public int delete(Collection<Long> ids) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM contact_outbox WHERE id = ANY (?)");
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the partitioned shadow of {@code contacts} and its migration state
+ * (see {@code V9__contacts_partitioned.sql}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactPartitionRepository {
+
+    public static final String PARTITION_PREFIX = "contacts_partitioned_y";
+
+    public record State(String state, UUID copiedThrough, long copiedRows,
+                        OffsetDateTime startedAt, OffsetDateTime copiedAt, OffsetDateTime cutOverAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public State state() {
+        return jdbcTemplate.queryForObject(
+                "SELECT state, copied_through, copied_rows, started_at, copied_at, cut_over_at "
+                        + "FROM contacts_partition_migration",
+                (rs, rowNum) -> new State(
+                        rs.getString("state"),
+                        rs.getObject("copied_through", UUID.class),
+                        rs.getLong("copied_rows"),
+                        rs.getObject("started_at", OffsetDateTime.class),
+                        rs.getObject("copied_at", OffsetDateTime.class),
+                        rs.getObject("cut_over_at", OffsetDateTime.class)));
+    }
+
+    /** Locks the state row for the rest of the transaction. */
+    public State lockState() {
+        jdbcTemplate.queryForList("SELECT id FROM contacts_partition_migration FOR UPDATE");
+        return state();
+    }
+
+    public void setState(String state) {
+        jdbcTemplate.update("""
+                UPDATE contacts_partition_migration
+                SET state = ?,
+                    started_at = CASE WHEN ? = 'COPYING' THEN now() ELSE started_at END,
+                    copied_at = CASE WHEN ? = 'COPIED' THEN now() ELSE copied_at END,
+                    cut_over_at = CASE WHEN ? = 'DONE' THEN now() ELSE cut_over_at END
+                """, state, state, state, state);
+    }
+
+    /** Rows whose activity predates creation; they would violate {@code ck_contacts_activity_after_created}. */
+    public long countActivityBeforeCreation() {
+        Long count = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM contacts
+                WHERE last_activity_at < created_at OR last_emailed_at < created_at
+                   OR last_opened_at < created_at OR last_clicked_at < created_at
+                """, Long.class);
+        return count != null ? count : 0;
+    }
+
+    public Integer minCreatedYear() {
+        return jdbcTemplate.queryForObject(
+                "SELECT extract(year FROM min(created_at) AT TIME ZONE 'UTC')::int FROM contacts", Integer.class);
+    }
+
+    // ---------------- partitions ----------------
+
+    /**
+     * Creates the partition holding {@code [year, year + 1)} UTC, if missing.
+     *
+     * @param parent {@code contacts_partitioned} before cutover, {@code contacts} after
+     */
+    public void createPartition(String parent, Year year) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(year)
+                + " PARTITION OF " + parent + " FOR VALUES FROM ('"
+                + year.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+                + "') TO ('" + year.plusYears(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant() + "')");
+    }
+
+    public static String partitionName(Year year) {
+        return PARTITION_PREFIX + year.getValue();
+    }
+
+    // ---------------- copy ----------------
+
+    public void attachDualWrite() {
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE TRIGGER trg_contacts_dual_write
+                    AFTER INSERT OR UPDATE OR DELETE ON contacts
+                    FOR EACH ROW EXECUTE FUNCTION contacts_dual_write()
+                """);
+    }
+
+    /**
+     * Copies the next {@code limit} contacts after the stored keyset position and advances it.
+     * <p>
+     * {@code FOR SHARE} makes concurrent writers of those rows wait for this batch, so their dual-write
+     * trigger runs after the copy; a row deleted between snapshot and lock is skipped instead of resurrected.
+     * Rows the trigger already wrote win over the (older) copied version.
+     *
+     * @return rows copied; 0 when the end of the table is reached
+     */
+    public int copyBatch(int limit) {
+        Integer copied = jdbcTemplate.queryForObject("""
+                WITH batch AS (
+                    SELECT * FROM contacts
+                    WHERE id > coalesce((SELECT copied_through FROM contacts_partition_migration),
+                                        '00000000-0000-0000-0000-000000000000')
+                    ORDER BY id
+                    LIMIT ?
+                    FOR SHARE
+                ), copied AS (
+                    INSERT INTO contacts_partitioned SELECT * FROM batch
+                    ON CONFLICT (id, created_at) DO NOTHING
+                )
+                UPDATE contacts_partition_migration
+                SET copied_through = coalesce((SELECT id FROM batch ORDER BY id DESC LIMIT 1), copied_through),
+                    copied_rows = copied_rows + (SELECT count(*) FROM batch)
+                RETURNING (SELECT count(*) FROM batch)::int
+                """, Integer.class, limit);
+        return copied != null ? copied : 0;
+    }
+
+    public record Counts(long contacts, long partitioned) {
+    }
+
+    /** Both counts from one statement, i.e. one snapshot; the dual-write trigger keeps them in step. */
+    public Counts counts() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT count(*) FROM contacts), (SELECT count(*) FROM contacts_partitioned)",
+                (rs, rowNum) -> new Counts(rs.getLong(1), rs.getLong(2)));
+    }
+
+    // ---------------- cutover ----------------
+
+    /**
+     * Swaps the tables; must run in one transaction. The unpartitioned table is kept as
+     * {@code contacts_unpartitioned} for rollback and can be dropped once the new layout is trusted.
+     */
+    public void swap() {
+        jdbcTemplate.execute("LOCK TABLE contacts IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("DROP TRIGGER trg_contacts_dual_write ON contacts");
+        jdbcTemplate.execute("ALTER TABLE segment_members DROP CONSTRAINT IF EXISTS segment_members_contact_id_fkey");
+        jdbcTemplate.execute("""
+                CREATE TRIGGER trg_contacts_partitioned_delete_members
+                    AFTER DELETE ON contacts_partitioned
+                    FOR EACH ROW EXECUTE FUNCTION contacts_partitioned_delete_members()
+                """);
+        jdbcTemplate.execute("ALTER TABLE contacts RENAME TO contacts_unpartitioned");
+        jdbcTemplate.execute("ALTER INDEX ux_contacts_email_ci RENAME TO ux_contacts_unpartitioned_email_ci");
+        jdbcTemplate.execute("ALTER TABLE contacts_partitioned RENAME TO contacts");
+        jdbcTemplate.execute("ALTER TABLE contact_emails RENAME CONSTRAINT contact_emails_pkey TO ux_contacts_email_ci");
+    }
+}
@@ -3,9 +3,32 @@ package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ContactRepository
         extends JpaRepository<Contact, UUID>, JpaSpecificationExecutor<Contact>, ContactRepositoryCustom {
+
+    @Modifying
+    @Query("update Contact c set c.lastEmailedAt = :at, c.updatedAt = :at where c.id in :ids")
+    int markEmailed(@Param("ids") Collection<UUID> ids, @Param("at") OffsetDateTime at);
+
+    /** One statement for any number of ids, unlike {@code findAllById}. */
+    @Query(value = "SELECT * FROM contacts WHERE id = ANY (:ids)", nativeQuery = true)
+    List<Contact> findAllByIdAny(@Param("ids") UUID[] ids);
+
+    /** Deletes in one statement; 0 if the contact does not exist. */
+    @Modifying
+    @Query("delete from Contact c where c.id = :id")
+    int deleteByIdReturningCount(@Param("id") UUID id);
+
+    @Query("select c.version from Contact c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 }
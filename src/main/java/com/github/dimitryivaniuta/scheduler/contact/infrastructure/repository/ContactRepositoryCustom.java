@@ -5,7 +5,17 @@ import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilte
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 public interface ContactRepositoryCustom {
 
     Page<Contact> searchByFilterQuerydsl(ContactFilterRequest filter, Pageable pageable);
+
+    /** Ids only, keyset-paged by id: up to {@code limit} matching ids greater than {@code afterId} (null = from start). */
+    List<UUID> findIdsByFilterAfter(ContactFilterRequest filter, UUID afterId, int limit);
+
+    /** The subset of {@code ids} that matches the filter. */
+    List<UUID> findIdsByFilterIn(ContactFilterRequest filter, Collection<UUID> ids);
 }
@@ -0,0 +1,85 @@
+package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Archiving and deletion of inactive contacts (see {@code V15__contact_retention.sql}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactRetentionRepository {
+
+    /** @param lastId highest id archived; null if none */
+    public record Chunk(int rows, UUID lastId) {
+    }
+
+    // One statement: archive, delete, outbox, suppression and match key cleanup commit together or not at all.
+    // Suppressed contacts leave their address in suppressed_emails, so it stays unmailable if it comes back.
+    private static final String ARCHIVE_CHUNK = """
+            WITH victims AS (
+                SELECT id FROM contacts
+                WHERE NOT is_active
+                  AND id > coalesce(?::uuid, '00000000-0000-0000-0000-000000000000')
+                  AND coalesce(last_activity_at, created_at) < ?
+                  AND updated_at < ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), deleted AS (
+                DELETE FROM contacts c USING victims v WHERE c.id = v.id
+                RETURNING c.*
+            ), chunk AS (
+                INSERT INTO contact_archive_chunks (row_count, contacts)
+                SELECT count(*), jsonb_agg(to_jsonb(d) ORDER BY d.id) FROM deleted d
+                HAVING count(*) > 0
+                RETURNING id
+            ), archived AS (
+                INSERT INTO contact_archive_ids (contact_id, chunk_id)
+                SELECT d.id, chunk.id FROM deleted d CROSS JOIN chunk
+            ), outbox AS (
+                INSERT INTO contact_outbox (op, contact_id)
+                SELECT 'DELETE', d.id FROM deleted d
+            ), suppressed AS (
+                INSERT INTO suppressed_emails (email, reason)
+                SELECT d.email, CASE WHEN d.unsubscribed THEN 'archived: unsubscribed' ELSE 'archived: bounced' END
+                FROM deleted d
+                WHERE d.unsubscribed OR d.bounce_count > ?
+                ON CONFLICT (email) DO NOTHING
+            ), match_keys AS (
+                DELETE FROM contact_match_keys k USING deleted d WHERE k.contact_id = d.id
+            )
+            SELECT (SELECT count(*) FROM deleted) AS row_count,
+                   (SELECT d.id FROM deleted d ORDER BY d.id DESC LIMIT 1) AS last_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves up to {@code limit} contacts that are inactive and neither active nor changed since {@code cutoff},
+     * with ids above {@code after}, to the archive. Rows locked by other transactions are skipped and left
+     * for the next run. Unsubscribed contacts and those with more than {@code maxBounceCount} bounces are
+     * added to {@code suppressed_emails}.
+     */
+    public Chunk archiveChunk(UUID after, OffsetDateTime cutoff, int limit, int maxBounceCount) {
+        return jdbcTemplate.queryForObject(ARCHIVE_CHUNK,
+                (rs, rowNum) -> new Chunk(rs.getInt("row_count"), rs.getObject("last_id", UUID.class)),
+                after, cutoff, cutoff, limit, maxBounceCount);
+    }
+
+    /** Current WAL insert position. */
+    public String walPosition() {
+        return jdbcTemplate.queryForObject("SELECT pg_current_wal_insert_lsn()::text", String.class);
+    }
+
+    /** WAL bytes written since {@code position}, by every session. */
+    public long walBytesSince(String position) {
+        Long bytes = jdbcTemplate.queryForObject(
+                "SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), ?::pg_lsn)::bigint", Long.class, position);
+        return bytes != null ? bytes : 0;
+    }
+}
@@ -6,7 +6,23 @@ import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilte
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ContactSearchJooqRepository {
 
     Page<Contact> search(ContactFilterRequest filter, Pageable pageable);
+
+    /**
+     * Contacts matching the filter per value of each facet ({@code country}, {@code channel}, {@code locale},
+     * {@code gender}, all values; {@code tag}, the {@code tagLimit} most frequent), plus facet {@code total}.
+     *
+     * @param samplePercent count a {@code TABLESAMPLE SYSTEM} sample of this percentage of pages; null = all rows
+     */
+    List<FacetCount> facets(ContactFilterRequest filter, Double samplePercent, int tagLimit);
+
+    /** Planner estimate of the rows in {@code contacts}, summed over partitions; 0 when never analyzed. */
+    long estimatedRows();
+
+    record FacetCount(String facet, String value, long count) {
+    }
 }
@@ -8,6 +8,9 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.BooleanPath;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -16,7 +19,9 @@ import org.springframework.data.domain.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
@@ -61,6 +66,40 @@ public class ContactRepositoryImpl implements ContactRepositoryCustom {
         return new PageImpl<>(content, pageable, total);
     }
 
+    @Override
+    public List<UUID> findIdsByFilterAfter(ContactFilterRequest f, UUID afterId, int limit) {
+        QContact c = QContact.contact;
+        BooleanBuilder predicate = buildPredicate(f, c);
+        if (afterId != null) {
+            predicate.and(c.id.gt(afterId));
+        }
+        return queryFactory
+                .select(c.id)
+                .from(c)
+                .where(predicate)
+                .orderBy(c.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public List<UUID> findIdsByFilterIn(ContactFilterRequest f, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        QContact c = QContact.contact;
+        return queryFactory
+                .select(c.id)
+                .from(c)
+                .where(buildPredicate(f, c).and(c.id.in(ids)))
+                .fetch();
+    }
+
+    /** Literal {@code true}/{@code false}, so partial indexes on the flags match (see ContactSpecifications). */
+    private static BooleanExpression flag(BooleanPath path, boolean value) {
+        return Expressions.booleanTemplate(value ? "{0} = true" : "{0} = false", path);
+    }
+
     private BooleanBuilder buildPredicate(ContactFilterRequest f, QContact c) {
         BooleanBuilder builder = new BooleanBuilder();
 
@@ -147,13 +186,13 @@ public class ContactRepositoryImpl implements ContactRepositoryCustom {
         }
 
         if (f.active() != null) {
-            builder.and(c.active.eq(f.active()));
+            builder.and(flag(c.active, f.active()));
         }
         if (f.marketingOptIn() != null) {
-            builder.and(c.marketingOptIn.eq(f.marketingOptIn()));
+            builder.and(flag(c.marketingOptIn, f.marketingOptIn()));
         }
         if (f.unsubscribed() != null) {
-            builder.and(c.unsubscribed.eq(f.unsubscribed()));
+            builder.and(flag(c.unsubscribed, f.unsubscribed()));
         }
         if (f.minBounceCount() != null) {
             builder.and(c.bounceCount.goe(f.minBounceCount()));
@@ -161,6 +200,12 @@ public class ContactRepositoryImpl implements ContactRepositoryCustom {
         if (f.maxBounceCount() != null) {
             builder.and(c.bounceCount.loe(f.maxBounceCount()));
         }
+        if (f.minEngagementScore() != null) {
+            builder.and(c.engagementScore.goe(f.minEngagementScore()));
+        }
+        if (f.recencyBucket() != null) {
+            builder.and(c.recencyBucket.loe(f.recencyBucket()));
+        }
 
         if (f.createdFrom() != null) {
             builder.and(c.createdAt.goe(f.createdFrom()));
@@ -1,34 +1,67 @@
 package com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.impl;
 
 import com.github.dimitryivaniuta.jooq.tables.Contacts;
+import com.github.dimitryivaniuta.scheduler.contact.ContactSearchProperties;
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 import com.github.dimitryivaniuta.scheduler.contact.dto.ContactFilterRequest;
 import lombok.RequiredArgsConstructor;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.SelectConditionStep;
 import org.jooq.SortField;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.UUID;
 
+/**
+ * Read-only transaction so jOOQ queries take their connection from a read replica when one is configured.
+ * <p>
+ * Every filter value is a bind value and predicates are always rendered in the same order, so each set of
+ * filter fields maps to exactly one SQL text that PgJDBC can prepare once per connection and reuse.
+ */
 @Repository
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqRepository {
 
     private static final Contacts C = Contacts.CONTACTS;
 
+    /** Open range bounds of {@link #range}; years 1 and 9999 render portably, unlike the min/max Java values. */
+    private static final LocalDate FIRST_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+    private static final OffsetDateTime FIRST_INSTANT = FIRST_DATE.atStartOfDay().atOffset(ZoneOffset.UTC);
+    private static final OffsetDateTime LAST_INSTANT = LAST_DATE.atTime(LocalTime.MAX).atOffset(ZoneOffset.UTC);
+
+    /** Facets counted with {@code GROUPING SETS}; low-cardinality columns, so every value is returned. */
+    private static final Map<String, Field<String>> FACETS = new LinkedHashMap<>();
+
+    static {
+        FACETS.put("country", C.COUNTRY_CODE);
+        FACETS.put("channel", C.PREFERRED_CHANNEL);
+        FACETS.put("locale", C.LOCALE);
+        FACETS.put("gender", C.GENDER);
+    }
+
     private final DSLContext dsl;
+    private final ContactSearchProperties properties;
 
     @Override
     public Page<Contact> search(ContactFilterRequest filter, Pageable pageable) {
@@ -62,6 +95,78 @@ public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqReposit
         return new PageImpl<>(content, pageable, total);
     }
 
+    // ---------------- facets ----------------
+
+    /**
+     * One scan for all column facets and the total ({@code GROUPING SETS}), one for tags, which are stored
+     * comma-separated and have to be split first. A sample is drawn with one random {@code REPEATABLE} seed per
+     * call, so both scans read the same pages and the tag counts describe the same rows as the total.
+     */
+    @Override
+    public List<FacetCount> facets(ContactFilterRequest filter, Double samplePercent, int tagLimit) {
+        Condition condition = buildCondition(filter);
+        Table<?> from = samplePercent == null
+                ? C
+                : DSL.table("{0} TABLESAMPLE SYSTEM ({1}) REPEATABLE ({2})", C, DSL.inline(samplePercent),
+                        DSL.val(ThreadLocalRandom.current().nextInt()));
+
+        List<Field<?>> select = new ArrayList<>(FACETS.values());
+        List<Field<?>[]> groupingSets = new ArrayList<>();
+        for (Field<String> field : FACETS.values()) {
+            select.add(DSL.grouping(field));
+            groupingSets.add(new Field<?>[]{field});
+        }
+        groupingSets.add(new Field<?>[0]);
+        select.add(DSL.count());
+
+        List<FacetCount> counts = new ArrayList<>();
+        dsl.select(select)
+                .from(from)
+                .where(condition)
+                .groupBy(DSL.groupingSets(groupingSets.toArray(Field<?>[][]::new)))
+                .forEach(r -> {
+                    String facet = "total";
+                    String value = null;
+                    int i = 0;
+                    for (Map.Entry<String, Field<String>> entry : FACETS.entrySet()) {
+                        if (r.get(FACETS.size() + i++, Integer.class) == 0) {
+                            facet = entry.getKey();
+                            value = r.get(entry.getValue());
+                        }
+                    }
+                    counts.add(new FacetCount(facet, value, r.get(select.size() - 1, Long.class)));
+                });
+
+        Field<String> tag = DSL.lower(DSL.trim(DSL.field(DSL.name("t", "tag"), String.class)));
+        Field<Integer> count = DSL.count();
+        dsl.select(tag, count)
+                .from(from)
+                .crossJoin(DSL.table("unnest(string_to_array({0}, ',')) AS t(tag)", C.TAGS))
+                .where(condition)
+                .and(tag.ne(""))
+                .groupBy(tag)
+                .orderBy(count.desc(), tag)
+                .limit(tagLimit)
+                .forEach(r -> counts.add(new FacetCount("tag", r.get(tag), r.get(count, Long.class))));
+        return counts;
+    }
+
+    @Override
+    public long estimatedRows() {
+        Number rows = (Number) dsl.fetchValue("""
+                SELECT CASE
+                           WHEN c.reltuples > 0 THEN c.reltuples
+                           ELSE coalesce((SELECT sum(greatest(p.reltuples, 0))
+                                          FROM pg_inherits i
+                                          JOIN pg_class p ON p.oid = i.inhrelid
+                                          WHERE i.inhparent = c.oid), 0)
+                           END
+                FROM pg_class c
+                WHERE c.oid = 'contacts'::regclass
+                """);
+        return rows != null ? rows.longValue() : 0L;
+    }
+
     // ---------------- condition builder ----------------
 
     private Condition buildCondition(ContactFilterRequest f) {
@@ -146,64 +251,34 @@ public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqReposit
         }
 
         // demographics
-        if (f.birthDateFrom() != null) {
-            condition = condition.and(C.BIRTH_DATE.ge(f.birthDateFrom()));
-        }
-        if (f.birthDateTo() != null) {
-            condition = condition.and(C.BIRTH_DATE.le(f.birthDateTo()));
-        }
+        condition = condition.and(range(C.BIRTH_DATE, f.birthDateFrom(), f.birthDateTo(), FIRST_DATE, LAST_DATE));
         if (hasText(f.gender())) {
             condition = condition.and(DSL.lower(C.GENDER).eq(f.gender().toLowerCase()));
         }
 
-        // booleans / metrics
+        // booleans / metrics; flags inlined so partial indexes on them match in generic plans
         if (f.active() != null) {
-            condition = condition.and(C.IS_ACTIVE.eq(f.active()));
+            condition = condition.and(C.IS_ACTIVE.eq(DSL.inline(f.active())));
         }
         if (f.marketingOptIn() != null) {
-            condition = condition.and(C.MARKETING_OPT_IN.eq(f.marketingOptIn()));
+            condition = condition.and(C.MARKETING_OPT_IN.eq(DSL.inline(f.marketingOptIn())));
         }
         if (f.unsubscribed() != null) {
-            condition = condition.and(C.UNSUBSCRIBED.eq(f.unsubscribed()));
-        }
-        if (f.minBounceCount() != null) {
-            condition = condition.and(C.BOUNCE_COUNT.ge(f.minBounceCount()));
-        }
-        if (f.maxBounceCount() != null) {
-            condition = condition.and(C.BOUNCE_COUNT.le(f.maxBounceCount()));
+            condition = condition.and(C.UNSUBSCRIBED.eq(DSL.inline(f.unsubscribed())));
         }
+        condition = condition.and(range(C.BOUNCE_COUNT, f.minBounceCount(), f.maxBounceCount(),
+                Integer.MIN_VALUE, Integer.MAX_VALUE));
+        condition = condition.and(range(C.ENGAGEMENT_SCORE, f.minEngagementScore(), null,
+                Integer.MIN_VALUE, Integer.MAX_VALUE));
+        condition = condition.and(range(C.RECENCY_BUCKET, null, f.recencyBucket(),
+                Integer.MIN_VALUE, Integer.MAX_VALUE));
 
         // date ranges
-        if (f.createdFrom() != null) {
-            condition = condition.and(C.CREATED_AT.ge(f.createdFrom()));
-        }
-        if (f.createdTo() != null) {
-            condition = condition.and(C.CREATED_AT.le(f.createdTo()));
-        }
-        if (f.lastActivityFrom() != null) {
-            condition = condition.and(C.LAST_ACTIVITY_AT.ge(f.lastActivityFrom()));
-        }
-        if (f.lastActivityTo() != null) {
-            condition = condition.and(C.LAST_ACTIVITY_AT.le(f.lastActivityTo()));
-        }
-        if (f.lastEmailedFrom() != null) {
-            condition = condition.and(C.LAST_EMAILED_AT.ge(f.lastEmailedFrom()));
-        }
-        if (f.lastEmailedTo() != null) {
-            condition = condition.and(C.LAST_EMAILED_AT.le(f.lastEmailedTo()));
-        }
-        if (f.lastOpenedFrom() != null) {
-            condition = condition.and(C.LAST_OPENED_AT.ge(f.lastOpenedFrom()));
-        }
-        if (f.lastOpenedTo() != null) {
-            condition = condition.and(C.LAST_OPENED_AT.le(f.lastOpenedTo()));
-        }
-        if (f.lastClickedFrom() != null) {
-            condition = condition.and(C.LAST_CLICKED_AT.ge(f.lastClickedFrom()));
-        }
-        if (f.lastClickedTo() != null) {
-            condition = condition.and(C.LAST_CLICKED_AT.le(f.lastClickedTo()));
-        }
+        condition = condition.and(timestampRange(C.CREATED_AT, f.createdFrom(), f.createdTo()));
+        condition = condition.and(timestampRange(C.LAST_ACTIVITY_AT, f.lastActivityFrom(), f.lastActivityTo()));
+        condition = condition.and(timestampRange(C.LAST_EMAILED_AT, f.lastEmailedFrom(), f.lastEmailedTo()));
+        condition = condition.and(timestampRange(C.LAST_OPENED_AT, f.lastOpenedFrom(), f.lastOpenedTo()));
+        condition = condition.and(timestampRange(C.LAST_CLICKED_AT, f.lastClickedFrom(), f.lastClickedTo()));
 
         // free text: backed by pg_trgm on email/name/company/tags
         if (hasText(f.freeText())) {
@@ -236,6 +311,7 @@ public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqReposit
             String prop = o.getProperty();
 
             SortField<?> sf = switch (prop) {
+                case "id" -> asc ? C.ID.asc() : C.ID.desc();
                 case "email" -> asc ? C.EMAIL.asc() : C.EMAIL.desc();
                 case "lastName" -> asc ? C.LAST_NAME.asc() : C.LAST_NAME.desc();
                 case "firstName" -> asc ? C.FIRST_NAME.asc() : C.FIRST_NAME.desc();
@@ -290,6 +366,9 @@ public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqReposit
                 .lastOpenedAt(r.get(C.LAST_OPENED_AT, OffsetDateTime.class))
                 .lastClickedAt(r.get(C.LAST_CLICKED_AT, OffsetDateTime.class))
                 .lastActivityAt(r.get(C.LAST_ACTIVITY_AT, OffsetDateTime.class))
+                .engagementScore(r.get(C.ENGAGEMENT_SCORE))
+                .recencyBucket(r.get(C.RECENCY_BUCKET))
+                .version(r.get(C.VERSION))
                 .createdAt(r.get(C.CREATED_AT, OffsetDateTime.class))
                 .updatedAt(r.get(C.UPDATED_AT, OffsetDateTime.class))
                 .build();
@@ -306,6 +385,33 @@ public class ContactSearchJooqRepositoryImpl implements ContactSearchJooqReposit
         return DSL.lower(field).like(pattern);
     }
 
+    private Condition timestampRange(org.jooq.TableField<?, OffsetDateTime> field,
+                                     OffsetDateTime from, OffsetDateTime to) {
+        return range(field, from, to, FIRST_INSTANT, LAST_INSTANT);
+    }
+
+    /**
+     * A range with one or both bounds. With {@code canonicalSql} a single bound is rendered as
+     * {@code BETWEEN} with the other bound open, so "from only", "to only" and "from and to" share one SQL
+     * text and server-side prepared statement.
+     */
+    private <T> Condition range(org.jooq.TableField<?, T> field, T from, T to, T lowest, T highest) {
+        if (from == null && to == null) {
+            return DSL.noCondition();
+        }
+        if (properties.canonicalSql()) {
+            return field.between(from != null ? from : lowest, to != null ? to : highest);
+        }
+        Condition condition = DSL.noCondition();
+        if (from != null) {
+            condition = condition.and(field.ge(from));
+        }
+        if (to != null) {
+            condition = condition.and(field.le(to));
+        }
+        return condition;
+    }
+
     private static int coalesce(Integer value, int defaultValue) {
         return value != null ? value : defaultValue;
     }
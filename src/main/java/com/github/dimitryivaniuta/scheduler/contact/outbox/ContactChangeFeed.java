@@ -0,0 +1,45 @@
+package com.github.dimitryivaniuta.scheduler.contact.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of the contact change stream for consumers that poll over HTTP, with per-consumer offsets
+ * kept in Redis next to the stream. In-process consumers can read the stream directly instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactChangeFeed {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ContactChangeProperties properties;
+
+    /** Entries strictly after the stream id {@code after} ({@code null} or "0" = from the oldest retained). */
+    public List<MapRecord<String, Object, Object>> read(String after, int limit) {
+        Range<String> range = after == null || after.equals("0")
+                ? Range.unbounded()
+                : Range.rightUnbounded(Range.Bound.exclusive(after));
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(properties.stream(), range, Limit.limit().count(limit));
+        return records != null ? records : List.of();
+    }
+
+    public Optional<String> offset(String consumer) {
+        return Optional.ofNullable((String) redisTemplate.opsForHash().get(offsetsKey(), consumer));
+    }
+
+    public void commit(String consumer, String offset) {
+        redisTemplate.opsForHash().put(offsetsKey(), consumer, offset);
+    }
+
+    private String offsetsKey() {
+        return properties.stream() + ":offsets";
+    }
+}
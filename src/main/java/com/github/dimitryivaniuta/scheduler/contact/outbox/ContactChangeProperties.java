@@ -0,0 +1,19 @@
+package com.github.dimitryivaniuta.scheduler.contact.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.contact-changes.*}; the relay interval is read by {@link ContactOutboxRelay} via a placeholder.
+ *
+ * @param stream    Redis stream the changes are published to
+ * @param batchSize outbox rows published per round trip
+ * @param maxLength approximate stream length kept; older entries are trimmed on publish
+ */
+@ConfigurationProperties(prefix = "scheduler.contact-changes")
+public record ContactChangeProperties(
+        @DefaultValue("job-scheduler:contact-changes") String stream,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1000000") long maxLength
+) {
+}
@@ -0,0 +1,7 @@
+package com.github.dimitryivaniuta.scheduler.contact.outbox;
+
+public enum ContactChangeType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
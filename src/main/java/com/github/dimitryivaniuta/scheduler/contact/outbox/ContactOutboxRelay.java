@@ -0,0 +1,77 @@
+package com.github.dimitryivaniuta.scheduler.contact.outbox;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes {@code contact_outbox} rows to the contact change stream in batches, in outbox id order.
+ * <p>
+ * Runs on the lock holder only, so there is a single publisher. Each batch is sent in one pipelined
+ * round trip and then deleted from the outbox; a crash in between republishes the batch (at-least-once),
+ * so consumers deduplicate on {@code outboxId}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactOutboxRelay {
+
+    static final String LOCK_NAME = "contact-outbox-relay";
+
+    private final ContactOutboxService outboxService;
+    private final StringRedisTemplate redisTemplate;
+    private final ContactChangeProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${scheduler.contact-changes.relay-interval:PT1S}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT1M")
+    public void relay() {
+        ActiveLock lock = LockContext.require();
+        List<ContactOutboxRepository.Row> batch;
+        do {
+            batch = outboxService.pending(properties.batchSize());
+            if (batch.isEmpty()) {
+                return;
+            }
+            publish(batch);
+            outboxService.acknowledge(lock, batch.stream().map(ContactOutboxRepository.Row::id).toList());
+            meterRegistry.counter("contact.changes.published").increment(batch.size());
+            lock.heartbeat();
+        } while (batch.size() == properties.batchSize());
+    }
+
+    private void publish(List<ContactOutboxRepository.Row> batch) {
+        XAddOptions options = XAddOptions.maxlen(properties.maxLength()).approximateTrimming(true);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (ContactOutboxRepository.Row row : batch) {
+                    ops.opsForStream().add(StreamRecords.string(Map.of(
+                                    "outboxId", String.valueOf(row.id()),
+                                    "op", row.op().name(),
+                                    "contactId", row.contactId().toString(),
+                                    "occurredAt", row.occurredAt().toInstant().toString()))
+                            .withStreamKey(properties.stream()), options);
+                }
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.dimitryivaniuta.scheduler.contact.outbox;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.FencedWriteGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ContactOutboxService {
+
+    private final ContactOutboxRepository repository;
+    private final FencedWriteGuard fencedWriteGuard;
+
+    /**
+     * Read on the primary, not in a read-only transaction: a replica could still return rows the relay
+     * acknowledged a moment ago, and they would be published twice.
+     */
+    public List<ContactOutboxRepository.Row> pending(int limit) {
+        return repository.findOldest(limit);
+    }
+
+    /** Deletes published rows; a relay that lost its lock cannot delete rows published by its successor. */
+    public int acknowledge(ActiveLock lock, Collection<Long> ids) {
+        fencedWriteGuard.check(lock);
+        return repository.delete(ids);
+    }
+}
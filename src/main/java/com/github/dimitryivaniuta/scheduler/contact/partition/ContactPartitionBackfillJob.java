@@ -0,0 +1,44 @@
+package com.github.dimitryivaniuta.scheduler.contact.partition;
+
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies contacts into the partitioned table while the migration is {@code COPYING}; one replica at a time.
+ * Each batch commits on its own, so the job can stop and resume anywhere. Once started, yearly partitions
+ * are also kept created ahead, before and after cutover.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactPartitionBackfillJob {
+
+    static final String LOCK_NAME = "contacts-partition-backfill";
+    static final String MAINTENANCE_LOCK_NAME = "contacts-partitions";
+
+    private final ContactPartitionMigrationService migrationService;
+    private final ContactPartitioningProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${scheduler.contacts.partitioning.backfill-interval:PT10S}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT10M")
+    public void run() {
+        for (int i = 0; i < properties.batchesPerRun(); i++) {
+            int copied = migrationService.copyBatch();
+            if (copied == 0) {
+                return;
+            }
+            meterRegistry.counter("contacts.partition.copied").increment(copied);
+            LockContext.heartbeat();
+        }
+    }
+
+    @Scheduled(cron = "${scheduler.contacts.partitioning.maintenance-cron:0 30 0 * * *}", zone = "UTC")
+    @SchedulerLock(name = MAINTENANCE_LOCK_NAME, lockAtMostFor = "PT10M")
+    public void createPartitionsAhead() {
+        migrationService.createPartitionsAhead();
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.dimitryivaniuta.scheduler.contact.partition;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Year;
+import java.time.ZoneOffset;
+
+/**
+ * Online migration of {@code contacts} to the table range-partitioned by {@code created_at}
+ * ({@code V9__contacts_partitioned.sql}).
+ * <ol>
+ *     <li>{@link #start()}: yearly partitions are created and a dual-write trigger mirrors every change of
+ *     {@code contacts} into the partitioned table ({@code IDLE -> COPYING});</li>
+ *     <li>{@link ContactPartitionBackfillJob} copies existing rows in keyset batches ({@code COPYING -> COPIED});</li>
+ *     <li>{@link #cutover()}: row counts are compared and the tables swapped under a short exclusive lock
+ *     ({@code COPIED -> DONE}). Afterwards set {@code scheduler.contacts.partitioning.partitioned=true}.</li>
+ * </ol>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ContactPartitionMigrationService {
+
+    public static final String IDLE = "IDLE";
+    public static final String COPYING = "COPYING";
+    public static final String COPIED = "COPIED";
+    public static final String DONE = "DONE";
+
+    private static final String SHADOW = "contacts_partitioned";
+
+    private final ContactPartitionRepository repository;
+    private final ContactPartitioningProperties properties;
+
+    @Transactional(readOnly = true)
+    public ContactPartitionRepository.State status() {
+        return repository.state();
+    }
+
+    public ContactPartitionRepository.State start() {
+        ContactPartitionRepository.State state = repository.lockState();
+        if (!IDLE.equals(state.state())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Partition migration already " + state.state());
+        }
+        long violations = repository.countActivityBeforeCreation();
+        if (violations > 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, violations
+                    + " contacts have activity timestamps before created_at; fix them before partitioning");
+        }
+        Integer firstYear = repository.minCreatedYear();
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        for (int year = firstYear != null ? firstYear : currentYear; year <= currentYear + properties.yearsAhead(); year++) {
+            repository.createPartition(SHADOW, Year.of(year));
+        }
+        repository.attachDualWrite();
+        repository.setState(COPYING);
+        log.info("Contact partition migration started, partitions from {}", firstYear);
+        return repository.state();
+    }
+
+    /** @return rows copied; 0 once the copy is complete */
+    public int copyBatch() {
+        ContactPartitionRepository.State state = repository.lockState();
+        if (!COPYING.equals(state.state())) {
+            return 0;
+        }
+        int copied = repository.copyBatch(properties.batchSize());
+        if (copied == 0) {
+            repository.setState(COPIED);
+            log.info("Contact partition backfill complete, {} rows", state.copiedRows());
+        }
+        return copied;
+    }
+
+    /** Keeps partitions created ahead, so new contacts never land in the default partition. */
+    public void createPartitionsAhead() {
+        String state = repository.state().state();
+        if (IDLE.equals(state)) {
+            return;
+        }
+        String parent = DONE.equals(state) ? "contacts" : SHADOW;
+        Year current = Year.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.yearsAhead(); i++) {
+            repository.createPartition(parent, current.plusYears(i));
+        }
+    }
+
+    public ContactPartitionRepository.State cutover() {
+        ContactPartitionRepository.State state = repository.lockState();
+        if (!COPIED.equals(state.state())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Partition migration is " + state.state() + ", expected " + COPIED);
+        }
+        // counted before the exclusive lock: writes in between are dual-written and keep the counts equal
+        ContactPartitionRepository.Counts counts = repository.counts();
+        if (counts.contacts() != counts.partitioned()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Row counts differ: contacts " + counts.contacts()
+                    + ", partitioned " + counts.partitioned());
+        }
+        repository.swap();
+        repository.setState(DONE);
+        log.info("Contacts cut over to the partitioned table ({} rows)", counts.partitioned());
+        return repository.state();
+    }
+}
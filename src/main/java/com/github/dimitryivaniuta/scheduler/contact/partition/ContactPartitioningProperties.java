@@ -0,0 +1,23 @@
+package com.github.dimitryivaniuta.scheduler.contact.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.contacts.partitioning.*}; the backfill interval is read by {@link ContactPartitionBackfillJob}
+ * via a placeholder.
+ *
+ * @param partitioned    {@code contacts} is the partitioned table (after cutover); search engines then add the
+ *                       {@code created_at} bound implied by activity windows so partitions can be pruned
+ * @param batchSize      contacts copied per backfill statement
+ * @param batchesPerRun  backfill batches per job run before the lock is released
+ * @param yearsAhead     yearly partitions kept created ahead of the current year
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.partitioning")
+public record ContactPartitioningProperties(
+        @DefaultValue("false") boolean partitioned,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("200") int batchesPerRun,
+        @DefaultValue("1") int yearsAhead
+) {
+}
@@ -0,0 +1,39 @@
+package com.github.dimitryivaniuta.scheduler.contact.partition;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Makes activity windows prunable on the {@code created_at}-partitioned {@code contacts}.
+ * <p>
+ * Activity can not predate creation ({@code ck_contacts_activity_after_created}), so an upper bound on any
+ * activity timestamp is also an upper bound on {@code created_at}. Adding it as {@code createdTo} lets the
+ * planner skip partitions created after the window, without changing the result.
+ */
+@Component
+@RequiredArgsConstructor
+public class PartitionPruning {
+
+    private final ContactPartitioningProperties properties;
+
+    /** The filter with {@code createdTo} tightened to the earliest activity upper bound; as-is when not partitioned. */
+    public ContactFilterRequest apply(ContactFilterRequest filter) {
+        if (!properties.partitioned() || filter == null) {
+            return filter;
+        }
+        OffsetDateTime bound = Stream.of(filter.createdTo(), filter.lastActivityTo(), filter.lastEmailedTo(),
+                        filter.lastOpenedTo(), filter.lastClickedTo())
+                .filter(Objects::nonNull)
+                .min(OffsetDateTime::compareTo)
+                .orElse(null);
+        if (bound == null || bound.equals(filter.createdTo())) {
+            return filter;
+        }
+        return filter.toBuilder().createdTo(bound).build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.dimitryivaniuta.scheduler.contact.retention;
+
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly archival of inactive contacts via {@link ContactRetentionService}; one replica at a time. Each
+ * chunk passes the fencing check, so a node that lost the lock can not delete alongside its successor.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactRetentionJob {
+
+    static final String LOCK_NAME = "contacts-retention";
+
+    private final ContactRetentionService retentionService;
+    private final ContactRetentionProperties properties;
+
+    @Scheduled(cron = "${scheduler.contacts.retention.cron:0 0 3 * * *}", zone = "UTC")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT10M")
+    public void run() {
+        if (!properties.enabled()) {
+            return;
+        }
+        retentionService.run(LockContext.require());
+    }
+}
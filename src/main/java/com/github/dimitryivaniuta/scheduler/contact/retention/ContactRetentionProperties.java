@@ -0,0 +1,35 @@
+package com.github.dimitryivaniuta.scheduler.contact.retention;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.contacts.retention.*}; the cron expression is read by {@link ContactRetentionJob} via a
+ * placeholder.
+ *
+ * @param enabled          archiving deletes contacts, so the job is off unless switched on
+ * @param retainFor        inactive contacts without activity or changes for this long are archived
+ * @param initialChunkSize contacts per chunk at the start of a run; adapted from there
+ * @param minChunkSize     lower bound of the adapted chunk size
+ * @param maxChunkSize     upper bound of the adapted chunk size
+ * @param targetChunkTime  chunks taking longer (i.e. holding row locks longer) are made smaller
+ * @param maxChunkWal      chunks writing more WAL than this are made smaller
+ * @param pause            between chunks, so replicas and WAL archiving keep up
+ * @param maxRunTime       a run stops after this long and continues on the next schedule
+ */
+@ConfigurationProperties(prefix = "scheduler.contacts.retention")
+public record ContactRetentionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("P730D") Duration retainFor,
+        @DefaultValue("500") int initialChunkSize,
+        @DefaultValue("50") int minChunkSize,
+        @DefaultValue("5000") int maxChunkSize,
+        @DefaultValue("200ms") Duration targetChunkTime,
+        @DefaultValue("16MB") DataSize maxChunkWal,
+        @DefaultValue("100ms") Duration pause,
+        @DefaultValue("PT30M") Duration maxRunTime
+) {
+}
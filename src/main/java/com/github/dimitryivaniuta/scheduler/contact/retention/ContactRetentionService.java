@@ -0,0 +1,134 @@
+package com.github.dimitryivaniuta.scheduler.contact.retention;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactRetentionRepository;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.FencedWriteGuard;
+import com.github.dimitryivaniuta.scheduler.mailing.MailingProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Archives and deletes inactive contacts in chunks ordered by id, one transaction per chunk.
+ * <p>
+ * The chunk size adapts from chunk to chunk: it halves when a chunk held its row locks longer than
+ * {@code targetChunkTime} or wrote more than {@code maxChunkWal} of WAL, and grows by half when a chunk stayed
+ * well below both. WAL is measured as the position advance over the chunk, including other sessions' writes,
+ * so it errs on the small side. A pause between chunks lets replicas and WAL archiving catch up.
+ */
+@Slf4j
+@Service
+public class ContactRetentionService {
+
+    private final ContactRetentionRepository repository;
+    private final FencedWriteGuard fencedWriteGuard;
+    private final ContactRetentionProperties properties;
+    private final MailingProperties mailingProperties;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final Timer chunkTime;
+    private final DistributionSummary chunkWal;
+    /** rows per second of the last run, times 1000 */
+    private final AtomicLong lastRate = new AtomicLong();
+
+    /** @param rowsPerSecond archived rows per second of wall-clock time, pauses included */
+    public record Result(long rows, int chunks, Duration elapsed, double rowsPerSecond) {
+    }
+
+    public ContactRetentionService(ContactRetentionRepository repository,
+                                   FencedWriteGuard fencedWriteGuard,
+                                   ContactRetentionProperties properties,
+                                   MailingProperties mailingProperties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.fencedWriteGuard = fencedWriteGuard;
+        this.properties = properties;
+        this.mailingProperties = mailingProperties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkTime = Timer.builder("contacts.retention.chunk")
+                .description("Archive-and-delete transaction per chunk")
+                .register(meterRegistry);
+        this.chunkWal = DistributionSummary.builder("contacts.retention.chunk.wal")
+                .description("WAL position advance per chunk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("contacts.retention.archived.rate", lastRate, r -> r.get() / 1000.0)
+                .description("Contacts archived per second by the last retention run")
+                .register(meterRegistry);
+    }
+
+    /** Archives due contacts until none is left, the lock is lost or {@code maxRunTime} is reached. */
+    public Result run(ActiveLock lock) {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.retainFor());
+        long deadline = System.nanoTime() + properties.maxRunTime().toNanos();
+        long start = System.nanoTime();
+        int chunkSize = properties.initialChunkSize();
+        UUID after = null;
+        long rows = 0;
+        int chunks = 0;
+
+        while (!lock.isLost() && System.nanoTime() < deadline) {
+            int limit = chunkSize;
+            UUID from = after;
+            String walBefore = repository.walPosition();
+            long chunkStart = System.nanoTime();
+            ContactRetentionRepository.Chunk chunk = transaction.execute(status -> {
+                fencedWriteGuard.check(lock);
+                return repository.archiveChunk(from, cutoff, limit, mailingProperties.maxBounceCount());
+            });
+            long nanos = System.nanoTime() - chunkStart;
+            long wal = repository.walBytesSince(walBefore);
+
+            chunkTime.record(Duration.ofNanos(nanos));
+            chunkWal.record(wal);
+            meterRegistry.counter("contacts.retention.archived").increment(chunk.rows());
+            lock.heartbeat();
+            if (chunk.rows() == 0) {
+                break;
+            }
+            rows += chunk.rows();
+            chunks++;
+            after = chunk.lastId();
+            chunkSize = nextChunkSize(chunkSize, nanos, wal);
+            try {
+                Thread.sleep(properties.pause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        double rate = rows / Math.max(elapsed.toNanos() / 1e9, 1e-3);
+        lastRate.set(Math.round(rate * 1000));
+        if (rows > 0) {
+            log.info("Retention archived {} contacts in {} chunks, {} ({} rows/s)",
+                    rows, chunks, elapsed, Math.round(rate));
+        }
+        return new Result(rows, chunks, elapsed, rate);
+    }
+
+    private int nextChunkSize(int current, long nanos, long wal) {
+        long target = properties.targetChunkTime().toNanos();
+        long maxWal = properties.maxChunkWal().toBytes();
+        int next = current;
+        if (nanos > target || wal > maxWal) {
+            next = current / 2;
+        } else if (nanos < target / 2 && wal < maxWal / 2) {
+            next = current + current / 2;
+        }
+        return Math.clamp(next, properties.minChunkSize(), properties.maxChunkSize());
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.ContactReadProperties;
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces reads of single contacts by id.
+ * <ul>
+ *     <li>Single flight: concurrent reads of the same id wait for one query and share its result.</li>
+ *     <li>Micro-batching: ids requested within {@code window} of each other are read together with one
+ *     {@code WHERE id = ANY(?)}.</li>
+ * </ul>
+ * A read that finds its id in flight only does a map lookup; starting a new read adds it to a lock-free
+ * queue. A virtual thread drains the queue after {@code window} and runs the queries in read-only
+ * transactions, so callers (typically virtual threads too) just park on a future meanwhile.
+ * <p>
+ * Results are detached entities that may be shared between callers: treat them as read-only. An id leaves
+ * the in-flight map before its result is handed out, so reads starting later always query again.
+ */
+@Component
+public class ContactBatchLoader {
+
+    private final ContactRepository contactRepository;
+    private final ContactReadProperties properties;
+    private final TransactionTemplate readOnly;
+    private final Map<UUID, CompletableFuture<Contact>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<UUID> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final Counter reads;
+    private final Counter coalesced;
+    private final Counter queries;
+    private final DistributionSummary batchSize;
+
+    public ContactBatchLoader(ContactRepository contactRepository,
+                              ContactReadProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.contactRepository = contactRepository;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.reads = meterRegistry.counter("contact.reads");
+        this.coalesced = meterRegistry.counter("contact.reads.coalesced");
+        this.queries = meterRegistry.counter("contact.reads.queries");
+        this.batchSize = DistributionSummary.builder("contact.reads.batch.size")
+                .description("Contact ids per coalesced read query")
+                .register(meterRegistry);
+    }
+
+    /** The contact, or null if it does not exist. */
+    public Contact load(UUID id) {
+        reads.increment();
+        if (!properties.coalesce()) {
+            queries.increment();
+            return readOnly.execute(status -> contactRepository.findById(id).orElse(null));
+        }
+        CompletableFuture<Contact> future = inFlight.get(id);
+        if (future == null) {
+            CompletableFuture<Contact> started = new CompletableFuture<>();
+            future = inFlight.putIfAbsent(id, started);
+            if (future == null) {
+                future = started;
+                pending.add(id);
+                scheduleFlush();
+            } else {
+                coalesced.increment();
+            }
+        } else {
+            coalesced.increment();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Queries run since startup, for comparison with {@code contact.reads}. */
+    public long queries() {
+        return (long) queries.count();
+    }
+
+    // ---------------- batching ----------------
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("contact-batch-loader").start(this::flush);
+        }
+    }
+
+    private void flush() {
+        try {
+            Thread.sleep(properties.window());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // ids queued from here on schedule the next flush; those queued before are drained below
+        flushScheduled.set(false);
+        List<UUID> batch;
+        while (!(batch = drain()).isEmpty()) {
+            fetch(batch);
+        }
+    }
+
+    private List<UUID> drain() {
+        List<UUID> batch = new ArrayList<>();
+        UUID id;
+        while (batch.size() < properties.maxBatch() && (id = pending.poll()) != null) {
+            batch.add(id);
+        }
+        return batch;
+    }
+
+    private void fetch(List<UUID> ids) {
+        queries.increment();
+        batchSize.record(ids.size());
+        Map<UUID, Contact> found = new HashMap<>();
+        try {
+            List<Contact> contacts = readOnly.execute(status ->
+                    contactRepository.findAllByIdAny(ids.toArray(UUID[]::new)));
+            if (contacts != null) {
+                contacts.forEach(contact -> found.put(contact.getId(), contact));
+            }
+        } catch (RuntimeException e) {
+            for (UUID id : ids) {
+                CompletableFuture<Contact> future = inFlight.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        for (UUID id : ids) {
+            CompletableFuture<Contact> future = inFlight.remove(id);
+            if (future != null) {
+                future.complete(found.get(id));
+            }
+        }
+    }
+}
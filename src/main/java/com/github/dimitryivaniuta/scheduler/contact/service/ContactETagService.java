@@ -0,0 +1,67 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactGenerationRepository;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ETags of contacts and search pages.
+ * <p>
+ * A search page's ETag is derived from the change generation of {@code contacts} and the request, so it can be
+ * checked without running the search. The generation is read in the same transaction as the search, before
+ * it: on the same replica, and never newer than the rows the page is built from. A write that lands in between
+ * only makes the next conditional request miss.
+ *
+ * @see ContactGenerationRepository
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ContactETagService {
+
+    private final ContactGenerationRepository generationRepository;
+    private final ContactSearchPlanner searchPlanner;
+
+    /** @param etag strong ETag, without quotes */
+    public record TaggedSearch(String etag, ContactSearchPlanner.Result result) {
+    }
+
+    /** @param representation distinguishes encodings of the same contact, e.g. JSON and Smile */
+    public String contactTag(long version, String representation) {
+        return "v" + version + "-" + representation;
+    }
+
+    /**
+     * ETag the search would have now, without running it. The generation is read on the primary: a lagging
+     * replica could still match the tag of a page the client has since changed.
+     */
+    @Transactional
+    public String searchTag(ContactFilterRequest filter, Pageable pageable, String representation) {
+        return searchTag(generationRepository.current(), filter, pageable, representation);
+    }
+
+    public TaggedSearch search(ContactFilterRequest filter, Pageable pageable, String representation) {
+        long generation = generationRepository.current();
+        ContactSearchPlanner.Result result = searchPlanner.search(filter, pageable);
+        return new TaggedSearch(searchTag(generation, filter, pageable, representation), result);
+    }
+
+    private static String searchTag(long generation, ContactFilterRequest filter, Pageable pageable,
+                                    String representation) {
+        String request = filter + "|" + pageable + "|" + representation;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return "g" + generation + "-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
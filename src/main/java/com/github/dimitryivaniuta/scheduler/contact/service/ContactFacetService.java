@@ -0,0 +1,96 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.ContactSearchProperties;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactSearchJooqRepository;
+import com.github.dimitryivaniuta.scheduler.contact.partition.PartitionPruning;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audience breakdowns of a filter: contacts per country, channel, locale, gender and tag.
+ * <p>
+ * Exact counts read every matching row. Approximate counts read a {@code TABLESAMPLE SYSTEM} sample of the
+ * table's pages and scale up, with a 95% interval per count. The interval treats sampled rows as independent;
+ * pages are sampled whole, so values clustered on disk (e.g. contacts imported together) vary more than it says.
+ * Values that occur in no sampled row are missing from approximate results.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ContactFacetService {
+
+    private static final double Z_95 = 1.96;
+
+    private final ContactSearchJooqRepository repository;
+    private final ContactSearchProperties properties;
+    private final PartitionPruning partitionPruning;
+    private final MeterRegistry meterRegistry;
+
+    /** @param samplePercent null = all rows exact */
+    public record Facets(Double samplePercent, Estimate total, Map<String, List<Estimate>> facets) {
+    }
+
+    /** Equal bounds when exact. */
+    public record Estimate(String value, long count, long lower, long upper) {
+    }
+
+    /**
+     * @param samplePercent percentage of pages to sample, in (0, 100]; null = exact unless {@code approximate}
+     * @param approximate   without {@code samplePercent}, sample about {@code facetSampleRows} rows; exact when
+     *                      the table is not larger than that
+     */
+    public Facets facets(ContactFilterRequest filter, Double samplePercent, boolean approximate) {
+        if (samplePercent != null && (!Double.isFinite(samplePercent) || samplePercent <= 0 || samplePercent > 100)) {
+            throw new IllegalArgumentException("sample must be a percentage in (0, 100]: " + samplePercent);
+        }
+        Double percent = samplePercent;
+        if (percent == null && approximate) {
+            long rows = repository.estimatedRows();
+            if (rows > properties.facetSampleRows()) {
+                percent = 100.0 * properties.facetSampleRows() / rows;
+            }
+        }
+        ContactFilterRequest pruned = partitionPruning.apply(filter != null ? filter
+                : ContactFilterRequest.builder().build());
+        Double sample = percent;
+        List<ContactSearchJooqRepository.FacetCount> counts = Timer.builder("contact.facets")
+                .tag("mode", sample == null ? "exact" : "sampled")
+                .register(meterRegistry)
+                .record(() -> repository.facets(pruned, sample, properties.facetTags()));
+
+        Estimate total = new Estimate(null, 0, 0, 0);
+        Map<String, List<Estimate>> facets = new LinkedHashMap<>();
+        for (ContactSearchJooqRepository.FacetCount count : counts) {
+            Estimate estimate = estimate(count.value(), count.count(), sample);
+            if ("total".equals(count.facet())) {
+                total = estimate;
+            } else {
+                facets.computeIfAbsent(count.facet(), f -> new ArrayList<>()).add(estimate);
+            }
+        }
+        facets.values().forEach(values -> values.sort(Comparator.comparingLong(Estimate::count).reversed()));
+        return new Facets(sample, total, facets);
+    }
+
+    /** Scales a sampled count up; binomial standard error of {@code count / fraction}. */
+    private static Estimate estimate(String value, long count, Double percent) {
+        if (percent == null || percent >= 100) {
+            return new Estimate(value, count, count, count);
+        }
+        double fraction = percent / 100;
+        double estimate = count / fraction;
+        double margin = Z_95 * Math.sqrt(count * (1 - fraction)) / fraction;
+        return new Estimate(value, Math.round(estimate),
+                Math.max(count, Math.round(estimate - margin)), Math.round(estimate + margin));
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import java.util.List;
+
+/**
+ * Normalization rules of contact fields, applied by {@link ContactService} on every write and to existing
+ * rows by the {@code contact-normalization} backfill. After changing a rule, start that backfill again.
+ */
+public final class ContactNormalizer {
+
+    /** Columns normalized with {@link #text(String)}. */
+    public static final List<String> TEXT_COLUMNS = List.of(
+            "email", "secondary_email", "first_name", "middle_name", "last_name",
+            "mobile_phone", "work_phone", "home_phone",
+            "company_name", "job_title",
+            "address_line1", "address_line2", "city", "state_region", "postal_code", "country_code",
+            "time_zone", "locale", "preferred_channel", "tags", "gender");
+
+    private ContactNormalizer() {
+    }
+
+    /** Trimmed; blank = null. */
+    public static String text(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.ContactSearchProperties;
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.query.FilterShape;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * Single search entry point that routes each request to the engine that has been fastest for its filter shape.
+ * <p>
+ * The filter is normalized first (strings trimmed, blanks dropped) and the sort made total (default
+ * {@code createdAt desc}, always followed by {@code id asc}), so all engines are asked the same question.
+ * Latency is kept as a moving average per (shape, engine) on this replica. Each engine gets
+ * {@code minSamples} requests per shape before the fastest is preferred, and {@code exploration} of requests
+ * still go to a random engine. A {@code verifyRate} sample re-runs the request in the background on the chosen
+ * engine and another one, both in one repeatable-read snapshot, so concurrent writes can not make them differ.
+ * At most {@code verifyConcurrency} verifications run at a time; a sampled request beyond that is not verified.
+ * An engine whose page differs from the reference (Specifications) engine is not chosen for that shape for
+ * {@code mismatchTtl}. Only the first {@code maxShapes} shapes are tracked; others go to the reference engine.
+ */
+@Slf4j
+@Service
+public class ContactSearchPlanner {
+
+    public static final String REFERENCE_ENGINE = "spec";
+
+    static final Set<String> SORTABLE = Set.of("id", "email", "lastName", "firstName", "companyName",
+            "createdAt", "lastActivityAt");
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static final RecordComponent[] COMPONENTS = ContactFilterRequest.class.getRecordComponents();
+    private static final Constructor<ContactFilterRequest> CONSTRUCTOR = canonicalConstructor();
+
+    private final Map<String, BiFunction<ContactFilterRequest, Pageable, Page<Contact>>> engines = new LinkedHashMap<>();
+    private final ContactSearchProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate snapshot;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+    private final Semaphore verifications;
+
+    public ContactSearchPlanner(ContactSearchServiceSpecifications specifications,
+                                ContactSearchServiceQuerydsl querydsl,
+                                ContactSearchServiceJooq jooq,
+                                ContactSearchProperties properties,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        engines.put(REFERENCE_ENGINE, specifications::search);
+        engines.put("querydsl", querydsl::search);
+        engines.put("jooq", jooq::search);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.verifications = new Semaphore(properties.verifyConcurrency());
+    }
+
+    public record Result(String engine, Page<Contact> page) {
+    }
+
+    public Result search(ContactFilterRequest rawFilter, Pageable rawPageable) {
+        ContactFilterRequest filter = normalize(rawFilter);
+        Pageable pageable = normalize(rawPageable);
+        String shape = FilterShape.of(filter);
+        if (!tracked(shape)) {
+            String engine = routed(REFERENCE_ENGINE, "untracked");
+            return new Result(engine, engines.get(engine).apply(filter, pageable));
+        }
+
+        String engine = choose(shape);
+        long start = System.nanoTime();
+        Page<Contact> page = engines.get(engine).apply(filter, pageable);
+        stats(shape, engine).record(System.nanoTime() - start, properties.ewmaAlpha());
+
+        if (ThreadLocalRandom.current().nextDouble() < properties.verifyRate()) {
+            verifyLater(shape, engine, filter, pageable);
+        }
+        return new Result(engine, page);
+    }
+
+    // ---------- routing ----------
+
+    private String choose(String shape) {
+        long now = System.nanoTime();
+        List<String> candidates = new ArrayList<>();
+        for (String engine : engines.keySet()) {
+            if (!stats(shape, engine).excluded(now)) {
+                candidates.add(engine);
+            }
+        }
+        for (String engine : candidates) {
+            if (stats(shape, engine).samples < properties.minSamples()) {
+                return routed(engine, "warmup");
+            }
+        }
+        if (ThreadLocalRandom.current().nextDouble() < properties.exploration()) {
+            return routed(candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())), "explore");
+        }
+        String fastest = REFERENCE_ENGINE;
+        double best = Double.MAX_VALUE;
+        for (String engine : candidates) {
+            double ewma = stats(shape, engine).ewmaNanos;
+            if (ewma < best) {
+                best = ewma;
+                fastest = engine;
+            }
+        }
+        return routed(fastest, "fastest");
+    }
+
+    private String routed(String engine, String reason) {
+        meterRegistry.counter("contact.search.route", "engine", engine, "reason", reason).increment();
+        return engine;
+    }
+
+    private Stats stats(String shape, String engine) {
+        return stats.computeIfAbsent(shape + "|" + engine, k -> new Stats());
+    }
+
+    /** Bounds the stats: the first {@code maxShapes} shapes seen are tracked, like the query metrics' tags. */
+    private boolean tracked(String shape) {
+        if (shapes.contains(shape)) {
+            return true;
+        }
+        if (shapes.size() >= properties.maxShapes()) {
+            return false;
+        }
+        synchronized (shapes) {
+            if (shapes.size() < properties.maxShapes()) {
+                shapes.add(shape);
+                return true;
+            }
+            return shapes.contains(shape);
+        }
+    }
+
+    // ---------- verification ----------
+
+    /**
+     * Runs the request on the engine and one other in a single snapshot and compares the pages; skipped while
+     * {@code verifyConcurrency} verifications are already running, so a burst can not pile them up.
+     */
+    private void verifyLater(String shape, String engine, ContactFilterRequest filter, Pageable pageable) {
+        if (!verifications.tryAcquire()) {
+            meterRegistry.counter("contact.search.verification", "engine", engine, "result", "skipped").increment();
+            return;
+        }
+        String suspect = REFERENCE_ENGINE.equals(engine)
+                ? List.copyOf(engines.keySet()).get(1 + ThreadLocalRandom.current().nextInt(engines.size() - 1))
+                : engine;
+
+        Thread.ofVirtual().name("search-verify").start(() -> {
+            try {
+                List<Page<Contact>> pages = snapshot.execute(tx -> List.of(
+                        engines.get(REFERENCE_ENGINE).apply(filter, pageable),
+                        engines.get(suspect).apply(filter, pageable)));
+                Page<Contact> reference = pages.get(0);
+                Page<Contact> check = pages.get(1);
+                boolean match = reference.getTotalElements() == check.getTotalElements()
+                        && Objects.equals(ids(reference), ids(check));
+                meterRegistry.counter("contact.search.verification", "engine", suspect,
+                        "result", match ? "match" : "mismatch").increment();
+                if (!match) {
+                    stats(shape, suspect).exclude(System.nanoTime() + properties.mismatchTtl().toNanos());
+                    log.warn("Search engine {} disagrees with {} for shape {} (total {} vs {}); "
+                                    + "not routing this shape to it for {}",
+                            suspect, REFERENCE_ENGINE, shape, check.getTotalElements(),
+                            reference.getTotalElements(), properties.mismatchTtl());
+                }
+            } catch (RuntimeException e) {
+                log.debug("Search verification failed for shape {}", shape, e);
+            } finally {
+                verifications.release();
+            }
+        });
+    }
+
+    private static List<Object> ids(Page<Contact> page) {
+        return page.getContent().stream().map(c -> (Object) c.getId()).toList();
+    }
+
+    // ---------- normalization ----------
+
+    static ContactFilterRequest normalize(ContactFilterRequest filter) {
+        if (filter == null) {
+            return ContactFilterRequest.builder().build();
+        }
+        Object[] values = new Object[COMPONENTS.length];
+        try {
+            for (int i = 0; i < COMPONENTS.length; i++) {
+                Object value = COMPONENTS[i].getAccessor().invoke(filter);
+                if (value instanceof String s) {
+                    String trimmed = s.trim();
+                    value = trimmed.isEmpty() ? null : trimmed;
+                }
+                values[i] = value;
+            }
+            return CONSTRUCTOR.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Total order: requested sort (default {@code createdAt desc}) plus {@code id} as tie-breaker. */
+    static Pageable normalize(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_SORT;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private static Constructor<ContactFilterRequest> canonicalConstructor() {
+        Class<?>[] types = new Class<?>[COMPONENTS.length];
+        for (int i = 0; i < COMPONENTS.length; i++) {
+            types[i] = COMPONENTS[i].getType();
+        }
+        try {
+            return ContactFilterRequest.class.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Stats {
+        volatile double ewmaNanos;
+        volatile long samples;
+        /** {@link System#nanoTime()} until which the engine is not chosen for the shape; 0 if never */
+        volatile long excludedUntil;
+
+        synchronized void record(long nanos, double alpha) {
+            ewmaNanos = samples == 0 ? nanos : alpha * nanos + (1 - alpha) * ewmaNanos;
+            samples++;
+        }
+
+        void exclude(long until) {
+            excludedUntil = until;
+        }
+
+        boolean excluded(long now) {
+            return excludedUntil != 0 && excludedUntil - now > 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.dimitryivaniuta.scheduler.contact.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactSearchJooqRepository;
+import com.github.dimitryivaniuta.scheduler.contact.partition.PartitionPruning;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.query.QueryMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ContactSearchServiceJooq {
+
+    private final ContactSearchJooqRepository repository;
+    private final QueryMetrics queryMetrics;
+    private final PartitionPruning partitionPruning;
+
+    public Page<Contact> search(ContactFilterRequest filter, Pageable pageable) {
+        ContactFilterRequest pruned = partitionPruning.apply(filter);
+        return queryMetrics.search("jooq", filter, () -> repository.search(pruned, pageable));
+    }
+}
@@ -2,7 +2,9 @@ package com.github.dimitryivaniuta.scheduler.contact.service;
 
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactRepository;
+import com.github.dimitryivaniuta.scheduler.contact.partition.PartitionPruning;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.query.QueryMetrics;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,8 +17,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class ContactSearchServiceQuerydsl {
 
     private final ContactRepository repository;
+    private final QueryMetrics queryMetrics;
+    private final PartitionPruning partitionPruning;
 
     public Page<Contact> search(ContactFilterRequest filter, Pageable pageable) {
-        return repository.searchByFilterQuerydsl(filter, pageable);
+        ContactFilterRequest pruned = partitionPruning.apply(filter);
+        return queryMetrics.search("querydsl", filter, () -> repository.searchByFilterQuerydsl(pruned, pageable));
     }
 }
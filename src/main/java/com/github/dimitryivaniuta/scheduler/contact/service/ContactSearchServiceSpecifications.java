@@ -2,8 +2,10 @@ package com.github.dimitryivaniuta.scheduler.contact.service;
 
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactRepository;
+import com.github.dimitryivaniuta.scheduler.contact.partition.PartitionPruning;
 import com.github.dimitryivaniuta.scheduler.contact.spec.ContactSpecifications;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.query.QueryMetrics;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,8 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class ContactSearchServiceSpecifications {
 
     private final ContactRepository repository;
+    private final QueryMetrics queryMetrics;
+    private final PartitionPruning partitionPruning;
 
     public Page<Contact> search(ContactFilterRequest filter, Pageable pageable) {
-        return repository.findAll(ContactSpecifications.fromFilter(filter), pageable);
+        ContactFilterRequest pruned = partitionPruning.apply(filter);
+        return queryMetrics.search("spec", filter, () -> repository.findAll(ContactSpecifications.fromFilter(pruned), pageable));
     }
 }
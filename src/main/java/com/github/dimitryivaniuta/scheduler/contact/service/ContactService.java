@@ -1,13 +1,26 @@
 package com.github.dimitryivaniuta.scheduler.contact.service;
 
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
 import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactRepository;
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactChangeType;
 import com.github.dimitryivaniuta.scheduler.contact.spec.ContactSpecifications;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.index.IndexWorkload;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.FencedWriteGuard;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -16,22 +29,48 @@ import java.util.function.Consumer;
 @Transactional
 public class ContactService {
 
+    private static final int FOR_EACH_CHUNK = 1_000;
+
     private final ContactRepository contactRepository;
+    private final ContactOutboxRepository outboxRepository;
+    private final FencedWriteGuard fencedWriteGuard;
+    private final IndexWorkload indexWorkload;
+    private final ContactBatchLoader batchLoader;
 
     // ---------- CRUD ----------
+    // create/update/delete append a change event to contact_outbox in the same transaction
 
     public Contact create(Contact toCreate) {
         normalize(toCreate);
         if (toCreate.getBounceCount() == 0) {
             toCreate.setBounceCount(0);
         }
-        return contactRepository.save(toCreate);
+        Contact saved = contactRepository.save(toCreate);
+        outboxRepository.append(ContactChangeType.CREATE, saved.getId());
+        return saved;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Outside a transaction the read goes through {@link ContactBatchLoader}, which merges it with concurrent
+     * reads; the result is then a detached, possibly shared entity. Inside one it is a plain managed lookup.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Contact get(UUID id) {
-        return contactRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Contact not found: " + id));
+        Contact contact = TransactionSynchronizationManager.isActualTransactionActive()
+                ? contactRepository.findById(id).orElse(null)
+                : batchLoader.load(id);
+        if (contact == null) {
+            throw new EntityNotFoundException("Contact not found: " + id);
+        }
+        return contact;
+    }
+
+    /**
+     * Version of the contact without loading it, for conditional requests; empty if it does not exist. Read
+     * on the primary, so a client's own update is never answered with 304 by a lagging replica.
+     */
+    public Optional<Long> version(UUID id) {
+        return contactRepository.findVersionById(id);
     }
 
     public Contact update(UUID id, Contact changes) {
@@ -40,28 +79,88 @@ public class ContactService {
 
         applyChanges(existing, changes);
         normalize(existing);
+        outboxRepository.append(ContactChangeType.UPDATE, id);
 
         // entity is managed; changes are flushed on transaction commit
         return existing;
     }
 
     public void delete(UUID id) {
-        if (!contactRepository.existsById(id)) {
+        if (contactRepository.deleteByIdReturningCount(id) == 0) {
             return; // idempotent delete
         }
-        contactRepository.deleteById(id);
+        outboxRepository.append(ContactChangeType.DELETE, id);
     }
 
     // ---------- Bulk / filter-based operations ----------
 
     /**
      * Iterate over all contacts matching the given filter using Specifications.
-     * Used by MailingService for sending mailings to a filtered audience.
+     * Walks the audience in keyset chunks ordered by id, so memory use does not grow with the audience.
      */
     @Transactional(readOnly = true)
     public void forEachMatching(ContactFilterRequest filter, Consumer<Contact> consumer) {
-        contactRepository.findAll(ContactSpecifications.fromFilter(filter))
-                .forEach(consumer);
+        UUID after = null;
+        List<Contact> chunk;
+        do {
+            chunk = findMatchingAfter(filter, after, FOR_EACH_CHUNK);
+            chunk.forEach(consumer);
+            after = chunk.isEmpty() ? null : chunk.getLast().getId();
+        } while (chunk.size() == FOR_EACH_CHUNK);
+    }
+
+    /**
+     * Keyset page: up to {@code limit} contacts matching the filter with {@code id > afterId}, ordered by id.
+     * Used by MailingService to resume a mailing from a checkpointed id. Recorded for the {@code IndexAdvisor},
+     * like the search endpoints.
+     */
+    @Transactional(readOnly = true)
+    public List<Contact> findMatchingAfter(ContactFilterRequest filter, UUID afterId, int limit) {
+        long start = System.nanoTime();
+        List<Contact> contacts = contactRepository.findBy(
+                ContactSpecifications.fromFilter(filter).and(ContactSpecifications.idAfter(afterId)),
+                q -> q.sortBy(Sort.by("id")).limit(limit).all());
+        indexWorkload.record(filter, Sort.by("id"), false, System.nanoTime() - start);
+        return contacts;
+    }
+
+    /**
+     * The contacts among {@code ids} that match the filter, ordered by id. Used to read a chunk of a
+     * materialized segment while still applying the mailing's own audience rules.
+     */
+    @Transactional(readOnly = true)
+    public List<Contact> findMatchingIn(ContactFilterRequest filter, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return contactRepository.findBy(
+                ContactSpecifications.fromFilter(filter).and(ContactSpecifications.idIn(ids)),
+                q -> q.sortBy(Sort.by("id")).all());
+    }
+
+    /** Keyset page of matching ids only; see {@link #findMatchingAfter}. */
+    @Transactional(readOnly = true)
+    public List<UUID> findIdsMatchingAfter(ContactFilterRequest filter, UUID afterId, int limit) {
+        long start = System.nanoTime();
+        List<UUID> ids = contactRepository.findIdsByFilterAfter(filter, afterId, limit);
+        indexWorkload.record(filter, Sort.by("id"), true, System.nanoTime() - start);
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findIdsMatchingIn(ContactFilterRequest filter, Collection<UUID> ids) {
+        return contactRepository.findIdsByFilterIn(filter, ids);
+    }
+
+    /**
+     * Sets {@code lastEmailedAt} for a batch of contacts on behalf of a locked job, with an outbox event per
+     * contact; rejected with {@code StaleFencingTokenException} if the lock was taken over meanwhile.
+     */
+    public int markEmailed(ActiveLock lock, Collection<UUID> ids, OffsetDateTime at) {
+        fencedWriteGuard.check(lock);
+        int updated = contactRepository.markEmailed(ids, at);
+        outboxRepository.appendAll(ContactChangeType.UPDATE, ids);
+        return updated;
     }
 
     // ---------- helpers ----------
@@ -124,37 +223,32 @@ public class ContactService {
         }
     }
 
+    /** Rules live in {@link ContactNormalizer}; keep its {@code TEXT_COLUMNS} in step with this list. */
     private void normalize(Contact c) {
-        c.setEmail(trimToNull(c.getEmail()));
-        c.setSecondaryEmail(trimToNull(c.getSecondaryEmail()));
-        c.setFirstName(trimToNull(c.getFirstName()));
-        c.setMiddleName(trimToNull(c.getMiddleName()));
-        c.setLastName(trimToNull(c.getLastName()));
-
-        c.setMobilePhone(trimToNull(c.getMobilePhone()));
-        c.setWorkPhone(trimToNull(c.getWorkPhone()));
-        c.setHomePhone(trimToNull(c.getHomePhone()));
-
-        c.setCompanyName(trimToNull(c.getCompanyName()));
-        c.setJobTitle(trimToNull(c.getJobTitle()));
-
-        c.setAddressLine1(trimToNull(c.getAddressLine1()));
-        c.setAddressLine2(trimToNull(c.getAddressLine2()));
-        c.setCity(trimToNull(c.getCity()));
-        c.setStateRegion(trimToNull(c.getStateRegion()));
-        c.setPostalCode(trimToNull(c.getPostalCode()));
-        c.setCountryCode(trimToNull(c.getCountryCode()));
-
-        c.setTimeZone(trimToNull(c.getTimeZone()));
-        c.setLocale(trimToNull(c.getLocale()));
-        c.setPreferredChannel(trimToNull(c.getPreferredChannel()));
-        c.setTags(trimToNull(c.getTags()));
-        c.setGender(trimToNull(c.getGender()));
-    }
-
-    private String trimToNull(String s) {
-        if (s == null) return null;
-        String t = s.trim();
-        return t.isEmpty() ? null : t;
+        c.setEmail(ContactNormalizer.text(c.getEmail()));
+        c.setSecondaryEmail(ContactNormalizer.text(c.getSecondaryEmail()));
+        c.setFirstName(ContactNormalizer.text(c.getFirstName()));
+        c.setMiddleName(ContactNormalizer.text(c.getMiddleName()));
+        c.setLastName(ContactNormalizer.text(c.getLastName()));
+
+        c.setMobilePhone(ContactNormalizer.text(c.getMobilePhone()));
+        c.setWorkPhone(ContactNormalizer.text(c.getWorkPhone()));
+        c.setHomePhone(ContactNormalizer.text(c.getHomePhone()));
+
+        c.setCompanyName(ContactNormalizer.text(c.getCompanyName()));
+        c.setJobTitle(ContactNormalizer.text(c.getJobTitle()));
+
+        c.setAddressLine1(ContactNormalizer.text(c.getAddressLine1()));
+        c.setAddressLine2(ContactNormalizer.text(c.getAddressLine2()));
+        c.setCity(ContactNormalizer.text(c.getCity()));
+        c.setStateRegion(ContactNormalizer.text(c.getStateRegion()));
+        c.setPostalCode(ContactNormalizer.text(c.getPostalCode()));
+        c.setCountryCode(ContactNormalizer.text(c.getCountryCode()));
+
+        c.setTimeZone(ContactNormalizer.text(c.getTimeZone()));
+        c.setLocale(ContactNormalizer.text(c.getLocale()));
+        c.setPreferredChannel(ContactNormalizer.text(c.getPreferredChannel()));
+        c.setTags(ContactNormalizer.text(c.getTags()));
+        c.setGender(ContactNormalizer.text(c.getGender()));
     }
 }
@@ -6,7 +6,9 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 public final class ContactSpecifications {
 
@@ -105,13 +107,13 @@ public final class ContactSpecifications {
             }
 
             if (f.active() != null) {
-                predicates.add(cb.equal(root.get("active"), f.active()));
+                predicates.add(flag(cb, root.get("active"), f.active()));
             }
             if (f.marketingOptIn() != null) {
-                predicates.add(cb.equal(root.get("marketingOptIn"), f.marketingOptIn()));
+                predicates.add(flag(cb, root.get("marketingOptIn"), f.marketingOptIn()));
             }
             if (f.unsubscribed() != null) {
-                predicates.add(cb.equal(root.get("unsubscribed"), f.unsubscribed()));
+                predicates.add(flag(cb, root.get("unsubscribed"), f.unsubscribed()));
             }
             if (f.minBounceCount() != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("bounceCount"), f.minBounceCount()));
@@ -119,6 +121,12 @@ public final class ContactSpecifications {
             if (f.maxBounceCount() != null) {
                 predicates.add(cb.lessThanOrEqualTo(root.get("bounceCount"), f.maxBounceCount()));
             }
+            if (f.minEngagementScore() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("engagementScore"), f.minEngagementScore()));
+            }
+            if (f.recencyBucket() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("recencyBucket"), f.recencyBucket()));
+            }
 
             if (f.createdFrom() != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), f.createdFrom()));
@@ -171,6 +179,32 @@ public final class ContactSpecifications {
         };
     }
 
+    /**
+     * Keyset position: contacts with {@code id > afterId}; no restriction for null.
+     * Combined with {@code ORDER BY id} this pages through the table without OFFSET.
+     */
+    public static Specification<Contact> idAfter(UUID afterId) {
+        return (root, query, cb) -> afterId == null
+                ? cb.conjunction()
+                : cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<Contact> idIn(Collection<UUID> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Rendered as a literal rather than a bind value, so the planner can match partial indexes such as
+     * {@code idx_contacts_mailable} (V18) in generic plans too; only two SQL texts per flag.
+     */
+    private static Predicate flag(
+            jakarta.persistence.criteria.CriteriaBuilder cb,
+            jakarta.persistence.criteria.Expression<Boolean> path,
+            boolean value
+    ) {
+        return value ? cb.isTrue(path) : cb.isFalse(path);
+    }
+
     private static boolean hasText(String s) {
         return s != null && !s.isBlank();
     }
@@ -0,0 +1,81 @@
+package com.github.dimitryivaniuta.scheduler.contact.web;
+
+import com.github.dimitryivaniuta.scheduler.contact.backfill.ContactBackfillService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.backfill.ContactBackfillStatusDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Starts, pauses and resumes backfills of {@code contacts}; see {@link ContactBackfillService}.
+ */
+@RestController
+@RequestMapping("/api/contacts/backfills")
+@RequiredArgsConstructor
+public class ContactBackfillController {
+
+    private final ContactBackfillService backfillService;
+
+    /** Names that can be started. */
+    @GetMapping("/available")
+    public Set<String> available() {
+        return backfillService.available();
+    }
+
+    @GetMapping
+    public List<ContactBackfillStatusDto> list() {
+        return backfillService.statuses().stream().map(this::toDto).toList();
+    }
+
+    @GetMapping("/{name}")
+    public ContactBackfillStatusDto status(@PathVariable String name) {
+        return toDto(backfillService.status(name));
+    }
+
+    /** Picked up by the next run of {@code ContactBackfillJob}. */
+    @PostMapping("/{name}/start")
+    public ContactBackfillStatusDto start(@PathVariable String name,
+                                          @RequestParam(defaultValue = "false") boolean dryRun) {
+        return toDto(backfillService.start(name, dryRun));
+    }
+
+    @PostMapping("/{name}/pause")
+    public ContactBackfillStatusDto pause(@PathVariable String name) {
+        return toDto(backfillService.pause(name));
+    }
+
+    @PostMapping("/{name}/resume")
+    public ContactBackfillStatusDto resume(@PathVariable String name) {
+        return toDto(backfillService.resume(name));
+    }
+
+    private ContactBackfillStatusDto toDto(ContactBackfillService.Status status) {
+        OffsetDateTime until = status.backfill().finishedAt() != null
+                ? status.backfill().finishedAt() : OffsetDateTime.now();
+        long seconds = Math.max(1, Duration.between(status.backfill().startedAt(), until).toSeconds());
+        return ContactBackfillStatusDto.builder()
+                .name(status.backfill().name())
+                .status(status.backfill().status())
+                .dryRun(status.backfill().dryRun())
+                .scannedRows(status.scannedRows())
+                .changedRows(status.changedRows())
+                .conflicts(status.conflicts())
+                .rangesDone(status.rangesDone())
+                .ranges(status.ranges())
+                .progress(status.progress())
+                .rowsPerSecond((double) status.scannedRows() / seconds)
+                .startedAt(status.backfill().startedAt())
+                .finishedAt(status.backfill().finishedAt())
+                .lastError(status.lastError())
+                .build();
+    }
+}
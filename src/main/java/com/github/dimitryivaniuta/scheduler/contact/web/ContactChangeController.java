@@ -0,0 +1,68 @@
+package com.github.dimitryivaniuta.scheduler.contact.web;
+
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactChangeFeed;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.change.ContactChangeDto;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.change.ContactChangeOffsetDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/contacts/changes")
+@RequiredArgsConstructor
+public class ContactChangeController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ContactChangeFeed feed;
+
+    /**
+     * Changes after {@code after}; without it, after the committed offset of {@code consumer}
+     * (or from the oldest retained change for a new consumer).
+     */
+    @GetMapping
+    public List<ContactChangeDto> changes(@RequestParam(required = false) String after,
+                                          @RequestParam(required = false) String consumer,
+                                          @RequestParam(defaultValue = "1000") int limit) {
+        String from = after != null ? after
+                : consumer != null ? feed.offset(consumer).orElse(null)
+                : null;
+        return feed.read(from, Math.clamp(limit, 1, MAX_LIMIT)).stream().map(this::toDto).toList();
+    }
+
+    @GetMapping("/offsets/{consumer}")
+    public ContactChangeOffsetDto offset(@PathVariable String consumer) {
+        return new ContactChangeOffsetDto(consumer, feed.offset(consumer).orElse("0"));
+    }
+
+    @PutMapping("/offsets/{consumer}")
+    public ContactChangeOffsetDto commit(@PathVariable String consumer, @RequestBody ContactChangeOffsetDto request) {
+        if (request.offset() == null || request.offset().isBlank()) {
+            throw new IllegalArgumentException("offset is required");
+        }
+        feed.commit(consumer, request.offset());
+        return new ContactChangeOffsetDto(consumer, request.offset());
+    }
+
+    private ContactChangeDto toDto(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> v = record.getValue();
+        return ContactChangeDto.builder()
+                .offset(record.getId().getValue())
+                .outboxId(Long.parseLong((String) v.get("outboxId")))
+                .op((String) v.get("op"))
+                .contactId(UUID.fromString((String) v.get("contactId")))
+                .occurredAt(Instant.parse((String) v.get("occurredAt")))
+                .build();
+    }
+}
@@ -2,23 +2,34 @@ package com.github.dimitryivaniuta.scheduler.contact.web;
 
 import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 //import com.github.dimitryivaniuta.scheduler.contact.repository.ContactSearchJooqRepository;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactETagService;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactFacetService;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactSearchServiceJooq;
 import com.github.dimitryivaniuta.scheduler.contact.service.ContactSearchServiceQuerydsl;
 import com.github.dimitryivaniuta.scheduler.contact.service.ContactSearchServiceSpecifications;
 //import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
 import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactCreateRequest;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactDto;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFacetsDto;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
 import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactUpdateRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
-import java.time.LocalDate;
-import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -26,10 +37,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ContactController {
 
+    /** Contacts fetched per keyset query of {@code /search/stream}. */
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final ContactService contactService;
     private final ContactSearchServiceSpecifications specSearchService;
     private final ContactSearchServiceQuerydsl querydslSearchService;
-    private final ContactSearchJooqRepository jooqSearchRepository;
+    private final ContactSearchServiceJooq jooqSearchService;
+    private final ContactFacetService facetService;
+    private final ObjectMapper objectMapper;
+    private final ContactETagService etagService;
 
     // ---------------- CRUD ----------------
 
@@ -40,10 +57,27 @@ public class ContactController {
         return toDto(contact);
     }
 
+    /**
+     * With {@code If-None-Match}, the contact's version is checked first and an unchanged contact is answered
+     * with 304, without loading or serializing it.
+     */
     @GetMapping("/{id}")
-    public ContactDto get(@PathVariable UUID id) {
+    public ResponseEntity<ContactDto> get(@PathVariable UUID id,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String representation = representation(accept);
+        if (ifNoneMatch != null) {
+            Long version = contactService.version(id).orElse(null);
+            if (version != null && matches(ifNoneMatch, etagService.contactTag(version, representation))) {
+                return notModified(etagService.contactTag(version, representation));
+            }
+        }
         Contact contact = contactService.get(id);
-        return toDto(contact);
+        return ResponseEntity.ok()
+                .eTag(etagService.contactTag(contact.getVersion(), representation))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(toDto(contact));
     }
 
     @PutMapping("/{id}")
@@ -59,6 +93,85 @@ public class ContactController {
         contactService.delete(id);
     }
 
+    // ---------------- SEARCH: planner ----------------
+
+    /**
+     * Unified search: routed to the engine that has been fastest for this filter shape.
+     * Results are ordered totally (default createdAt desc, then id); the engine used is returned in
+     * {@code X-Search-Engine}.
+     * <p>
+     * The ETag changes with any contact change. A request with a matching {@code If-None-Match} is answered
+     * with 304 before the search runs.
+     */
+    @PostMapping("/search")
+    public ResponseEntity<Page<ContactDto>> search(@RequestBody ContactFilterRequest filter, Pageable pageable,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                   String accept) {
+        String representation = representation(accept);
+        if (ifNoneMatch != null) {
+            String current = etagService.searchTag(filter, pageable, representation);
+            if (matches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+        ContactETagService.TaggedSearch search = etagService.search(filter, pageable, representation);
+        return ResponseEntity.ok()
+                .eTag(search.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header("X-Search-Engine", search.result().engine())
+                .body(search.result().page().map(this::toDto));
+    }
+
+    /**
+     * Every contact matching the filter as newline-delimited JSON, in id order. Contacts are read in keyset
+     * chunks and written as each chunk arrives, so memory stays flat however many match and the client
+     * receives the first contacts before the last are read. No total is computed.
+     */
+    @PostMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody searchStream(@RequestBody(required = false) ContactFilterRequest filter) {
+        ContactFilterRequest f = filter != null ? filter : ContactFilterRequest.builder().build();
+        return out -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ContactDto.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                UUID after = null;
+                List<Contact> chunk;
+                do {
+                    chunk = contactService.findMatchingAfter(f, after, STREAM_CHUNK_SIZE);
+                    for (Contact contact : chunk) {
+                        writer.write(toDto(contact));
+                    }
+                    writer.flush();
+                    if (!chunk.isEmpty()) {
+                        after = chunk.getLast().getId();
+                    }
+                } while (chunk.size() == STREAM_CHUNK_SIZE);
+            }
+        };
+    }
+
+    // ---------------- FACETS ----------------
+
+    /**
+     * Contacts matching the filter per country, channel, locale, gender and tag.
+     * {@code ?sample=1} counts a 1% page sample; {@code ?approximate=true} picks the sample size itself.
+     */
+    @PostMapping("/facets")
+    public ContactFacetsDto facets(@RequestBody(required = false) ContactFilterRequest filter,
+                                   @RequestParam(required = false) Double sample,
+                                   @RequestParam(defaultValue = "false") boolean approximate) {
+        ContactFacetService.Facets facets = facetService.facets(filter, sample, approximate);
+        Map<String, List<ContactFacetsDto.Count>> counts = new LinkedHashMap<>();
+        facets.facets().forEach((facet, values) -> counts.put(facet, values.stream().map(this::toCount).toList()));
+        return ContactFacetsDto.builder()
+                .samplePercent(facets.samplePercent())
+                .total(toCount(facets.total()))
+                .facets(counts)
+                .build();
+    }
+
     // ---------------- SEARCH: Specifications ----------------
 
     /**
@@ -90,7 +203,7 @@ public class ContactController {
     @PostMapping("/search/jooq")
     public Page<ContactDto> searchWithJooq(@RequestBody ContactFilterRequest filter,
                                            Pageable pageable) {
-        return jooqSearchRepository.search(filter, pageable).map(this::toDto);
+        return jooqSearchService.search(filter, pageable).map(this::toDto);
     }
 
     // ---------------- Mapping helpers ----------------
@@ -157,79 +270,45 @@ public class ContactController {
                 .build();
     }
 
-    private ContactDto toDto(Contact c) {
-        UUID id = c.getId();
-        String email = c.getEmail();
-        String secondaryEmail = c.getSecondaryEmail();
-        String firstName = c.getFirstName();
-        String middleName = c.getMiddleName();
-        String lastName = c.getLastName();
-        String mobilePhone = c.getMobilePhone();
-        String workPhone = c.getWorkPhone();
-        String homePhone = c.getHomePhone();
-        String companyName = c.getCompanyName();
-        String jobTitle = c.getJobTitle();
-        String addressLine1 = c.getAddressLine1();
-        String addressLine2 = c.getAddressLine2();
-        String city = c.getCity();
-        String stateRegion = c.getStateRegion();
-        String postalCode = c.getPostalCode();
-        String countryCode = c.getCountryCode();
-        String timeZone = c.getTimeZone();
-        String locale = c.getLocale();
-        String preferredChannel = c.getPreferredChannel();
-        String tags = c.getTags();
-        LocalDate birthDate = c.getBirthDate();
-        String gender = c.getGender();
-        boolean active = c.isActive();
-        boolean marketingOptIn = c.isMarketingOptIn();
-        boolean unsubscribed = c.isUnsubscribed();
-        int bounceCount = c.getBounceCount();
-        OffsetDateTime marketingOptInAt = c.getMarketingOptInAt();
-        OffsetDateTime unsubscribedAt = c.getUnsubscribedAt();
-        OffsetDateTime lastEmailedAt = c.getLastEmailedAt();
-        OffsetDateTime lastOpenedAt = c.getLastOpenedAt();
-        OffsetDateTime lastClickedAt = c.getLastClickedAt();
-        OffsetDateTime lastActivityAt = c.getLastActivityAt();
-        OffsetDateTime createdAt = c.getCreatedAt();
-        OffsetDateTime updatedAt = c.getUpdatedAt();
-
-        return ContactDto.builder()
-                .id(id)
-                .email(email)
-                .secondaryEmail(secondaryEmail)
-                .firstName(firstName)
-                .middleName(middleName)
-                .lastName(lastName)
-                .mobilePhone(mobilePhone)
-                .workPhone(workPhone)
-                .homePhone(homePhone)
-                .companyName(companyName)
-                .jobTitle(jobTitle)
-                .addressLine1(addressLine1)
-                .addressLine2(addressLine2)
-                .city(city)
-                .stateRegion(stateRegion)
-                .postalCode(postalCode)
-                .countryCode(countryCode)
-                .timeZone(timeZone)
-                .locale(locale)
-                .preferredChannel(preferredChannel)
-                .tags(tags)
-                .birthDate(birthDate)
-                .gender(gender)
-                .active(active)
-                .marketingOptIn(marketingOptIn)
-                .unsubscribed(unsubscribed)
-                .bounceCount(bounceCount)
-                .marketingOptInAt(marketingOptInAt)
-                .unsubscribedAt(unsubscribedAt)
-                .lastEmailedAt(lastEmailedAt)
-                .lastOpenedAt(lastOpenedAt)
-                .lastClickedAt(lastClickedAt)
-                .lastActivityAt(lastActivityAt)
-                .createdAt(createdAt)
-                .updatedAt(updatedAt)
+    // ---------------- ETag helpers ----------------
+
+    /** Encodings differ in bytes, so each gets its own strong ETag. */
+    private static String representation(String accept) {
+        if (accept != null && accept.contains("smile")) {
+            return "smile";
+        }
+        if (accept != null && accept.contains("cbor")) {
+            return "cbor";
+        }
+        return "json";
+    }
+
+    /** Weak comparison, as {@code If-None-Match} requires. */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
                 .build();
     }
+
+    private ContactDto toDto(Contact c) {
+        return ContactDto.from(c);
+    }
+
+    private ContactFacetsDto.Count toCount(ContactFacetService.Estimate e) {
+        return new ContactFacetsDto.Count(e.value(), e.count(), e.lower(), e.upper());
+    }
 }
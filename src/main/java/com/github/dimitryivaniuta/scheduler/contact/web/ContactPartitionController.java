@@ -0,0 +1,47 @@
+package com.github.dimitryivaniuta.scheduler.contact.web;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactPartitionRepository;
+import com.github.dimitryivaniuta.scheduler.contact.partition.ContactPartitionMigrationService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.partition.ContactPartitionStatusDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Drives the migration of {@code contacts} to the partitioned table; see {@link ContactPartitionMigrationService}.
+ */
+@RestController
+@RequestMapping("/api/contacts/partitioning")
+@RequiredArgsConstructor
+public class ContactPartitionController {
+
+    private final ContactPartitionMigrationService migrationService;
+
+    @GetMapping
+    public ContactPartitionStatusDto status() {
+        return toDto(migrationService.status());
+    }
+
+    @PostMapping("/start")
+    public ContactPartitionStatusDto start() {
+        return toDto(migrationService.start());
+    }
+
+    @PostMapping("/cutover")
+    public ContactPartitionStatusDto cutover() {
+        return toDto(migrationService.cutover());
+    }
+
+    private ContactPartitionStatusDto toDto(ContactPartitionRepository.State state) {
+        return ContactPartitionStatusDto.builder()
+                .state(state.state())
+                .copiedThrough(state.copiedThrough())
+                .copiedRows(state.copiedRows())
+                .startedAt(state.startedAt())
+                .copiedAt(state.copiedAt())
+                .cutOverAt(state.cutOverAt())
+                .build();
+    }
+}
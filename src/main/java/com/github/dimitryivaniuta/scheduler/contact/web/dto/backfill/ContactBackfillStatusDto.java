@@ -0,0 +1,31 @@
+package com.github.dimitryivaniuta.scheduler.contact.web.dto.backfill;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+/**
+ * @param status        {@code RUNNING}, {@code PAUSED}, {@code DONE} or {@code FAILED}
+ * @param changedRows   rows written; in a dry run, rows that would have been
+ * @param conflicts     rows changed by someone else between read and write, then redone
+ * @param progress      share of the id space done, 0..1
+ * @param rowsPerSecond scanned rows per second since the start
+ * @param lastError     error of a range whose next chunk keeps failing, if any
+ */
+@Builder
+public record ContactBackfillStatusDto(
+        String name,
+        String status,
+        boolean dryRun,
+        long scannedRows,
+        long changedRows,
+        long conflicts,
+        int rangesDone,
+        int ranges,
+        double progress,
+        double rowsPerSecond,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        String lastError
+) {
+}
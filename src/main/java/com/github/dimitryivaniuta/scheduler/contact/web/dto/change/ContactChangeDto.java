@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.scheduler.contact.web.dto.change;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @param offset   stream entry id; pass it back as {@code after} or commit it as the consumer offset
+ * @param outboxId monotonic per change, for deduplication of re-published entries
+ */
+@Builder
+public record ContactChangeDto(
+        String offset,
+        long outboxId,
+        String op,
+        UUID contactId,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,4 @@
+package com.github.dimitryivaniuta.scheduler.contact.web.dto.change;
+
+public record ContactChangeOffsetDto(String consumer, String offset) {
+}
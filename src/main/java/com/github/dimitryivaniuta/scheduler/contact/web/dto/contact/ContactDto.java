@@ -1,5 +1,6 @@
 package com.github.dimitryivaniuta.scheduler.contact.web.dto.contact;
 
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
 import lombok.Builder;
 
 import java.time.LocalDate;
@@ -41,7 +42,89 @@ public record ContactDto(
         OffsetDateTime lastOpenedAt,
         OffsetDateTime lastClickedAt,
         OffsetDateTime lastActivityAt,
+        Integer engagementScore,
+        Integer recencyBucket,
         OffsetDateTime createdAt,
         OffsetDateTime updatedAt
 ) {
+
+    public static ContactDto from(Contact c) {
+        UUID id = c.getId();
+        String email = c.getEmail();
+        String secondaryEmail = c.getSecondaryEmail();
+        String firstName = c.getFirstName();
+        String middleName = c.getMiddleName();
+        String lastName = c.getLastName();
+        String mobilePhone = c.getMobilePhone();
+        String workPhone = c.getWorkPhone();
+        String homePhone = c.getHomePhone();
+        String companyName = c.getCompanyName();
+        String jobTitle = c.getJobTitle();
+        String addressLine1 = c.getAddressLine1();
+        String addressLine2 = c.getAddressLine2();
+        String city = c.getCity();
+        String stateRegion = c.getStateRegion();
+        String postalCode = c.getPostalCode();
+        String countryCode = c.getCountryCode();
+        String timeZone = c.getTimeZone();
+        String locale = c.getLocale();
+        String preferredChannel = c.getPreferredChannel();
+        String tags = c.getTags();
+        LocalDate birthDate = c.getBirthDate();
+        String gender = c.getGender();
+        boolean active = c.isActive();
+        boolean marketingOptIn = c.isMarketingOptIn();
+        boolean unsubscribed = c.isUnsubscribed();
+        int bounceCount = c.getBounceCount();
+        OffsetDateTime marketingOptInAt = c.getMarketingOptInAt();
+        OffsetDateTime unsubscribedAt = c.getUnsubscribedAt();
+        OffsetDateTime lastEmailedAt = c.getLastEmailedAt();
+        OffsetDateTime lastOpenedAt = c.getLastOpenedAt();
+        OffsetDateTime lastClickedAt = c.getLastClickedAt();
+        OffsetDateTime lastActivityAt = c.getLastActivityAt();
+        Integer engagementScore = c.getEngagementScore();
+        Integer recencyBucket = c.getRecencyBucket();
+        OffsetDateTime createdAt = c.getCreatedAt();
+        OffsetDateTime updatedAt = c.getUpdatedAt();
+
+        return ContactDto.builder()
+                .id(id)
+                .email(email)
+                .secondaryEmail(secondaryEmail)
+                .firstName(firstName)
+                .middleName(middleName)
+                .lastName(lastName)
+                .mobilePhone(mobilePhone)
+                .workPhone(workPhone)
+                .homePhone(homePhone)
+                .companyName(companyName)
+                .jobTitle(jobTitle)
+                .addressLine1(addressLine1)
+                .addressLine2(addressLine2)
+                .city(city)
+                .stateRegion(stateRegion)
+                .postalCode(postalCode)
+                .countryCode(countryCode)
+                .timeZone(timeZone)
+                .locale(locale)
+                .preferredChannel(preferredChannel)
+                .tags(tags)
+                .birthDate(birthDate)
+                .gender(gender)
+                .active(active)
+                .marketingOptIn(marketingOptIn)
+                .unsubscribed(unsubscribed)
+                .bounceCount(bounceCount)
+                .marketingOptInAt(marketingOptInAt)
+                .unsubscribedAt(unsubscribedAt)
+                .lastEmailedAt(lastEmailedAt)
+                .lastOpenedAt(lastOpenedAt)
+                .lastClickedAt(lastClickedAt)
+                .lastActivityAt(lastActivityAt)
+                .engagementScore(engagementScore)
+                .recencyBucket(recencyBucket)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
 }
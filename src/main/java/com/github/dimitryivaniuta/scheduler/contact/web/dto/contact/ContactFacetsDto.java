@@ -0,0 +1,21 @@
+package com.github.dimitryivaniuta.scheduler.contact.web.dto.contact;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contacts matching a filter per facet value, most frequent first. Counts are exact when
+ * {@code samplePercent} is null; otherwise estimates with a 95% interval {@code [lower, upper]}.
+ */
+@Builder
+public record ContactFacetsDto(
+        Double samplePercent,
+        Count total,
+        Map<String, List<Count>> facets
+) {
+
+    public record Count(String value, long count, long lower, long upper) {
+    }
+}
@@ -8,7 +8,7 @@ import java.time.OffsetDateTime;
 /**
  * All fields are optional; only non-null / non-blank ones are applied.
  */
-@Builder
+@Builder(toBuilder = true)
 public record ContactFilterRequest(
 
         // identity / basic
@@ -53,6 +53,8 @@ public record ContactFilterRequest(
         Boolean unsubscribed,
         Integer minBounceCount,
         Integer maxBounceCount,
+        Integer minEngagementScore, // 0..100
+        Integer recencyBucket,      // engaged at least this recently: 0 = 7 days, 1 = 30, 2 = 90, 3 = 180, 4 = ever
 
         OffsetDateTime createdFrom,
         OffsetDateTime createdTo,
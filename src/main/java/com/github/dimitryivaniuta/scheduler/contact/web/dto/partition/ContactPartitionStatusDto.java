@@ -0,0 +1,21 @@
+package com.github.dimitryivaniuta.scheduler.contact.web.dto.partition;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * @param state         {@code IDLE}, {@code COPYING}, {@code COPIED} or {@code DONE}
+ * @param copiedThrough backfill position (contact id)
+ */
+@Builder
+public record ContactPartitionStatusDto(
+        String state,
+        UUID copiedThrough,
+        long copiedRows,
+        OffsetDateTime startedAt,
+        OffsetDateTime copiedAt,
+        OffsetDateTime cutOverAt
+) {
+}
@@ -0,0 +1,28 @@
+package com.github.dimitryivaniuta.scheduler.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code scheduler.datasource.*}; the lag check interval is read by {@link ReadReplicaRouter} via a placeholder.
+ *
+ * @param replicas    read replicas; empty = everything runs on the primary
+ * @param maxLag      replicas lagging more than this are skipped until they catch up
+ * @param poolSize    Hikari pool size per replica
+ * @param dataSourceProperties PgJDBC properties of every replica pool, e.g. {@code prepareThreshold}
+ */
+@ConfigurationProperties(prefix = "scheduler.datasource")
+public record ReadReplicaProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("PT10S") Duration maxLag,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue Map<String, String> dataSourceProperties
+) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
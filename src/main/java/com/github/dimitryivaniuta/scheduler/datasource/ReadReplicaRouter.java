@@ -0,0 +1,180 @@
+package com.github.dimitryivaniuta.scheduler.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replica pools and the read-only {@link DataSource} routing over them: round-robin across the healthy
+ * replicas, the primary otherwise. Deliberately not a {@code DataSource} bean itself, so the primary stays
+ * auto-configured.
+ * <p>
+ * A replica is healthy while its replay lag (checked every {@code lag-check-interval}) is within
+ * {@code maxLag} and it hands out connections. An unhealthy replica is retried by the next lag check, so a
+ * lagging or failed replica costs at most one failed connection attempt before reads fall back to the primary.
+ * Each replica has its own Hikari pool, registered with Micrometer as {@code replica-<n>}.
+ */
+@Slf4j
+@Component
+public class ReadReplicaRouter implements DisposableBean {
+
+    /** seconds behind the primary; 0 when everything received has been replayed */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadReplicaProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRouter(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            replicas.add(new Replica("replica-" + (i + 1), pool("replica-" + (i + 1), properties.replicas().get(i))));
+        }
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication replay lag of a read replica")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /** The replica pools, healthy or not; e.g. for per-server statistics. */
+    public List<DataSource> replicaDataSources() {
+        return replicas.stream().<DataSource>map(r -> r.dataSource).toList();
+    }
+
+    /**
+     * Read-only data source over the replicas, falling back to {@code primary}. A connection requested with
+     * explicit credentials is not for the replica pools' configured user, so it comes from {@code primary}.
+     */
+    public DataSource readOnlyDataSource(DataSource primary) {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connection(primary);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                routed("primary").increment();
+                return primary.getConnection(username, password);
+            }
+        };
+    }
+
+    private Connection connection(DataSource primary) throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                routed(replica.name).increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, marking unhealthy", replica.name, e);
+                replica.healthy = false;
+            }
+        }
+        routed("primary").increment();
+        return primary.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.datasource.lag-check-interval:PT5S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagSeconds = rs.getDouble(1);
+                boolean healthy = replica.lagSeconds <= properties.maxLag().toMillis() / 1000.0;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} {} (lag {}s)", replica.name, healthy ? "back in rotation" : "lagging, skipped",
+                            replica.lagSeconds);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} lag check failed, skipped", replica.name, e);
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    private Counter routed(String target) {
+        return Counter.builder("db.routing.connections")
+                .description("Read-only connections by target pool")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private HikariDataSource pool(String name, ReadReplicaProperties.Replica replica) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(replica.url());
+        config.setUsername(replica.username());
+        config.setPassword(replica.password());
+        config.setMaximumPoolSize(properties.poolSize());
+        config.setReadOnly(true);
+        properties.dataSourceProperties().forEach(config::addDataSourceProperty);
+        config.setConnectionTimeout(3_000);
+        config.setInitializationFailTimeout(-1);  // start even if a replica is down
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+        volatile double lagSeconds;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process while virtual threads are enabled.
+ * <p>
+ * Each pinning longer than the threshold is recorded in the {@code jvm.threads.virtual.pinned} timer, tagged
+ * with the first application frame; the full stack is logged once per frame to keep the log quiet.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.github.dimitryivaniuta";
+
+    private final MeterRegistry registry;
+    private final Duration threshold;
+    private final Set<String> loggedFrames = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${scheduler.diagnostics.pinned-threshold:PT20MS}") Duration threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frame = culprit(stackTrace);
+
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual thread pinned to its carrier (JFR jdk.VirtualThreadPinned)")
+                .tag("frame", frame)
+                .register(registry)
+                .record(event.getDuration());
+
+        if (loggedFrames.add(frame)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), frame,
+                    stackTrace == null ? "<no stack>" : stackTrace.getFrames().stream()
+                            .map(f -> "\tat " + f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                                    + ":" + f.getLineNumber())
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    /** First application frame, falling back to the top frame. */
+    private static String culprit(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame chosen = stackTrace.getFrames().stream()
+                .filter(f -> f.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse(stackTrace.getFrames().getFirst());
+        return chosen.getMethod().getType().getName() + "." + chosen.getMethod().getName();
+    }
+
+    // ---------------- lifecycle ----------------
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold={}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+}
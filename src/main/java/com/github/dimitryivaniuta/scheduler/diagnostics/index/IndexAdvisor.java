@@ -0,0 +1,263 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.index;
+
+import com.github.dimitryivaniuta.scheduler.datasource.ReadReplicaRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Proposes indexes on {@code contacts} for the recorded {@link IndexWorkload}, and indexes to drop.
+ * <p>
+ * Nothing is created or dropped here: {@link #migration()} renders the advice as the next Flyway migration,
+ * to be reviewed and committed like any other.
+ * <ul>
+ *     <li>Flags become the partial index predicate, so the index only holds the rows the query can return.</li>
+ *     <li>Key columns are equality columns, then the sort column (ordered scan, no sort), then range columns,
+ *     which are checked in the index before any heap fetch.</li>
+ *     <li>Queries selecting only ids get range columns and {@code id} as {@code INCLUDE} columns instead,
+ *     so they run as index-only scans.</li>
+ * </ul>
+ * Indexes are reported unused when neither the primary nor any read replica (each keeps its own statistics)
+ * has scanned them, and the statistics cover at least {@code unusedAfter}. Unique and primary key indexes are
+ * never reported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndexAdvisor {
+
+    static final String PREFIX = "idx_contacts_adv_";
+
+    private final IndexWorkload workload;
+    private final IndexAdvisorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadReplicaRouter replicaRouter;
+
+    public record Proposal(String name, String definition, WorkloadShape shape, long calls, Duration totalTime) {
+    }
+
+    public record UnusedIndex(String name, long bytes) {
+    }
+
+    /**
+     * @param statsSince    start of the shortest statistics window across servers
+     * @param statsComplete statistics of every server were read and cover {@code unusedAfter}; otherwise
+     *                      {@code drop} is empty
+     */
+    public record Advice(List<Proposal> create, List<UnusedIndex> drop, OffsetDateTime statsSince,
+                         boolean statsComplete) {
+    }
+
+    public Advice advise() {
+        List<List<String>> existing = existingKeys();
+        Map<String, Proposal> proposals = new LinkedHashMap<>();
+        workload.snapshot().stream()
+                .filter(e -> e.calls() >= properties.minCalls())
+                .filter(e -> e.totalNanos() >= properties.minTotalTime().toNanos())
+                .filter(e -> e.shape().indexable())
+                .sorted(Comparator.comparingLong(IndexWorkload.Entry::totalNanos).reversed())
+                .forEach(e -> {
+                    Index index = index(e.shape());
+                    if (index.key().isEmpty() || covered(index, existing)) {
+                        return;
+                    }
+                    String definition = index.definition();
+                    String name = PREFIX + hash(definition);
+                    proposals.putIfAbsent(name, new Proposal(name, definition.formatted(name), e.shape(),
+                            e.calls(), Duration.ofNanos(e.totalNanos())));
+                });
+        return withUnusedIndexes(List.copyOf(proposals.values()));
+    }
+
+    /** The advice as the next versioned Flyway migration. */
+    public String migration() {
+        Advice advice = advise();
+        StringBuilder sql = new StringBuilder()
+                .append("-- V").append(nextVersion()).append("__index_advice.sql, generated ")
+                .append(OffsetDateTime.now()).append(" from the recorded contact query workload.\n")
+                .append("-- Review before committing. On a large table prefer CREATE INDEX CONCURRENTLY, which has\n")
+                .append("-- to run outside a transaction (executeInTransaction=false in the script's .conf).\n");
+        for (Proposal proposal : advice.create()) {
+            sql.append("\n-- ").append(proposal.calls()).append(" calls, ")
+                    .append(proposal.totalTime().toMillis()).append(" ms total: ").append(proposal.shape()).append('\n')
+                    .append(proposal.definition()).append(";\n");
+        }
+        if (!advice.statsComplete()) {
+            sql.append("\n-- No unused indexes listed: statistics since ").append(advice.statsSince())
+                    .append(" are incomplete or shorter than ").append(properties.unusedAfter()).append(".\n");
+        }
+        for (UnusedIndex unused : advice.drop()) {
+            sql.append("\n-- never scanned since ").append(advice.statsSince()).append(", ")
+                    .append(unused.bytes() / (1024 * 1024)).append(" MiB\n")
+                    .append("DROP INDEX IF EXISTS ").append(unused.name()).append(";\n");
+        }
+        return sql.toString();
+    }
+
+    // ---------------- proposals ----------------
+
+    private record Index(List<String> key, List<String> include, Map<String, Boolean> flags) {
+
+        String definition() {
+            StringBuilder sql = new StringBuilder("CREATE INDEX %s ON contacts (")
+                    .append(String.join(", ", key)).append(')');
+            if (!include.isEmpty()) {
+                sql.append(" INCLUDE (").append(String.join(", ", include)).append(')');
+            }
+            if (!flags.isEmpty()) {
+                StringJoiner where = new StringJoiner(" AND ", " WHERE ", "");
+                flags.forEach((column, value) -> where.add(value ? column : "NOT " + column));
+                sql.append(where);
+            }
+            return sql.toString();
+        }
+    }
+
+    private static Index index(WorkloadShape shape) {
+        Set<String> key = new LinkedHashSet<>(shape.equality());
+        if (shape.sort() != null) {
+            key.add(shape.sort());
+        }
+        Set<String> include = new LinkedHashSet<>();
+        for (String range : shape.ranges()) {
+            if (!key.contains(range)) {
+                (shape.idsOnly() ? include : key).add(range);
+            }
+        }
+        if (shape.idsOnly() && !key.contains("id")) {
+            include.add("id");
+        }
+        if (key.isEmpty() && !include.isEmpty()) {
+            // no equality or sort column: lead with a range column after all
+            String first = include.iterator().next();
+            include.remove(first);
+            key.add(first);
+        }
+        return new Index(List.copyOf(key), List.copyOf(include), shape.flags());
+    }
+
+    /** An existing btree whose leading key columns are the proposed ones, with no predicate or the same flags. */
+    private static boolean covered(Index index, List<List<String>> existing) {
+        for (List<String> columns : existing) {
+            int where = columns.indexOf("WHERE");
+            List<String> keys = where < 0 ? columns : columns.subList(0, where);
+            String predicate = where < 0 ? "" : String.join(" ", columns.subList(where + 1, columns.size()));
+            if (keys.size() >= index.key().size()
+                    && keys.subList(0, index.key().size()).equals(index.key())
+                    && (predicate.isEmpty() || index.flags().keySet().stream().allMatch(predicate::contains))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Key columns of the btree indexes on contacts, followed by "WHERE" and the predicate if partial. */
+    private List<List<String>> existingKeys() {
+        return jdbcTemplate.query("""
+                SELECT (SELECT array_agg(pg_get_indexdef(i.indexrelid, k, true) ORDER BY k)
+                        FROM generate_series(1, i.indnkeyatts) k) AS keys,
+                       pg_get_expr(i.indpred, i.indrelid) AS predicate
+                FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                JOIN pg_am am ON am.oid = c.relam
+                WHERE i.indrelid = 'contacts'::regclass AND am.amname = 'btree'
+                """, (rs, rowNum) -> {
+            List<String> columns = new ArrayList<>(List.of((String[]) rs.getArray("keys").getArray()));
+            String predicate = rs.getString("predicate");
+            if (predicate != null) {
+                columns.add("WHERE");
+                columns.add(predicate);
+            }
+            return columns;
+        });
+    }
+
+    // ---------------- unused indexes ----------------
+
+    private Advice withUnusedIndexes(List<Proposal> proposals) {
+        String sql = """
+                SELECT s.indexrelname AS name, s.idx_scan AS scans, pg_relation_size(s.indexrelid) AS bytes
+                FROM pg_stat_user_indexes s
+                JOIN pg_index i ON i.indexrelid = s.indexrelid
+                WHERE s.relname = 'contacts' AND NOT i.indisunique AND NOT i.indisprimary
+                """;
+        Map<String, Long> scans = new LinkedHashMap<>();
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        OffsetDateTime since = null;
+        boolean complete = true;
+
+        List<JdbcTemplate> servers = new ArrayList<>();
+        servers.add(jdbcTemplate);
+        for (DataSource replica : replicaRouter.replicaDataSources()) {
+            servers.add(new JdbcTemplate(replica));
+        }
+        for (JdbcTemplate server : servers) {
+            try {
+                OffsetDateTime serverSince = server.queryForObject("""
+                        SELECT coalesce(stats_reset, pg_postmaster_start_time())
+                        FROM pg_stat_database WHERE datname = current_database()
+                        """, OffsetDateTime.class);
+                if (since == null || (serverSince != null && serverSince.isAfter(since))) {
+                    since = serverSince;
+                }
+                server.query(sql, rs -> {
+                    scans.merge(rs.getString("name"), rs.getLong("scans"), Long::sum);
+                    bytes.putIfAbsent(rs.getString("name"), rs.getLong("bytes"));
+                });
+            } catch (DataAccessException e) {
+                log.warn("Index statistics unavailable from one server; not reporting unused indexes", e);
+                complete = false;
+            }
+        }
+
+        complete = complete && since != null
+                && !since.isAfter(OffsetDateTime.now().minus(properties.unusedAfter()));
+        List<UnusedIndex> drop = new ArrayList<>();
+        if (complete) {
+            scans.forEach((name, count) -> {
+                if (count == 0) {
+                    drop.add(new UnusedIndex(name, bytes.get(name)));
+                }
+            });
+        }
+        return new Advice(proposals, drop, since, complete);
+    }
+
+    // ---------------- helpers ----------------
+
+    private int nextVersion() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL", String.class);
+        return versions.stream()
+                .mapToInt(v -> Integer.parseInt(v.split("\\.")[0]))
+                .max()
+                .orElse(0) + 1;
+    }
+
+    private static String hash(String definition) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(definition.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
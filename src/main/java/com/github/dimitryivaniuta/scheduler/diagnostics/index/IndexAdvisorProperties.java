@@ -0,0 +1,23 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.diagnostics.index-advisor.*}
+ *
+ * @param minCalls      workload shapes run fewer times than this get no index proposal
+ * @param minTotalTime  nor do shapes whose queries took less than this in total
+ * @param maxShapes     distinct workload shapes tracked in memory; further shapes are ignored
+ * @param unusedAfter   indexes are reported unused only when statistics cover at least this period
+ */
+@ConfigurationProperties(prefix = "scheduler.diagnostics.index-advisor")
+public record IndexAdvisorProperties(
+        @DefaultValue("100") long minCalls,
+        @DefaultValue("PT10S") Duration minTotalTime,
+        @DefaultValue("500") int maxShapes,
+        @DefaultValue("P14D") Duration unusedAfter
+) {
+}
@@ -0,0 +1,50 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.index;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls and total time per {@link WorkloadShape} of contact queries on this replica, since startup;
+ * the input of {@link IndexAdvisor}.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexWorkload {
+
+    public record Entry(WorkloadShape shape, long calls, long totalNanos) {
+    }
+
+    private final IndexAdvisorProperties properties;
+    private final Map<WorkloadShape, Stats> shapes = new ConcurrentHashMap<>();
+
+    public void record(ContactFilterRequest filter, Sort sort, boolean idsOnly, long nanos) {
+        WorkloadShape shape = WorkloadShape.of(filter, sort, idsOnly);
+        Stats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= properties.maxShapes()) {
+                return;
+            }
+            stats = shapes.computeIfAbsent(shape, s -> new Stats());
+        }
+        stats.calls.increment();
+        stats.nanos.add(nanos);
+    }
+
+    public List<Entry> snapshot() {
+        return shapes.entrySet().stream()
+                .map(e -> new Entry(e.getKey(), e.getValue().calls.sum(), e.getValue().nanos.sum()))
+                .toList();
+    }
+
+    private static final class Stats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.index;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * What an index for a contact query has to serve, by column rather than by filter field.
+ * <p>
+ * Unlike {@code FilterShape}, flag values are kept ({@code is_active = true} and {@code = false} need different
+ * partial indexes), and both bounds of a range count as one column. Text filters are left out: they are served
+ * by the trigram indexes of {@code V1}.
+ *
+ * @param flags     boolean columns compared with a constant; candidates for a partial index predicate
+ * @param equality  columns compared with {@code =}; leading key columns
+ * @param ranges    columns with a range bound
+ * @param sort      first sort column, or null
+ * @param idsOnly   only ids are selected, so the index can cover the query
+ */
+public record WorkloadShape(
+        SortedMap<String, Boolean> flags,
+        SortedSet<String> equality,
+        SortedSet<String> ranges,
+        String sort,
+        boolean idsOnly
+) {
+
+    private static final Map<String, String> FLAGS = Map.of(
+            "active", "is_active",
+            "marketingOptIn", "marketing_opt_in",
+            "unsubscribed", "unsubscribed");
+
+    private static final Map<String, String> EQUALITY = Map.of(
+            "email", "email",
+            "secondaryEmail", "secondary_email",
+            "timeZone", "time_zone",
+            "locale", "locale",
+            "preferredChannel", "preferred_channel");
+
+    private static final Map<String, String> RANGES = Map.ofEntries(
+            Map.entry("birthDateFrom", "birth_date"), Map.entry("birthDateTo", "birth_date"),
+            Map.entry("minBounceCount", "bounce_count"), Map.entry("maxBounceCount", "bounce_count"),
+            Map.entry("minEngagementScore", "engagement_score"), Map.entry("recencyBucket", "recency_bucket"),
+            Map.entry("createdFrom", "created_at"), Map.entry("createdTo", "created_at"),
+            Map.entry("lastActivityFrom", "last_activity_at"), Map.entry("lastActivityTo", "last_activity_at"),
+            Map.entry("lastEmailedFrom", "last_emailed_at"), Map.entry("lastEmailedTo", "last_emailed_at"),
+            Map.entry("lastOpenedFrom", "last_opened_at"), Map.entry("lastOpenedTo", "last_opened_at"),
+            Map.entry("lastClickedFrom", "last_clicked_at"), Map.entry("lastClickedTo", "last_clicked_at"));
+
+    private static final Map<String, String> SORTS = Map.of(
+            "id", "id",
+            "email", "email",
+            "createdAt", "created_at",
+            "lastActivityAt", "last_activity_at");
+
+    private static final RecordComponent[] COMPONENTS = ContactFilterRequest.class.getRecordComponents();
+
+    public static WorkloadShape of(ContactFilterRequest filter, Sort sort, boolean idsOnly) {
+        SortedMap<String, Boolean> flags = new TreeMap<>();
+        SortedSet<String> equality = new TreeSet<>();
+        SortedSet<String> ranges = new TreeSet<>();
+        if (filter != null) {
+            for (RecordComponent component : COMPONENTS) {
+                Object value = value(component, filter);
+                if (value == null || value instanceof String s && s.isBlank()) {
+                    continue;
+                }
+                String name = component.getName();
+                if (FLAGS.containsKey(name)) {
+                    flags.put(FLAGS.get(name), (Boolean) value);
+                } else if (EQUALITY.containsKey(name)) {
+                    equality.add(EQUALITY.get(name));
+                } else if (RANGES.containsKey(name)) {
+                    ranges.add(RANGES.get(name));
+                }
+            }
+        }
+        String sortColumn = sort == null ? null : sort.stream()
+                .findFirst()
+                .map(order -> SORTS.get(order.getProperty()))
+                .orElse(null);
+        return new WorkloadShape(flags, equality, ranges, sortColumn, idsOnly);
+    }
+
+    /** Whether an index on these columns could help at all; flags alone are too unselective for a key. */
+    public boolean indexable() {
+        return !equality.isEmpty() || !ranges.isEmpty() || (sort != null && !flags.isEmpty());
+    }
+
+    private static Object value(RecordComponent component, ContactFilterRequest filter) {
+        try {
+            return component.getAccessor().invoke(filter);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.StringJoiner;
+
+/**
+ * Normalized "shape" of a {@link ContactFilterRequest}: the names of the fields that are set, in a fixed
+ * order, e.g. {@code active+countryCode+lastName}; {@code all} when nothing is set. Values are ignored, so
+ * every request with the same field combination has the same shape.
+ */
+public final class FilterShape {
+
+    public static final String ALL = "all";
+
+    private static final RecordComponent[] COMPONENTS = Arrays.stream(ContactFilterRequest.class.getRecordComponents())
+            .sorted(Comparator.comparing(RecordComponent::getName))
+            .toArray(RecordComponent[]::new);
+
+    private FilterShape() {
+    }
+
+    public static String of(ContactFilterRequest filter) {
+        if (filter == null) {
+            return ALL;
+        }
+        StringJoiner shape = new StringJoiner("+");
+        for (RecordComponent component : COMPONENTS) {
+            if (isSet(value(component, filter))) {
+                shape.add(component.getName());
+            }
+        }
+        return shape.length() == 0 ? ALL : shape.toString();
+    }
+
+    private static boolean isSet(Object value) {
+        return value != null && !(value instanceof String s && s.isBlank());
+    }
+
+    private static Object value(RecordComponent component, ContactFilterRequest filter) {
+        try {
+            return component.getAccessor().invoke(filter);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
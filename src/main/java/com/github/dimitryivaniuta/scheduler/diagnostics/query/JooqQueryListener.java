@@ -0,0 +1,23 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.conf.ParamType;
+
+/**
+ * Reports jOOQ statements, with exact timings and row counts, to the current {@link QueryScope}.
+ */
+public class JooqQueryListener implements ExecuteListener {
+
+    @Override
+    public void executeStart(ExecuteContext ctx) {
+        QueryScope.current().ifPresent(scope -> scope.statementStarted(ctx.sql(),
+                ctx.query() != null ? ctx.query().getSQL(ParamType.INLINED) : null));
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        QueryScope.current().ifPresent(scope ->
+                scope.statementEnded(ctx.result() != null ? ctx.result().size() : ctx.rows()));
+    }
+}
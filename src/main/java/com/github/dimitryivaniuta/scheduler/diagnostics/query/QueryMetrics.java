@@ -0,0 +1,209 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.diagnostics.index.IndexWorkload;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-search and per-statement metrics, shared by the Specifications, QueryDSL and jOOQ engines.
+ * <ul>
+ *     <li>{@code contact.search} — whole search, tags {@code engine}, {@code shape};</li>
+ *     <li>{@code contact.search.statement} — each SQL statement, plus tag {@code kind} ({@code count}/{@code fetch});</li>
+ *     <li>{@code contact.search.rows} — rows returned per fetch statement (jOOQ) or per page (Hibernate);</li>
+ *     <li>{@code contact.search.statements.distinct} — distinct SQL texts seen per engine;</li>
+ *     <li>{@code contact.search.statement.reuse} — executions whose SQL text was seen before ({@code hit}) or
+ *     not ({@code miss}). Only repeated texts can use PgJDBC's per-connection server-side prepared statements,
+ *     so the hit ratio is an upper bound for the server's plan cache hit ratio.</li>
+ * </ul>
+ * Statements slower than {@code slowThreshold} are logged at WARN with their parameterized SQL; bind values are
+ * contact data (emails, names), so the statement with values inlined (jOOQ) is only logged at DEBUG. With
+ * {@code explain} enabled, a sampled slow statement is explained on a background thread with
+ * {@code EXPLAIN (GENERIC_PLAN)} (PostgreSQL 16+), whose plan holds no values; at DEBUG, statements with inlined
+ * values get {@code EXPLAIN (ANALYZE, BUFFERS)} instead.
+ * Connection wait time is covered by Hikari's own {@code hikaricp.connections.acquire}.
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+
+    private static final String OTHER = "other";
+    /** beyond this many texts per engine the statement set stops growing; new texts then count as misses */
+    private static final int MAX_TRACKED_STATEMENTS = 10_000;
+
+    private final MeterRegistry registry;
+    private final QueryMetricsProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final IndexWorkload indexWorkload;
+    private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> statements = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry registry,
+                        QueryMetricsProperties properties,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        IndexWorkload indexWorkload) {
+        this.registry = registry;
+        this.indexWorkload = indexWorkload;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /** Runs one search of {@code engine} inside a {@link QueryScope}. */
+    public <T> Page<T> search(String engine, ContactFilterRequest filter, Supplier<Page<T>> search) {
+        String shape = shapeTag(FilterShape.of(filter));
+        long start = System.nanoTime();
+        Page<T> page;
+        try (QueryScope ignored = new QueryScope(this, engine, shape)) {
+            page = search.get();
+        }
+        long nanos = System.nanoTime() - start;
+        Timer.builder("contact.search")
+                .description("Contact search, by engine and filter shape")
+                .tags("engine", engine, "shape", shape)
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+        indexWorkload.record(filter, page.getPageable().getSort(), false, nanos);
+        if (!"jooq".equals(engine)) {
+            rows(engine, shape).record(page.getNumberOfElements());
+        }
+        return page;
+    }
+
+    void recordStatement(QueryScope scope, String sql, String inlinedSql, long nanos, long rows) {
+        String kind = sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select count") ? "count" : "fetch";
+        Timer.builder("contact.search.statement")
+                .description("SQL statement of a contact search")
+                .tags("engine", scope.engine(), "shape", scope.shape(), "kind", kind)
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+        statementReuse(scope.engine(), sql);
+        if (rows >= 0 && "fetch".equals(kind)) {
+            rows(scope.engine(), scope.shape()).record(rows);
+        }
+
+        if (nanos >= properties.slowThreshold().toNanos()) {
+            log.warn("Slow {} query ({} ms, engine={}, shape={}, rows={}): {}", kind, nanos / 1_000_000,
+                    scope.engine(), scope.shape(), rows, sql);
+            if (inlinedSql != null) {
+                log.debug("Slow {} query with bind values (engine={}, shape={}): {}", kind, scope.engine(),
+                        scope.shape(), inlinedSql);
+            }
+            if (properties.explain()) {
+                explainSampled(scope.engine(), scope.shape(), sql, inlinedSql);
+            }
+        }
+    }
+
+    private void explainSampled(String engine, String shape, String sql, String inlinedSql) {
+        long now = System.nanoTime();
+        long interval = properties.explainInterval().toNanos();
+        boolean[] due = {false};
+        lastExplained.compute(engine + "|" + shape, (k, last) -> {
+            if (last == null || now - last >= interval) {
+                due[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (!due[0]) {
+            return;
+        }
+        // an analyzed plan shows the bind values in its conditions, so it is only taken when it may be logged
+        boolean analyze = inlinedSql != null && log.isDebugEnabled();
+        String explain = analyze
+                ? "EXPLAIN (ANALYZE, BUFFERS) " + inlinedSql
+                : "EXPLAIN (GENERIC_PLAN) " + numberedParameters(sql);
+        Thread.ofVirtual().name("query-explain").start(() -> {
+            try {
+                List<String> plan = readOnly.execute(status -> {
+                    jdbcTemplate.execute("SET LOCAL statement_timeout = '30s'");
+                    return jdbcTemplate.queryForList(explain, String.class);
+                });
+                String text = plan == null ? "" : String.join("\n", plan);
+                if (analyze) {
+                    log.debug("Plan for slow query (engine={}, shape={}):\n{}", engine, shape, text);
+                } else {
+                    log.warn("Plan for slow query (engine={}, shape={}):\n{}", engine, shape, text);
+                }
+            } catch (RuntimeException e) {
+                log.debug("EXPLAIN failed for shape {}", shape, e);
+            }
+        });
+    }
+
+    /** JDBC {@code ?} placeholders to {@code $n}, which {@code GENERIC_PLAN} accepts without values. */
+    static String numberedParameters(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int n = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                out.append('$').append(++n);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private void statementReuse(String engine, String sql) {
+        Set<String> seen = statements.computeIfAbsent(engine, e -> {
+            Set<String> set = ConcurrentHashMap.newKeySet();
+            Gauge.builder("contact.search.statements.distinct", set, Set::size)
+                    .description("Distinct SQL texts of contact searches")
+                    .tag("engine", e)
+                    .register(registry);
+            return set;
+        });
+        boolean hit = seen.contains(sql);
+        if (!hit && seen.size() < MAX_TRACKED_STATEMENTS) {
+            seen.add(sql);
+        }
+        registry.counter("contact.search.statement.reuse", "engine", engine, "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+    private DistributionSummary rows(String engine, String shape) {
+        return DistributionSummary.builder("contact.search.rows")
+                .description("Rows returned by a contact search")
+                .tags("engine", engine, "shape", shape)
+                .register(registry);
+    }
+
+    /** Bounds tag cardinality: the first {@code maxShapes} shapes seen are tagged as-is. */
+    private String shapeTag(String shape) {
+        if (shapes.contains(shape)) {
+            return shape;
+        }
+        if (shapes.size() < properties.maxShapes()) {
+            shapes.add(shape);
+            return shape;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.diagnostics.queries.*}
+ *
+ * @param slowThreshold   statements slower than this are logged with their parameterized SQL
+ * @param explain         also log an {@code EXPLAIN} of slow statements, sampled
+ * @param explainInterval at most one {@code EXPLAIN} per filter shape and engine within this interval
+ * @param maxShapes       distinct filter shapes used as metric tags; further shapes are tagged {@code other}
+ */
+@ConfigurationProperties(prefix = "scheduler.diagnostics.queries")
+public record QueryMetricsProperties(
+        @DefaultValue("PT0.5S") Duration slowThreshold,
+        @DefaultValue("false") boolean explain,
+        @DefaultValue("PT10M") Duration explainInterval,
+        @DefaultValue("200") int maxShapes
+) {
+}
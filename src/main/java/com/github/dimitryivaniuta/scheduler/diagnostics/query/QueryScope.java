@@ -0,0 +1,75 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import java.util.Optional;
+
+/**
+ * The search running on the current thread, so statement-level hooks ({@link QueryStatementInspector},
+ * {@link JooqQueryListener}) can attribute SQL to an engine and filter shape.
+ * <p>
+ * jOOQ reports the start and end of each statement. Hibernate only reports the start, so a Hibernate
+ * statement is considered finished when the next one starts or the scope closes, which includes
+ * result hydration.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final QueryMetrics metrics;
+    private final String engine;
+    private final String shape;
+    private final QueryScope previous;
+
+    private String sql;
+    private String inlinedSql;
+    private long startedNanos;
+
+    QueryScope(QueryMetrics metrics, String engine, String shape) {
+        this.metrics = metrics;
+        this.engine = engine;
+        this.shape = shape;
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    public static Optional<QueryScope> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public String engine() {
+        return engine;
+    }
+
+    public String shape() {
+        return shape;
+    }
+
+    /**
+     * @param inlinedSql the statement with bind values inlined, if the engine can render it; used for EXPLAIN ANALYZE
+     */
+    public void statementStarted(String sql, String inlinedSql) {
+        statementEnded(-1);
+        this.sql = sql;
+        this.inlinedSql = inlinedSql;
+        this.startedNanos = System.nanoTime();
+    }
+
+    /** @param rows rows returned, or -1 if unknown */
+    public void statementEnded(long rows) {
+        if (sql == null) {
+            return;
+        }
+        metrics.recordStatement(this, sql, inlinedSql, System.nanoTime() - startedNanos, rows);
+        sql = null;
+        inlinedSql = null;
+    }
+
+    @Override
+    public void close() {
+        statementEnded(-1);
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
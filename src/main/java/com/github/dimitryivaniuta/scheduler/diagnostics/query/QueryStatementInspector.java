@@ -0,0 +1,17 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Reports every SQL statement Hibernate prepares (Specifications and QueryDSL engines) to the current
+ * {@link QueryScope}. Registered through {@code hibernate.session_factory.statement_inspector}, so it is
+ * instantiated by Hibernate rather than Spring.
+ */
+public class QueryStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryScope.current().ifPresent(scope -> scope.statementStarted(sql, null));
+        return sql;
+    }
+}
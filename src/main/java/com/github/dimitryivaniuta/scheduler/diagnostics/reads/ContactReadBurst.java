@@ -0,0 +1,48 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.reads;
+
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactBatchLoader;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Synthetic burst of single-contact reads, like open/click callbacks of a campaign: {@code requests}
+ * concurrent {@link ContactService#get} calls, one virtual thread each, spread over {@code distinctIds} real
+ * contacts. Reports how many database queries served them; without coalescing that is one per request.
+ * <p>
+ * Query counts are taken from {@link ContactBatchLoader}, so other reads running at the same time are included.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContactReadBurst {
+
+    private final ContactService contactService;
+    private final ContactBatchLoader batchLoader;
+
+    public record Result(int requests, int distinctIds, long queries, long elapsedMillis) {
+    }
+
+    public Result run(int requests, int distinctIds) {
+        List<UUID> ids = contactService.findIdsMatchingAfter(
+                ContactFilterRequest.builder().build(), null, distinctIds);
+        if (ids.isEmpty()) {
+            return new Result(0, 0, 0, 0);
+        }
+        long queries = batchLoader.queries();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                UUID id = ids.get(i % ids.size());
+                executor.submit(() -> contactService.get(id));
+            }
+        }
+        return new Result(requests, ids.size(), batchLoader.queries() - queries,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
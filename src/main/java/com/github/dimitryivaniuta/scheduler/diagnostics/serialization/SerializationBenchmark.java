@@ -0,0 +1,93 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.serialization;
+
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactDto;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes and CPU time per 1000 contacts for each response encoding, measured on this instance with real
+ * contacts: the reflective JSON bean serializer as baseline, the hand-written JSON serializer, Smile and CBOR,
+ * each also gzip-compressed as with {@code server.compression}.
+ * <p>
+ * CPU time is that of the measuring thread, so it is not skewed by concurrent requests; it still includes JIT
+ * compilation unless enough warmup rounds ran.
+ */
+@Service
+@RequiredArgsConstructor
+public class SerializationBenchmark {
+
+    private final ContactService contactService;
+    private final ObjectMapper objectMapper;
+    private final JacksonSmileHttpMessageConverter smileConverter;
+    private final JacksonCborHttpMessageConverter cborConverter;
+
+    /** Per 1000 contacts; {@code cpuMicros} is the average over the measured rounds. */
+    public record Result(String encoding, long bytes, long gzipBytes, long cpuMicros) {
+    }
+
+    public List<Result> run(int contacts, int warmup, int rounds) {
+        List<ContactDto> page = contactService
+                .findMatchingAfter(ContactFilterRequest.builder().build(), null, contacts)
+                .stream()
+                .map(ContactDto::from)
+                .toList();
+        if (page.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, ObjectWriter> writers = new LinkedHashMap<>();
+        writers.put("json-reflection", JsonMapper.builder().build().writer());
+        writers.put("json", objectMapper.writer());
+        writers.put("smile", smileConverter.getMapper().writer());
+        writers.put("cbor", cborConverter.getMapper().writer());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<Result> results = new ArrayList<>();
+        writers.forEach((encoding, writer) -> {
+            byte[] bytes = writer.writeValueAsBytes(page);
+            for (int i = 0; i < warmup; i++) {
+                writer.writeValueAsBytes(page);
+            }
+            long cpu = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < rounds; i++) {
+                writer.writeValueAsBytes(page);
+            }
+            long cpuNanos = (threads.getCurrentThreadCpuTime() - cpu) / Math.max(rounds, 1);
+            results.add(new Result(encoding, per1k(bytes.length, page.size()), per1k(gzip(bytes), page.size()),
+                    per1k(cpuNanos, page.size()) / 1000));
+        });
+        return results;
+    }
+
+    private static long per1k(long value, int contacts) {
+        return value * 1000 / contacts;
+    }
+
+    private static int gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size();
+    }
+}
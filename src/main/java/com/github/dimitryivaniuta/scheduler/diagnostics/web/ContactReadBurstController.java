@@ -0,0 +1,36 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web;
+
+import com.github.dimitryivaniuta.scheduler.diagnostics.reads.ContactReadBurst;
+import com.github.dimitryivaniuta.scheduler.diagnostics.web.dto.ContactReadBurstDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Runs a synthetic burst of contact reads on the instance that serves the request. Up to 100k reads hit the
+ * database, so it is only registered with {@code scheduler.diagnostics.contact-read-burst.enabled=true}.
+ */
+@RestController
+@ConditionalOnProperty("scheduler.diagnostics.contact-read-burst.enabled")
+@RequestMapping("/api/diagnostics/contact-reads")
+@RequiredArgsConstructor
+public class ContactReadBurstController {
+
+    private final ContactReadBurst burst;
+
+    @PostMapping("/burst")
+    public ContactReadBurstDto burst(@RequestParam(defaultValue = "10000") int requests,
+                                     @RequestParam(defaultValue = "100") int distinctIds) {
+        ContactReadBurst.Result result = burst.run(
+                Math.clamp(requests, 1, 100_000), Math.clamp(distinctIds, 1, 10_000));
+        return ContactReadBurstDto.builder()
+                .requests(result.requests())
+                .distinctIds(result.distinctIds())
+                .queries(result.queries())
+                .elapsedMillis(result.elapsedMillis())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web;
+
+import com.github.dimitryivaniuta.scheduler.diagnostics.index.IndexAdvisor;
+import com.github.dimitryivaniuta.scheduler.diagnostics.web.dto.IndexAdviceDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Index advice from the contact query workload recorded on the replica that serves the request.
+ */
+@RestController
+@RequestMapping("/api/diagnostics/index-advice")
+@RequiredArgsConstructor
+public class IndexAdvisorController {
+
+    private final IndexAdvisor indexAdvisor;
+
+    @GetMapping
+    public IndexAdviceDto advice() {
+        IndexAdvisor.Advice advice = indexAdvisor.advise();
+        return IndexAdviceDto.builder()
+                .create(advice.create().stream()
+                        .map(p -> new IndexAdviceDto.Proposal(p.name(), p.definition(), p.calls(),
+                                p.totalTime().toMillis()))
+                        .toList())
+                .drop(advice.drop().stream()
+                        .map(u -> new IndexAdviceDto.Unused(u.name(), u.bytes()))
+                        .toList())
+                .statsSince(advice.statsSince())
+                .statsComplete(advice.statsComplete())
+                .build();
+    }
+
+    /** The same advice as a draft of the next Flyway migration. */
+    @GetMapping(value = "/migration", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String migration() {
+        return indexAdvisor.migration();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web;
+
+import com.github.dimitryivaniuta.scheduler.diagnostics.serialization.SerializationBenchmark;
+import com.github.dimitryivaniuta.scheduler.diagnostics.web.dto.SerializationBenchmarkDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Serialization cost of contact responses per encoding, measured on the instance that serves the request.
+ * Burns CPU on that instance, so it is only registered with
+ * {@code scheduler.diagnostics.serialization-benchmark.enabled=true}.
+ */
+@RestController
+@ConditionalOnProperty("scheduler.diagnostics.serialization-benchmark.enabled")
+@RequestMapping("/api/diagnostics/serialization")
+@RequiredArgsConstructor
+public class SerializationBenchmarkController {
+
+    private final SerializationBenchmark benchmark;
+
+    @GetMapping
+    public List<SerializationBenchmarkDto> benchmark(@RequestParam(defaultValue = "1000") int contacts,
+                                                     @RequestParam(defaultValue = "50") int warmup,
+                                                     @RequestParam(defaultValue = "20") int rounds) {
+        List<SerializationBenchmark.Result> results = benchmark.run(
+                Math.clamp(contacts, 1, 10_000), Math.clamp(warmup, 0, 1_000), Math.clamp(rounds, 1, 1_000));
+        return results.stream()
+                .map(r -> SerializationBenchmarkDto.builder()
+                        .encoding(r.encoding())
+                        .bytesPer1k(r.bytes())
+                        .gzipBytesPer1k(r.gzipBytes())
+                        .cpuMicrosPer1k(r.cpuMicros())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web.dto;
+
+import lombok.Builder;
+
+/**
+ * Database queries that served a burst of {@code requests} contact reads; uncoalesced, one per request.
+ */
+@Builder
+public record ContactReadBurstDto(
+        int requests,
+        int distinctIds,
+        long queries,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,24 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web.dto;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Index changes proposed for {@code contacts}; {@code drop} is only filled when {@code statsComplete}.
+ */
+@Builder
+public record IndexAdviceDto(
+        List<Proposal> create,
+        List<Unused> drop,
+        OffsetDateTime statsSince,
+        boolean statsComplete
+) {
+
+    public record Proposal(String name, String definition, long calls, long totalMillis) {
+    }
+
+    public record Unused(String name, long bytes) {
+    }
+}
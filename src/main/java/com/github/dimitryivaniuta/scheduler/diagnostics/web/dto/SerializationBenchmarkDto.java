@@ -0,0 +1,15 @@
+package com.github.dimitryivaniuta.scheduler.diagnostics.web.dto;
+
+import lombok.Builder;
+
+/**
+ * Cost of serializing 1000 contacts in one encoding; {@code json-reflection} is the baseline.
+ */
+@Builder
+public record SerializationBenchmarkDto(
+        String encoding,
+        long bytesPer1k,
+        long gzipBytesPer1k,
+        long cpuMicrosPer1k
+) {
+}
@@ -0,0 +1,18 @@
+package com.github.dimitryivaniuta.scheduler.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled        run the dynamic job scheduler on this replica
+ * @param lockAtLeastFor minimum lock hold per fire, covers clock skew between replicas
+ *                       (capped at half the job period)
+ */
+@ConfigurationProperties(prefix = "scheduler.jobs")
+public record JobSchedulingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT5S") Duration lockAtLeastFor
+) {
+}
@@ -0,0 +1,13 @@
+package com.github.dimitryivaniuta.scheduler.job.domain;
+
+/**
+ * How fires of the same job relate to each other. Either way, each fire runs on exactly one replica.
+ */
+public enum ConcurrencyPolicy {
+
+    /** a fire is skipped while the previous run still holds the job lock (cluster-wide) */
+    FORBID,
+
+    /** runs may overlap; every fire gets its own lock */
+    ALLOW
+}
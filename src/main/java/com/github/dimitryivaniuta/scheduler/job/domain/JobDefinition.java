@@ -0,0 +1,94 @@
+package com.github.dimitryivaniuta.scheduler.job.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runtime-registered job; changes are pushed to every replica via {@code NOTIFY job_definitions}.
+ */
+@Entity
+@Table(name = "job_definitions")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDefinition {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false, length = 128, unique = true)
+    private String name;
+
+    /** name of the {@code JobHandler} bean that executes the job */
+    @Column(nullable = false, length = 64)
+    private String handler;
+
+    /** schedule: either a Spring cron expression or a fixed interval (aligned to the epoch) */
+    @Column(length = 120)
+    private String cron;
+
+    @Column(name = "interval_ms")
+    private Long intervalMs;
+
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;          // cron zone, UTC if null
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> payload;
+
+    @Column(length = 128)
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "concurrency_policy", nullable = false, length = 16)
+    private ConcurrencyPolicy concurrencyPolicy;
+
+    @Column(name = "lock_at_most_for_ms", nullable = false)
+    private long lockAtMostForMs;
+
+    @Column(nullable = false)
+    private boolean enabled;
+
+    /** audit */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        OffsetDateTime now = OffsetDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A job execution in progress, bound to the thread running the job by {@link JobRunRecorder}.
+ * <p>
+ * Jobs report progress via {@link #current()}; counters are thread-safe so workers may update them too.
+ */
+public final class JobRun {
+
+    private static final ThreadLocal<JobRun> CURRENT = new ThreadLocal<>();
+
+    private final UUID id = UUID.randomUUID();
+    private final String jobName;
+    private final Long lockToken;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong itemsProcessed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final Map<String, AtomicLong> phaseNanos = new ConcurrentHashMap<>();
+
+    JobRun(String jobName, Long lockToken) {
+        this.jobName = jobName;
+        this.lockToken = lockToken;
+    }
+
+    public static Optional<JobRun> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public void addItems(long count) {
+        itemsProcessed.addAndGet(count);
+    }
+
+    public void addFailures(long count) {
+        failures.addAndGet(count);
+    }
+
+    /** Starts timing a phase; elapsed time of repeated phases with the same name is summed. */
+    public Phase phase(String name) {
+        long start = System.nanoTime();
+        return () -> phaseNanos.computeIfAbsent(name, n -> new AtomicLong()).addAndGet(System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // ---------------- recorder side ----------------
+
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    void unbind() {
+        CURRENT.remove();
+    }
+
+    JobRunRecord finish(String node, String status, String error) {
+        long durationNanos = System.nanoTime() - startNanos;
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phaseNanos.forEach((name, nanos) -> phases.put(name, nanos.get() / 1_000_000));
+        return new JobRunRecord(id, jobName, node, lockToken, status, startedAt,
+                startedAt.plusNanos(durationNanos), durationNanos / 1_000_000,
+                itemsProcessed.get(), failures.get(), phases, error);
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+import com.github.dimitryivaniuta.scheduler.job.infrastructure.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Rotates the daily {@code job_runs} partitions: creates {@code partitionsAhead} days in advance and
+ * drops whole partitions past {@code retention}, so expiring history never needs a DELETE or vacuum.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobRunPartitionMaintenance {
+
+    private final JobRunRepository repository;
+    private final JobRunProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createAhead(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @Scheduled(cron = "${scheduler.job-runs.maintenance-cron:0 15 0 * * *}", zone = "UTC")
+    @SchedulerLock(name = "job-runs-partitions", lockAtMostFor = "PT10M")
+    public void rotate() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        createAhead(today);
+
+        String oldestKept = JobRunRepository.partitionName(today.minusDays(properties.retention().toDays()));
+        for (String partition : repository.listPartitions()) {
+            // yyyyMMdd suffixes sort chronologically
+            if (partition.startsWith(JobRunRepository.PARTITION_PREFIX) && partition.compareTo(oldestKept) < 0) {
+                repository.dropPartition(partition);
+                log.info("Dropped job run partition {}", partition);
+            }
+        }
+    }
+
+    private void createAhead(LocalDate today) {
+        for (int i = 0; i <= properties.partitionsAhead(); i++) {
+            repository.createPartition(today.plusDays(i));
+        }
+    }
+}
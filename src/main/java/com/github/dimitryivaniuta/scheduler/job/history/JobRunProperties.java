@@ -0,0 +1,25 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param node            recorded as the executing node (pod name on Kubernetes)
+ * @param queueCapacity   runs buffered in memory before new ones are dropped
+ * @param batchSize       rows per batched insert
+ * @param flushInterval   maximum delay before buffered runs are written
+ * @param retention       partitions older than this are dropped
+ * @param partitionsAhead daily partitions created in advance
+ */
+@ConfigurationProperties(prefix = "scheduler.job-runs")
+public record JobRunProperties(
+        @DefaultValue("local") String node,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("PT1S") Duration flushInterval,
+        @DefaultValue("P30D") Duration retention,
+        @DefaultValue("7") int partitionsAhead
+) {
+}
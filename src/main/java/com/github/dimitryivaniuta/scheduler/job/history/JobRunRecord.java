@@ -0,0 +1,27 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Finished run, as written to {@code job_runs}.
+ */
+public record JobRunRecord(
+        UUID id,
+        String jobName,
+        String node,
+        Long lockToken,
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        long durationMs,
+        long itemsProcessed,
+        long failures,
+        Map<String, Long> phases,   // phase -> ms
+        String error
+) {
+
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+}
@@ -0,0 +1,140 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+import com.github.dimitryivaniuta.scheduler.job.infrastructure.repository.JobRunRepository;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks job executions and writes them to {@code job_runs} asynchronously.
+ * <p>
+ * Finishing a run only offers it to a bounded in-memory queue; a background thread drains the queue and
+ * writes batched inserts, so history never adds latency to (or fails) the job. When the queue is full the
+ * run is dropped and counted in {@code job.runs.dropped}.
+ */
+@Slf4j
+@Component
+public class JobRunRecorder implements SmartLifecycle {
+
+    private final JobRunRepository repository;
+    private final JobRunProperties properties;
+    private final BlockingQueue<JobRunRecord> queue;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public JobRunRecorder(JobRunRepository repository, JobRunProperties properties, MeterRegistry registry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.dropped = Counter.builder("job.runs.dropped")
+                .description("Job runs not recorded because the history queue was full")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the task as a tracked execution of {@code jobName}. Call it inside the job lock so the
+     * fencing token is recorded; the task can reach the run through {@link JobRun#current()}.
+     */
+    public void run(String jobName, Task task) throws Exception {
+        JobRun run = new JobRun(jobName, LockContext.current().map(ActiveLock::fencingToken).orElse(null));
+        run.bind();
+        try {
+            task.run();
+            submit(run.finish(properties.node(), JobRunRecord.SUCCEEDED, null));
+        } catch (Exception | Error e) {
+            submit(run.finish(properties.node(), JobRunRecord.FAILED, abbreviate(String.valueOf(e))));
+            throw e;
+        } finally {
+            run.unbind();
+        }
+    }
+
+    private void submit(JobRunRecord record) {
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= 1000 ? s : s.substring(0, 1000);
+    }
+
+    // ---------------- flusher ----------------
+
+    private void flushLoop() {
+        List<JobRunRecord> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                JobRunRecord first = queue.poll(properties.flushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait; drain what is left and exit
+                queue.drainTo(batch);
+                write(batch);
+                return;
+            }
+        }
+    }
+
+    private void write(List<JobRunRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            repository.insert(batch);
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.warn("Failed to record {} job runs", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    // ---------------- lifecycle ----------------
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("job-runs-writer").daemon().start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(properties.flushInterval().toMillis() * 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
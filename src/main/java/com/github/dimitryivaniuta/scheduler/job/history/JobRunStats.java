@@ -0,0 +1,16 @@
+package com.github.dimitryivaniuta.scheduler.job.history;
+
+/**
+ * Aggregates over the runs of one job in a time window; durations in ms, percentiles are continuous.
+ */
+public record JobRunStats(
+        long runs,
+        long failed,
+        long itemsProcessed,
+        double avgDurationMs,
+        long maxDurationMs,
+        double p50DurationMs,
+        double p95DurationMs,
+        double p99DurationMs
+) {
+}
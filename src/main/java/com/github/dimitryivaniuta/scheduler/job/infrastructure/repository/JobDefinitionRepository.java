@@ -0,0 +1,19 @@
+package com.github.dimitryivaniuta.scheduler.job.infrastructure.repository;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.JobDefinition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JobDefinitionRepository extends JpaRepository<JobDefinition, UUID> {
+
+    List<JobDefinition> findAllByEnabledTrue();
+
+    Optional<JobDefinition> findByName(String name);
+
+    Page<JobDefinition> findAllByOwner(String owner, Pageable pageable);
+}
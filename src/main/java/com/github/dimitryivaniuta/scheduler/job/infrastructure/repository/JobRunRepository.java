@@ -0,0 +1,181 @@
+package com.github.dimitryivaniuta.scheduler.job.infrastructure.repository;
+
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunRecord;
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the daily-partitioned {@code job_runs} table (see {@code V4__job_runs.sql}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobRunRepository {
+
+    public static final String PARTITION_PREFIX = "job_runs_p";
+
+    private static final String INSERT = """
+            INSERT INTO job_runs (id, job_name, node, lock_token, status, started_at, finished_at,
+                                  duration_ms, items_processed, failures, phases, error)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?)
+            """;
+
+    private static final String SELECT_RUNS = """
+            SELECT id, job_name, node, lock_token, status, started_at, finished_at,
+                   duration_ms, items_processed, failures, error,
+                   (SELECT array_agg(key ORDER BY key) FROM jsonb_each_text(phases))              AS phase_names,
+                   (SELECT array_agg(value::bigint ORDER BY key) FROM jsonb_each_text(phases))    AS phase_ms
+            FROM job_runs
+            WHERE job_name = ? AND started_at >= ? AND started_at < ?
+            ORDER BY started_at DESC
+            LIMIT ?
+            """;
+
+    private static final String SELECT_STATS = """
+            SELECT count(*)                                                     AS runs,
+                   count(*) FILTER (WHERE status = 'FAILED')                    AS failed,
+                   coalesce(sum(items_processed), 0)                            AS items,
+                   coalesce(avg(duration_ms), 0)                                AS avg_ms,
+                   coalesce(max(duration_ms), 0)                                AS max_ms,
+                   percentile_cont(0.50) WITHIN GROUP (ORDER BY duration_ms)    AS p50,
+                   percentile_cont(0.95) WITHIN GROUP (ORDER BY duration_ms)    AS p95,
+                   percentile_cont(0.99) WITHIN GROUP (ORDER BY duration_ms)    AS p99
+            FROM job_runs
+            WHERE job_name = ? AND started_at >= ? AND started_at < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ---------------- writes ----------------
+
+    public void insert(List<JobRunRecord> runs) {
+        jdbcTemplate.batchUpdate(INSERT, runs, runs.size(), (ps, r) -> {
+            ps.setObject(1, r.id());
+            ps.setString(2, r.jobName());
+            ps.setString(3, r.node());
+            if (r.lockToken() != null) {
+                ps.setLong(4, r.lockToken());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, r.status());
+            ps.setTimestamp(6, Timestamp.from(r.startedAt()));
+            ps.setTimestamp(7, Timestamp.from(r.finishedAt()));
+            ps.setLong(8, r.durationMs());
+            ps.setLong(9, r.itemsProcessed());
+            ps.setLong(10, r.failures());
+            ps.setString(11, toJson(r.phases()));
+            ps.setString(12, r.error());
+        });
+    }
+
+    // ---------------- reads ----------------
+
+    public List<JobRunRecord> findRuns(String jobName, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(SELECT_RUNS, this::mapRun,
+                jobName, Timestamp.from(from), Timestamp.from(to), limit);
+    }
+
+    public JobRunStats stats(String jobName, Instant from, Instant to) {
+        return jdbcTemplate.queryForObject(SELECT_STATS, (rs, i) -> new JobRunStats(
+                rs.getLong("runs"),
+                rs.getLong("failed"),
+                rs.getLong("items"),
+                rs.getDouble("avg_ms"),
+                rs.getLong("max_ms"),
+                rs.getDouble("p50"),
+                rs.getDouble("p95"),
+                rs.getDouble("p99")
+        ), jobName, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    // ---------------- partitions ----------------
+
+    /** Creates the partition holding {@code [day, day + 1)} UTC, if missing. */
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF job_runs FOR VALUES FROM ('" + day.atStartOfDay(ZoneOffset.UTC).toInstant()
+                + "') TO ('" + day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant() + "')");
+    }
+
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                         JOIN pg_class c ON c.oid = i.inhrelid
+                         JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'job_runs'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    /** {@code name} must come from {@link #listPartitions()}. */
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.toString().replace("-", "");
+    }
+
+    // ---------------- mapping ----------------
+
+    private JobRunRecord mapRun(ResultSet rs, int rowNum) throws SQLException {
+        return new JobRunRecord(
+                rs.getObject("id", UUID.class),
+                rs.getString("job_name"),
+                rs.getString("node"),
+                rs.getObject("lock_token", Long.class),
+                rs.getString("status"),
+                rs.getTimestamp("started_at").toInstant(),
+                rs.getTimestamp("finished_at").toInstant(),
+                rs.getLong("duration_ms"),
+                rs.getLong("items_processed"),
+                rs.getLong("failures"),
+                phases(rs.getArray("phase_names"), rs.getArray("phase_ms")),
+                rs.getString("error")
+        );
+    }
+
+    private static Map<String, Long> phases(Array names, Array millis) throws SQLException {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        if (names == null || millis == null) {
+            return phases;
+        }
+        String[] n = (String[]) names.getArray();
+        Long[] ms = (Long[]) millis.getArray();
+        for (int i = 0; i < n.length; i++) {
+            phases.put(n[i], ms[i]);
+        }
+        return phases;
+    }
+
+    /** phase names are code constants; only quotes and backslashes need escaping */
+    private static String toJson(Map<String, Long> phases) {
+        if (phases == null || phases.isEmpty()) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder("{");
+        phases.forEach((name, ms) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(name.replace("\\", "\\\\").replace("\"", "\\\"")).append("\":").append(ms);
+        });
+        return json.append('}').toString();
+    }
+}
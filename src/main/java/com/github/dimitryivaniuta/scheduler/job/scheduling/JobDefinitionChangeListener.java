@@ -0,0 +1,124 @@
+package com.github.dimitryivaniuta.scheduler.job.scheduling;
+
+import com.github.dimitryivaniuta.scheduler.job.JobSchedulingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link JobScheduleQueue} in sync with {@code job_definitions} via Postgres {@code LISTEN/NOTIFY}
+ * (see the trigger in {@code V3__job_definitions.sql}); the table is never polled.
+ * <p>
+ * Holds one dedicated pool connection. Notifications sent while disconnected are lost, so every
+ * reconnect is followed by a full reload.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobDefinitionChangeListener implements SmartLifecycle {
+
+    static final String CHANNEL = "job_definitions";
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSource dataSource;
+    private final JobScheduleQueue queue;
+    private final JobSchedulingProperties properties;
+
+    private final CountDownLatch listening = new CountDownLatch(1);
+    private volatile boolean running;
+    private Thread thread;
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                if (reconnect) {
+                    queue.reloadAll();
+                }
+                listening.countDown();
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        queue.refresh(UUID.fromString(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Job definition listener disconnected, retrying in {} ms", RECONNECT_DELAY_MS, e);
+                reconnect = true;
+                sleep();
+            }
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------- lifecycle ----------------
+
+    /** Starts before the queue loads, and waits briefly for LISTEN so no change slips between the two. */
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("job-definitions-listener").daemon().start(this::listen);
+        try {
+            if (!listening.await(10, TimeUnit.SECONDS)) {
+                log.warn("Job definition listener not ready yet, starting schedule anyway");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.enabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return JobScheduleQueue.PHASE - 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.dimitryivaniuta.scheduler.job.scheduling;
+
+import com.github.dimitryivaniuta.scheduler.job.JobSchedulingProperties;
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunRecorder;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs fired jobs on virtual threads, each under a ShedLock lock so that only one replica executes a fire.
+ * <p>
+ * {@link ConcurrencyPolicy#FORBID} jobs share the lock {@code job:<name>}; {@link ConcurrencyPolicy#ALLOW}
+ * jobs lock {@code job:<name>:<fireEpochMillis>}, which dedupes replicas without blocking overlapping runs.
+ * A handler with its own {@link JobHandler#lockName()} runs all its jobs under that lock, like {@code FORBID}.
+ */
+@Slf4j
+@Component
+public class JobDispatcher implements AutoCloseable {
+
+    private final LockingTaskExecutor lockingExecutor;
+    private final JobSchedulingProperties properties;
+    private final JobRunRecorder jobRunRecorder;
+    private final Map<String, JobHandler> handlers;
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("job-worker-", 0).factory());
+
+    public JobDispatcher(LockProvider lockProvider,
+                         JobSchedulingProperties properties,
+                         JobRunRecorder jobRunRecorder,
+                         List<JobHandler> handlers) {
+        this.lockingExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        this.properties = properties;
+        this.jobRunRecorder = jobRunRecorder;
+        this.handlers = handlers.stream().collect(Collectors.toUnmodifiableMap(JobHandler::name, Function.identity()));
+    }
+
+    public boolean hasHandler(String name) {
+        return handlers.containsKey(name);
+    }
+
+    /** @return the lock all jobs of the handler share, or null if each job has its own */
+    public String sharedLockName(String handler) {
+        JobHandler h = handlers.get(handler);
+        return h != null ? h.lockName() : null;
+    }
+
+    /**
+     * @param fireTime     scheduled instant of this fire (identical on all replicas)
+     * @param nextFireTime following fire, used to cap the minimum lock hold; null if none
+     */
+    public void dispatch(ScheduledJob job, Instant fireTime, Instant nextFireTime) {
+        workers.execute(() -> run(job, fireTime, nextFireTime));
+    }
+
+    private void run(ScheduledJob job, Instant fireTime, Instant nextFireTime) {
+        JobHandler handler = handlers.get(job.handler());
+        if (handler == null) {
+            log.warn("Job {} skipped: unknown handler {}", job.name(), job.handler());
+            return;
+        }
+
+        LockConfiguration lockConfiguration = lockConfiguration(job, handler.lockName(), fireTime, nextFireTime);
+
+        try {
+            lockingExecutor.executeWithLock((LockingTaskExecutor.Task) () ->
+                            jobRunRecorder.run(job.name(), () -> handler.execute(job, job.payload())),
+                    lockConfiguration);
+        } catch (Throwable e) {
+            log.error("Job {} fired at {} failed", job.name(), fireTime, e);
+        }
+    }
+
+    private LockConfiguration lockConfiguration(ScheduledJob job, String sharedLock,
+                                                Instant fireTime, Instant nextFireTime) {
+        if (sharedLock != null) {
+            return new LockConfiguration(Instant.now(), sharedLock,
+                    job.lockAtMostFor(), minimumHold(fireTime, nextFireTime, job.lockAtMostFor()));
+        }
+        return switch (job.concurrencyPolicy()) {
+            case FORBID -> new LockConfiguration(Instant.now(), "job:" + job.name(),
+                    job.lockAtMostFor(), minimumHold(fireTime, nextFireTime, job.lockAtMostFor()));
+            // per-fire lock: holding it for the full lockAtMostFor only keeps late replicas from re-running this fire
+            case ALLOW -> new LockConfiguration(Instant.now(), "job:" + job.name() + ":" + fireTime.toEpochMilli(),
+                    job.lockAtMostFor(), job.lockAtMostFor());
+        };
+    }
+
+    private Duration minimumHold(Instant fireTime, Instant nextFireTime, Duration lockAtMostFor) {
+        Duration hold = properties.lockAtLeastFor();
+        if (nextFireTime != null) {
+            Duration halfPeriod = Duration.between(fireTime, nextFireTime).dividedBy(2);
+            hold = hold.compareTo(halfPeriod) < 0 ? hold : halfPeriod;
+        }
+        return hold.compareTo(lockAtMostFor) < 0 ? hold : lockAtMostFor;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.dimitryivaniuta.scheduler.job.scheduling;
+
+import java.util.Map;
+
+/**
+ * Executes dynamic jobs whose {@code handler} equals {@link #name()}.
+ * <p>
+ * Called on a virtual thread while the job lock is held, so {@code LockContext} is available.
+ */
+public interface JobHandler {
+
+    String name();
+
+    void execute(ScheduledJob job, Map<String, Object> payload) throws Exception;
+
+    /**
+     * Lock to run every job of this handler under, instead of the job's own; for handlers whose work is shared
+     * with a static job or with each other (e.g. resumable runs keyed by the lock name). Such jobs can not use
+     * {@code ALLOW}. Null: the job's own lock.
+     */
+    default String lockName() {
+        return null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.dimitryivaniuta.scheduler.job.scheduling;
+
+import com.github.dimitryivaniuta.scheduler.job.JobSchedulingProperties;
+import com.github.dimitryivaniuta.scheduler.job.domain.JobDefinition;
+import com.github.dimitryivaniuta.scheduler.job.infrastructure.repository.JobDefinitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory next-fire-time queue of all enabled {@link JobDefinition}s, driven by a single timer thread.
+ * <p>
+ * The heap is loaded once on start and then maintained incrementally through {@link #refresh(UUID)}
+ * (called by {@link JobDefinitionChangeListener}). Replaced or removed entries are not searched for in the
+ * heap; they are dropped lazily when they reach its head, so every change is O(log n).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobScheduleQueue implements SmartLifecycle {
+
+    static final int PHASE = DEFAULT_PHASE - 1024;
+
+    private final JobDefinitionRepository repository;
+    private final JobDispatcher dispatcher;
+    private final JobSchedulingProperties properties;
+    private final Clock clock = Clock.systemUTC();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.comparing(Entry::fireAt));
+    /** id -> live entry; heap entries not referenced here are stale */
+    private final Map<UUID, Entry> live = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread timer;
+
+    // ---------------- maintenance ----------------
+
+    /** Replaces the whole schedule with the enabled definitions currently in the table. */
+    public void reloadAll() {
+        List<JobDefinition> definitions = repository.findAllByEnabledTrue();
+        Instant now = clock.instant();
+
+        lock.lock();
+        try {
+            heap.clear();
+            live.clear();
+            for (JobDefinition definition : definitions) {
+                enqueue(toScheduledJob(definition), now);
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Job schedule loaded: {} jobs", definitions.size());
+    }
+
+    /** Re-reads one definition after a change notification; disabled or deleted jobs are unscheduled. */
+    public void refresh(UUID id) {
+        ScheduledJob job = repository.findById(id)
+                .filter(JobDefinition::isEnabled)
+                .map(this::toScheduledJob)
+                .orElse(null);
+
+        lock.lock();
+        try {
+            live.remove(id);
+            if (job != null) {
+                enqueue(job, clock.instant());
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return live.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ScheduledJob toScheduledJob(JobDefinition definition) {
+        try {
+            return ScheduledJob.from(definition);
+        } catch (RuntimeException e) {
+            log.warn("Job {} has an invalid schedule and is ignored", definition.getName(), e);
+            return null;
+        }
+    }
+
+    /** caller holds {@link #lock} */
+    private void enqueue(ScheduledJob job, Instant after) {
+        if (job == null) {
+            return;
+        }
+        Instant fireAt = job.nextFireAfter(after);
+        if (fireAt == null) {
+            live.remove(job.id());
+            return;
+        }
+        Entry entry = new Entry(job, fireAt);
+        live.put(job.id(), entry);
+        heap.add(entry);
+    }
+
+    // ---------------- timer ----------------
+
+    private void loop() {
+        while (running) {
+            Entry due;
+            Instant nextFireAt;
+            lock.lock();
+            try {
+                Entry head = heap.peek();
+                while (head != null && live.get(head.job().id()) != head) {
+                    heap.poll();
+                    head = heap.peek();
+                }
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+                Instant now = clock.instant();
+                long waitNanos = Duration.between(now, head.fireAt()).toNanos();
+                if (waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+                due = heap.poll();
+                // fires missed while the timer lagged behind are skipped, not replayed
+                enqueue(due.job(), now);
+                Entry next = live.get(due.job().id());
+                nextFireAt = next != null ? next.fireAt() : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            dispatcher.dispatch(due.job(), due.fireAt(), nextFireAt);
+        }
+    }
+
+    // ---------------- lifecycle ----------------
+
+    @Override
+    public void start() {
+        reloadAll();
+        running = true;
+        timer = Thread.ofPlatform().name("job-timer").daemon().start(this::loop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.enabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private record Entry(ScheduledJob job, Instant fireAt) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.dimitryivaniuta.scheduler.job.scheduling;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import com.github.dimitryivaniuta.scheduler.job.domain.JobDefinition;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a {@link JobDefinition} with its schedule pre-parsed, held in the in-memory queue.
+ */
+public record ScheduledJob(
+        UUID id,
+        String name,
+        String handler,
+        CronExpression cron,
+        Duration interval,
+        ZoneId zone,
+        Map<String, Object> payload,
+        ConcurrencyPolicy concurrencyPolicy,
+        Duration lockAtMostFor
+) {
+
+    public static ScheduledJob from(JobDefinition d) {
+        return new ScheduledJob(
+                d.getId(),
+                d.getName(),
+                d.getHandler(),
+                d.getCron() != null ? CronExpression.parse(d.getCron()) : null,
+                d.getIntervalMs() != null ? Duration.ofMillis(d.getIntervalMs()) : null,
+                d.getTimeZone() != null ? ZoneId.of(d.getTimeZone()) : ZoneOffset.UTC,
+                d.getPayload() != null ? Collections.unmodifiableMap(new LinkedHashMap<>(d.getPayload())) : Map.of(),
+                d.getConcurrencyPolicy(),
+                Duration.ofMillis(d.getLockAtMostForMs())
+        );
+    }
+
+    /**
+     * Next fire time strictly after {@code after}, or null if the cron never fires again.
+     * Intervals are aligned to the epoch so that every replica computes the same fire instants.
+     */
+    public Instant nextFireAfter(Instant after) {
+        if (cron != null) {
+            ZonedDateTime next = cron.next(after.atZone(zone));
+            return next != null ? next.toInstant() : null;
+        }
+        long period = interval.toMillis();
+        long next = Math.floorDiv(after.toEpochMilli(), period) * period + period;
+        return Instant.ofEpochMilli(next);
+    }
+}
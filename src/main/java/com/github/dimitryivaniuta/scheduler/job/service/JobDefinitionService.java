@@ -0,0 +1,93 @@
+package com.github.dimitryivaniuta.scheduler.job.service;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import com.github.dimitryivaniuta.scheduler.job.domain.JobDefinition;
+import com.github.dimitryivaniuta.scheduler.job.infrastructure.repository.JobDefinitionRepository;
+import com.github.dimitryivaniuta.scheduler.job.scheduling.JobDispatcher;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * CRUD for dynamic jobs. The schedule itself is updated on every replica by the
+ * {@code job_definitions} trigger notification once the transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class JobDefinitionService {
+
+    private final JobDefinitionRepository repository;
+    private final JobDispatcher dispatcher;
+
+    public JobDefinition create(JobDefinition toCreate) {
+        validate(toCreate);
+        return repository.save(toCreate);
+    }
+
+    @Transactional(readOnly = true)
+    public JobDefinition get(UUID id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Job definition not found: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<JobDefinition> list(String owner, Pageable pageable) {
+        return owner != null ? repository.findAllByOwner(owner, pageable) : repository.findAll(pageable);
+    }
+
+    public JobDefinition update(UUID id, JobDefinition changes) {
+        JobDefinition existing = get(id);
+        validate(changes);
+
+        existing.setName(changes.getName());
+        existing.setHandler(changes.getHandler());
+        existing.setCron(changes.getCron());
+        existing.setIntervalMs(changes.getIntervalMs());
+        existing.setTimeZone(changes.getTimeZone());
+        existing.setPayload(changes.getPayload());
+        existing.setOwner(changes.getOwner());
+        existing.setConcurrencyPolicy(changes.getConcurrencyPolicy());
+        existing.setLockAtMostForMs(changes.getLockAtMostForMs());
+        existing.setEnabled(changes.isEnabled());
+
+        // entity is managed; changes are flushed on transaction commit
+        return existing;
+    }
+
+    public void delete(UUID id) {
+        if (!repository.existsById(id)) {
+            return; // idempotent delete
+        }
+        repository.deleteById(id);
+    }
+
+    // ---------- helpers ----------
+
+    private void validate(JobDefinition d) {
+        if ((d.getCron() == null) == (d.getIntervalMs() == null)) {
+            throw new IllegalArgumentException("Exactly one of cron and intervalMs must be set");
+        }
+        if (d.getCron() != null && !CronExpression.isValidExpression(d.getCron())) {
+            throw new IllegalArgumentException("Invalid cron expression: " + d.getCron());
+        }
+        if (d.getTimeZone() != null) {
+            ZoneId.of(d.getTimeZone()); // throws DateTimeException for unknown zones
+        }
+        if (!dispatcher.hasHandler(d.getHandler())) {
+            throw new IllegalArgumentException("Unknown job handler: " + d.getHandler());
+        }
+        String sharedLock = dispatcher.sharedLockName(d.getHandler());
+        if (sharedLock != null && d.getConcurrencyPolicy() == ConcurrencyPolicy.ALLOW) {
+            throw new IllegalArgumentException("Handler " + d.getHandler() + " runs under the shared lock "
+                    + sharedLock + " and can not use ALLOW");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.dimitryivaniuta.scheduler.job.web;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import com.github.dimitryivaniuta.scheduler.job.domain.JobDefinition;
+import com.github.dimitryivaniuta.scheduler.job.service.JobDefinitionService;
+import com.github.dimitryivaniuta.scheduler.job.web.dto.JobDefinitionDto;
+import com.github.dimitryivaniuta.scheduler.job.web.dto.JobDefinitionRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobDefinitionController {
+
+    private static final long DEFAULT_LOCK_AT_MOST_FOR_MS = Duration.ofMinutes(10).toMillis();
+
+    private final JobDefinitionService jobDefinitionService;
+
+    @GetMapping
+    public Page<JobDefinitionDto> list(@RequestParam(required = false) String owner, Pageable pageable) {
+        return jobDefinitionService.list(owner, pageable).map(this::toDto);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public JobDefinitionDto create(@RequestBody @Valid JobDefinitionRequest request) {
+        return toDto(jobDefinitionService.create(fromRequest(request)));
+    }
+
+    @GetMapping("/{id}")
+    public JobDefinitionDto get(@PathVariable UUID id) {
+        return toDto(jobDefinitionService.get(id));
+    }
+
+    @PutMapping("/{id}")
+    public JobDefinitionDto update(@PathVariable UUID id, @RequestBody @Valid JobDefinitionRequest request) {
+        return toDto(jobDefinitionService.update(id, fromRequest(request)));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable UUID id) {
+        jobDefinitionService.delete(id);
+    }
+
+    // ---------------- Mapping helpers ----------------
+
+    private JobDefinition fromRequest(JobDefinitionRequest r) {
+        return JobDefinition.builder()
+                .name(r.name())
+                .handler(r.handler())
+                .cron(r.cron())
+                .intervalMs(r.intervalMs())
+                .timeZone(r.timeZone())
+                .payload(r.payload())
+                .owner(r.owner())
+                .concurrencyPolicy(r.concurrencyPolicy() != null ? r.concurrencyPolicy() : ConcurrencyPolicy.FORBID)
+                .lockAtMostForMs(r.lockAtMostForMs() != null ? r.lockAtMostForMs() : DEFAULT_LOCK_AT_MOST_FOR_MS)
+                .enabled(r.enabled() == null || r.enabled())
+                .build();
+    }
+
+    private JobDefinitionDto toDto(JobDefinition d) {
+        return JobDefinitionDto.builder()
+                .id(d.getId())
+                .name(d.getName())
+                .handler(d.getHandler())
+                .cron(d.getCron())
+                .intervalMs(d.getIntervalMs())
+                .timeZone(d.getTimeZone())
+                .payload(d.getPayload())
+                .owner(d.getOwner())
+                .concurrencyPolicy(d.getConcurrencyPolicy())
+                .lockAtMostForMs(d.getLockAtMostForMs())
+                .enabled(d.isEnabled())
+                .createdAt(d.getCreatedAt())
+                .updatedAt(d.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.dimitryivaniuta.scheduler.job.web;
+
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunRecord;
+import com.github.dimitryivaniuta.scheduler.job.infrastructure.repository.JobRunRepository;
+import com.github.dimitryivaniuta.scheduler.job.web.dto.JobRunDto;
+import com.github.dimitryivaniuta.scheduler.job.web.dto.JobRunHistoryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/jobs/{name}/runs")
+@RequiredArgsConstructor
+public class JobRunController {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(1);
+    private static final int MAX_LIMIT = 1000;
+
+    private final JobRunRepository jobRunRepository;
+
+    /**
+     * Percentile aggregates and latest runs of a job ({@code name} is the job / lock name, e.g. "mailings").
+     * The window defaults to the last 24h; {@code started_at} bounds let Postgres prune to the daily partitions.
+     */
+    @GetMapping
+    public JobRunHistoryDto history(@PathVariable String name,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        int size = Math.clamp(limit, 0, MAX_LIMIT);
+
+        return JobRunHistoryDto.builder()
+                .jobName(name)
+                .from(start)
+                .to(end)
+                .stats(jobRunRepository.stats(name, start, end))
+                .runs(jobRunRepository.findRuns(name, start, end, size).stream().map(this::toDto).toList())
+                .build();
+    }
+
+    private JobRunDto toDto(JobRunRecord r) {
+        return JobRunDto.builder()
+                .id(r.id())
+                .node(r.node())
+                .lockToken(r.lockToken())
+                .status(r.status())
+                .startedAt(r.startedAt())
+                .finishedAt(r.finishedAt())
+                .durationMs(r.durationMs())
+                .itemsProcessed(r.itemsProcessed())
+                .failures(r.failures())
+                .phasesMs(r.phases())
+                .error(r.error())
+                .build();
+    }
+}
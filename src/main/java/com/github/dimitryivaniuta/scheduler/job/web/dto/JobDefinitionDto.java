@@ -0,0 +1,26 @@
+package com.github.dimitryivaniuta.scheduler.job.web.dto;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Builder
+public record JobDefinitionDto(
+        UUID id,
+        String name,
+        String handler,
+        String cron,
+        Long intervalMs,
+        String timeZone,
+        Map<String, Object> payload,
+        String owner,
+        ConcurrencyPolicy concurrencyPolicy,
+        long lockAtMostForMs,
+        boolean enabled,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.github.dimitryivaniuta.scheduler.job.web.dto;
+
+import com.github.dimitryivaniuta.scheduler.job.domain.ConcurrencyPolicy;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+
+import java.util.Map;
+
+/**
+ * Create / full-replace body; exactly one of {@code cron} and {@code intervalMs} must be set.
+ */
+@Builder
+public record JobDefinitionRequest(
+        @NotBlank String name,
+        @NotBlank String handler,
+        String cron,
+        @Positive Long intervalMs,
+        String timeZone,
+        Map<String, Object> payload,
+        String owner,
+        ConcurrencyPolicy concurrencyPolicy,   // FORBID if null
+        @Positive Long lockAtMostForMs,        // 10 minutes if null
+        Boolean enabled                        // true if null
+) {
+}
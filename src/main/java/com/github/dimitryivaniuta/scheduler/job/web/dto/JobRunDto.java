@@ -0,0 +1,23 @@
+package com.github.dimitryivaniuta.scheduler.job.web.dto;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Builder
+public record JobRunDto(
+        UUID id,
+        String node,
+        Long lockToken,
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        long durationMs,
+        long itemsProcessed,
+        long failures,
+        Map<String, Long> phasesMs,
+        String error
+) {
+}
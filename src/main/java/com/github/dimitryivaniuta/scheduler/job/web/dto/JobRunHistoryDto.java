@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.scheduler.job.web.dto;
+
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunStats;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Runs of one job in {@code [from, to)}: aggregates over the whole window plus the latest {@code runs}.
+ */
+@Builder
+public record JobRunHistoryDto(
+        String jobName,
+        Instant from,
+        Instant to,
+        JobRunStats stats,
+        List<JobRunDto> runs
+) {
+}
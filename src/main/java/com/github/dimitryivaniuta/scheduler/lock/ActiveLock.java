@@ -0,0 +1,114 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock held by the current node, as seen by the job running under it.
+ * <p>
+ * Carries the fencing token issued on acquisition and accepts progress heartbeats;
+ * {@link KeepAliveLockProvider} keeps extending the underlying lock only while heartbeats arrive.
+ * Guarded by a {@link ReentrantLock} rather than {@code synchronized}: extend/unlock do Redis I/O and are
+ * called from virtual threads, which would otherwise pin their carrier.
+ */
+public final class ActiveLock {
+
+    private final String name;
+    private final long fencingToken;
+    private final Duration lockAtMostFor;
+    private final Instant lockAtLeastUntil;
+
+    private final ReentrantLock mutex = new ReentrantLock();
+    private SimpleLock lock;
+    private ScheduledFuture<?> renewal;
+    private volatile long lastHeartbeatNanos;
+    private volatile boolean lost;
+
+    ActiveLock(String name, long fencingToken, Duration lockAtMostFor, Instant lockAtLeastUntil, SimpleLock lock) {
+        this.name = name;
+        this.fencingToken = fencingToken;
+        this.lockAtMostFor = lockAtMostFor;
+        this.lockAtLeastUntil = lockAtLeastUntil;
+        this.lock = lock;
+        this.lastHeartbeatNanos = System.nanoTime();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Monotonically increasing per lock name; pass it to {@link FencedWriteGuard} before writing. */
+    public long fencingToken() {
+        return fencingToken;
+    }
+
+    /** Signals that the job is making progress, so the lock is worth renewing. */
+    public void heartbeat() {
+        this.lastHeartbeatNanos = System.nanoTime();
+    }
+
+    /** True once a renewal failed; the lock may already belong to another node. */
+    public boolean isLost() {
+        return lost;
+    }
+
+    Duration sinceLastHeartbeat() {
+        return Duration.ofNanos(System.nanoTime() - lastHeartbeatNanos);
+    }
+
+    void renewal(ScheduledFuture<?> renewal) {
+        mutex.lock();
+        try {
+            this.renewal = renewal;
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /** Keep-alive renewal: a full {@code lockAtMostFor} from now, preserving the original {@code lockAtLeastFor}. */
+    boolean renew() {
+        Duration remainingAtLeast = Duration.between(Instant.now(), lockAtLeastUntil);
+        return extend(lockAtMostFor, remainingAtLeast.isNegative() ? Duration.ZERO : remainingAtLeast);
+    }
+
+    /** Returns false (and marks the lock lost) if the underlying lock could not be extended. */
+    boolean extend(Duration atMostFor, Duration atLeastFor) {
+        mutex.lock();
+        try {
+            if (lock == null || lost) {
+                return false;
+            }
+            Optional<SimpleLock> extended = lock.extend(atMostFor, atLeastFor);
+            if (extended.isEmpty()) {
+                lost = true;
+                return false;
+            }
+            lock = extended.get();
+            return true;
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    void release() {
+        mutex.lock();
+        try {
+            if (renewal != null) {
+                renewal.cancel(false);
+                renewal = null;
+            }
+            if (lock != null) {
+                SimpleLock current = lock;
+                lock = null;
+                current.unlock();
+            }
+        } finally {
+            mutex.unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Storage-side fencing check backed by {@code lock_fencing_tokens}.
+ * <p>
+ * {@link #check(String, long)} must run inside the transaction that performs the guarded writes:
+ * it records the token as the newest one and keeps the row locked until commit, so a stale holder
+ * either waits behind the newer holder and then fails, or commits before the newer holder starts.
+ */
+@Component
+@RequiredArgsConstructor
+public class FencedWriteGuard {
+
+    private static final String UPSERT = """
+            INSERT INTO lock_fencing_tokens (lock_name, token, updated_at)
+            VALUES (?, ?, now())
+            ON CONFLICT (lock_name) DO UPDATE
+                SET token = EXCLUDED.token, updated_at = now()
+                WHERE lock_fencing_tokens.token <= EXCLUDED.token
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void check(String lockName, long token) {
+        int updated = jdbcTemplate.update(UPSERT, lockName, token);
+        if (updated == 0) {
+            throw new StaleFencingTokenException(lockName, token);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void check(ActiveLock lock) {
+        check(lock.name(), lock.fencingToken());
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues monotonically increasing fencing tokens per lock name ({@code INCR} on a Redis counter).
+ */
+@Component
+@RequiredArgsConstructor
+public class FencingTokens {
+
+    static final String KEY_PREFIX = "job-scheduler:fence:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public long next(String lockName) {
+        Long token = redisTemplate.opsForValue().increment(KEY_PREFIX + lockName);
+        if (token == null) {
+            throw new IllegalStateException("Redis returned no fencing token for lock " + lockName);
+        }
+        return token;
+    }
+}
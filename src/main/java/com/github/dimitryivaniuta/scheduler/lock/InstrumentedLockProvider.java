@@ -0,0 +1,202 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockProvider} decorator publishing Micrometer metrics per lock name.
+ * <p>
+ * Meters (all tagged with {@code lock}):
+ * <ul>
+ *     <li>{@code shedlock.acquisition} – timer of acquisition attempts, tagged {@code outcome=acquired|busy|error}</li>
+ *     <li>{@code shedlock.held} – timer of how long this node held the lock</li>
+ *     <li>{@code shedlock.held.ratio} – held time divided by {@code lockAtMostFor}; values above 1 are overruns</li>
+ *     <li>{@code shedlock.overrun} – counter of executions that outlived {@code lockAtMostFor}</li>
+ *     <li>{@code shedlock.held.age} – gauge, seconds since this node acquired the lock it currently holds (0 if none)</li>
+ *     <li>{@code shedlock.lock.at.most.for} – gauge, configured {@code lockAtMostFor} in seconds, for alert thresholds</li>
+ * </ul>
+ */
+public class InstrumentedLockProvider implements LockProvider {
+
+    static final String OUTCOME_ACQUIRED = "acquired";
+    static final String OUTCOME_BUSY = "busy";
+    static final String OUTCOME_ERROR = "error";
+
+    private final LockProvider delegate;
+    private final MeterRegistry registry;
+
+    /** per lock name: state of the lock currently held by this node, backing the gauges */
+    private final ConcurrentMap<String, HeldLockState> states = new ConcurrentHashMap<>();
+
+    public InstrumentedLockProvider(LockProvider delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration configuration) {
+        String name = configuration.getName();
+        HeldLockState state = stateFor(name);
+
+        long start = System.nanoTime();
+        Optional<SimpleLock> lock;
+        try {
+            lock = delegate.lock(configuration);
+        } catch (RuntimeException e) {
+            acquisitionTimer(name, OUTCOME_ERROR).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long acquiredAt = System.nanoTime();
+        acquisitionTimer(name, lock.isPresent() ? OUTCOME_ACQUIRED : OUTCOME_BUSY)
+                .record(acquiredAt - start, TimeUnit.NANOSECONDS);
+
+        if (lock.isEmpty()) {
+            return lock;
+        }
+        state.acquired(acquiredAt, configuration.getLockAtMostFor());
+        return Optional.of(new InstrumentedLock(lock.get(), name, acquiredAt, configuration.getLockAtMostFor()));
+    }
+
+    // ---------------- meters ----------------
+
+    private Timer acquisitionTimer(String name, String outcome) {
+        return Timer.builder("shedlock.acquisition")
+                .description("Time spent acquiring a ShedLock lock")
+                .tag("lock", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private HeldLockState stateFor(String name) {
+        return states.computeIfAbsent(name, n -> {
+            HeldLockState state = new HeldLockState();
+            Gauge.builder("shedlock.held.age", state, HeldLockState::ageSeconds)
+                    .description("Seconds since this node acquired the currently held lock (0 if not held)")
+                    .tag("lock", n)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("shedlock.lock.at.most.for", state, HeldLockState::lockAtMostForSeconds)
+                    .description("Configured lockAtMostFor of the last acquisition")
+                    .tag("lock", n)
+                    .baseUnit("seconds")
+                    .register(registry);
+            return state;
+        });
+    }
+
+    private void recordRelease(String name, long acquiredAt, Duration lockAtMostFor) {
+        long heldNanos = System.nanoTime() - acquiredAt;
+
+        Timer.builder("shedlock.held")
+                .description("Time the lock was held by this node")
+                .tag("lock", name)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+
+        if (!lockAtMostFor.isZero()) {
+            double ratio = (double) heldNanos / lockAtMostFor.toNanos();
+            DistributionSummary.builder("shedlock.held.ratio")
+                    .description("Held time relative to lockAtMostFor")
+                    .tag("lock", name)
+                    .register(registry)
+                    .record(ratio);
+            if (ratio > 1.0d) {
+                Counter.builder("shedlock.overrun")
+                        .description("Executions that outlived lockAtMostFor")
+                        .tag("lock", name)
+                        .register(registry)
+                        .increment();
+            }
+        }
+
+        HeldLockState state = states.get(name);
+        if (state != null) {
+            state.released(acquiredAt);
+        }
+    }
+
+    // ---------------- wrappers ----------------
+
+    private final class InstrumentedLock implements SimpleLock {
+
+        private final SimpleLock delegate;
+        private final String name;
+        private final long acquiredAt;
+        private volatile Duration lockAtMostFor;
+
+        private InstrumentedLock(SimpleLock delegate, String name, long acquiredAt, Duration lockAtMostFor) {
+            this.delegate = delegate;
+            this.name = name;
+            this.acquiredAt = acquiredAt;
+            this.lockAtMostFor = lockAtMostFor;
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                delegate.unlock();
+            } finally {
+                recordRelease(name, acquiredAt, lockAtMostFor);
+            }
+        }
+
+        @Override
+        public Optional<SimpleLock> extend(Duration lockAtMostFor, Duration lockAtLeastFor) {
+            // extension restarts the lockAtMostFor window, so the overrun budget grows by the elapsed time
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - acquiredAt);
+            Optional<SimpleLock> extended = delegate.extend(lockAtMostFor, lockAtLeastFor);
+            return extended.map(lock -> {
+                InstrumentedLock wrapped = new InstrumentedLock(lock, name, acquiredAt, elapsed.plus(lockAtMostFor));
+                HeldLockState state = states.get(name);
+                if (state != null) {
+                    state.acquired(acquiredAt, wrapped.lockAtMostFor);
+                }
+                return wrapped;
+            });
+        }
+    }
+
+    /**
+     * Mutable gauge source; {@code acquiredAt} is a {@link System#nanoTime()} stamp, 0 when not held.
+     */
+    private static final class HeldLockState {
+
+        private volatile long acquiredAt;
+        private volatile long lockAtMostForNanos;
+
+        void acquired(long at, Duration lockAtMostFor) {
+            this.acquiredAt = at;
+            this.lockAtMostForNanos = lockAtMostFor.toNanos();
+        }
+
+        void released(long at) {
+            // only clear if no newer acquisition replaced this one meanwhile
+            if (this.acquiredAt == at) {
+                this.acquiredAt = 0L;
+            }
+        }
+
+        double ageSeconds() {
+            long at = acquiredAt;
+            return at == 0L ? 0.0d : (System.nanoTime() - at) / 1_000_000_000.0d;
+        }
+
+        double lockAtMostForSeconds() {
+            return lockAtMostForNanos / 1_000_000_000.0d;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockProvider} decorator adding fencing tokens and background lock renewal.
+ * <p>
+ * Every successful acquisition gets a fencing token from {@link FencingTokens} and is exposed to the
+ * running job via {@link LockContext}. While the job keeps sending heartbeats, the lock is extended
+ * every {@code lockAtMostFor / 3}; once heartbeats stop for longer than {@code stallTimeout}, renewal
+ * stops and the lock expires on its own, so a hung node fails over after at most one TTL.
+ */
+@Slf4j
+public class KeepAliveLockProvider implements LockProvider, AutoCloseable {
+
+    private static final Duration MIN_RENEW_PERIOD = Duration.ofSeconds(1);
+
+    private final LockProvider delegate;
+    private final FencingTokens fencingTokens;
+    private final LockProperties properties;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("lock-keepalive").daemon().factory());
+
+    public KeepAliveLockProvider(LockProvider delegate, FencingTokens fencingTokens, LockProperties properties) {
+        this.delegate = delegate;
+        this.fencingTokens = fencingTokens;
+        this.properties = properties;
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration configuration) {
+        Optional<SimpleLock> acquired = delegate.lock(configuration);
+        if (acquired.isEmpty()) {
+            return acquired;
+        }
+
+        String name = configuration.getName();
+        long token;
+        try {
+            token = fencingTokens.next(name);
+        } catch (RuntimeException e) {
+            acquired.get().unlock();
+            throw e;
+        }
+
+        ActiveLock active = new ActiveLock(name, token, configuration.getLockAtMostFor(),
+                configuration.getLockAtLeastUntil(), acquired.get());
+        if (properties.keepAlive()) {
+            long period = Math.max(MIN_RENEW_PERIOD.toMillis(), configuration.getLockAtMostFor().toMillis() / 3);
+            active.renewal(renewer.scheduleAtFixedRate(() -> renew(active), period, period, TimeUnit.MILLISECONDS));
+        }
+        LockContext.push(active);
+        log.debug("Acquired lock {} with fencing token {}", name, token);
+        return Optional.of(new KeepAliveLock(active));
+    }
+
+    private void renew(ActiveLock active) {
+        Duration idle = active.sinceLastHeartbeat();
+        if (idle.compareTo(properties.stallTimeout()) > 0) {
+            log.warn("Lock {} not renewed: no progress for {}", active.name(), idle);
+            return;
+        }
+        try {
+            if (!active.renew()) {
+                log.warn("Lock {} (token {}) could not be extended, it may be held elsewhere",
+                        active.name(), active.fencingToken());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Lock {} renewal failed", active.name(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+    }
+
+    private static final class KeepAliveLock implements SimpleLock {
+
+        private final ActiveLock active;
+
+        private KeepAliveLock(ActiveLock active) {
+            this.active = active;
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                active.release();
+            } finally {
+                LockContext.remove(active);
+            }
+        }
+
+        @Override
+        public Optional<SimpleLock> extend(Duration lockAtMostFor, Duration lockAtLeastFor) {
+            return active.extend(lockAtMostFor, lockAtLeastFor) ? Optional.of(this) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Thread-bound access to the lock(s) acquired by {@link KeepAliveLockProvider}.
+ * <p>
+ * ShedLock acquires the lock and runs the task on the same thread, so a job annotated with
+ * {@code @SchedulerLock} can call {@link #current()} to read its fencing token and send heartbeats.
+ */
+public final class LockContext {
+
+    private static final ThreadLocal<Deque<ActiveLock>> LOCKS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private LockContext() {
+    }
+
+    /** Innermost lock held by the current thread. */
+    public static Optional<ActiveLock> current() {
+        return Optional.ofNullable(LOCKS.get().peek());
+    }
+
+    /** Innermost lock held by the current thread; fails if the caller does not run under a lock. */
+    public static ActiveLock require() {
+        return current().orElseThrow(() -> new IllegalStateException("No scheduler lock held by current thread"));
+    }
+
+    /** Heartbeat for the innermost lock, no-op when no lock is held. */
+    public static void heartbeat() {
+        current().ifPresent(ActiveLock::heartbeat);
+    }
+
+    static void push(ActiveLock lock) {
+        LOCKS.get().push(lock);
+    }
+
+    static void remove(ActiveLock lock) {
+        Deque<ActiveLock> locks = LOCKS.get();
+        locks.remove(lock);
+        if (locks.isEmpty()) {
+            LOCKS.remove();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param keepAlive    renew held locks in the background while the job sends heartbeats
+ * @param stallTimeout stop renewing once no heartbeat arrived for this long
+ */
+@ConfigurationProperties(prefix = "scheduler.locks")
+public record LockProperties(
+        @DefaultValue("true") boolean keepAlive,
+        @DefaultValue("PT2M") Duration stallTimeout
+) {
+}
@@ -0,0 +1,12 @@
+package com.github.dimitryivaniuta.scheduler.lock;
+
+/**
+ * Thrown when a write is attempted with a fencing token older than the newest one seen for the lock,
+ * i.e. another node has acquired the lock since.
+ */
+public class StaleFencingTokenException extends RuntimeException {
+
+    public StaleFencingTokenException(String lockName, long token) {
+        super("Stale fencing token " + token + " for lock " + lockName);
+    }
+}
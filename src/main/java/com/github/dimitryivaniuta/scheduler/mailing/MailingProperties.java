@@ -0,0 +1,27 @@
+package com.github.dimitryivaniuta.scheduler.mailing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.mailings.*}; cron and lock durations are read by {@code MailingJob} via placeholders.
+ *
+ * @param from           sender address
+ * @param subject        mail subject
+ * @param text           plain-text body
+ * @param maxBounceCount contacts with more bounces are excluded from the audience
+ * @param batchSize      sent contacts are marked as emailed every N items
+ * @param concurrency    maximum SMTP sends in flight
+ * @param segment        saved segment to mail; blank = all contacts matching the audience rules
+ */
+@ConfigurationProperties(prefix = "scheduler.mailings")
+public record MailingProperties(
+        @DefaultValue("no-reply@localhost") String from,
+        @DefaultValue("News") String subject,
+        @DefaultValue("") String text,
+        @DefaultValue("3") int maxBounceCount,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("8") int concurrency,
+        @DefaultValue("") String segment
+) {
+}
@@ -0,0 +1,55 @@
+package com.github.dimitryivaniuta.scheduler.mailing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One pass of a mailing over its audience; survives restarts and lock hand-overs via {@link #lastContactId}.
+ */
+@Entity
+@Table(name = "mailing_runs")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailingRun {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 128)
+    private String jobName;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    /** keyset checkpoint: every audience contact with id <= this has been processed */
+    @Column(name = "last_contact_id")
+    private UUID lastContactId;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+}
@@ -0,0 +1,80 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactFeedbackRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces feedback events per email and writes them {@code batchSize} contacts at a time.
+ * <p>
+ * Ten bounces for one address become a single row with {@code bounces = 10}. Not thread-safe: one batch per
+ * ingested stream. {@link #close()} flushes the remainder.
+ */
+public final class FeedbackBatch implements Consumer<FeedbackEvent>, AutoCloseable {
+
+    private final ContactFeedbackRepository repository;
+    private final int batchSize;
+    private final int suppressAfterBounces;
+    private final Consumer<List<String>> onSuppressed;
+    private final Map<String, ContactFeedbackRepository.Update> pending = new HashMap<>();
+
+    private long events;
+    private long updated;
+
+    FeedbackBatch(ContactFeedbackRepository repository, int batchSize, int suppressAfterBounces,
+                  Consumer<List<String>> onSuppressed) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.suppressAfterBounces = suppressAfterBounces;
+        this.onSuppressed = onSuppressed;
+    }
+
+    @Override
+    public void accept(FeedbackEvent event) {
+        events++;
+        if (event.type() == FeedbackType.SOFT_BOUNCE || event.email() == null || event.email().isBlank()) {
+            return;
+        }
+        int bounces = event.type() == FeedbackType.HARD_BOUNCE ? 1 : 0;
+        boolean suppress = event.type() == FeedbackType.COMPLAINT || event.type() == FeedbackType.UNSUBSCRIBE;
+        pending.merge(event.email().trim().toLowerCase(Locale.ROOT),
+                new ContactFeedbackRepository.Update(event.email().trim().toLowerCase(Locale.ROOT),
+                        bounces, suppress, event.occurredAt()),
+                (a, b) -> new ContactFeedbackRepository.Update(a.email(), a.bounces() + b.bounces(),
+                        a.suppress() || b.suppress(), a.at().isBefore(b.at()) ? a.at() : b.at()));
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ContactFeedbackRepository.Update> updates = new ArrayList<>(pending.values());
+        pending.clear();
+        ContactFeedbackRepository.Applied applied = repository.apply(updates, suppressAfterBounces);
+        updated += applied.updated();
+        onSuppressed.accept(applied.suppressed());
+    }
+
+    /** events accepted so far, including soft bounces */
+    public long events() {
+        return events;
+    }
+
+    /** contacts updated by the flushed batches */
+    public long updated() {
+        return updated;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
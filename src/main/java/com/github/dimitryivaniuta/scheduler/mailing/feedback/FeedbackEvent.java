@@ -0,0 +1,6 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import java.time.OffsetDateTime;
+
+public record FeedbackEvent(FeedbackType type, String email, OffsetDateTime occurredAt) {
+}
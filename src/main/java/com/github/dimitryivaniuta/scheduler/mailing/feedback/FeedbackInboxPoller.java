@@ -0,0 +1,78 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Drains the feedback inbox directory: every regular file is one message or an mbox.
+ * <p>
+ * A file is claimed by an atomic rename into {@code .processing/}, so replicas sharing the directory never
+ * process the same file; no scheduler lock is needed. Processed files are deleted, unreadable ones are moved
+ * to {@code .failed/}. Files left in {@code .processing/} by a crashed pod are not retried automatically.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedbackInboxPoller {
+
+    private final FeedbackService feedbackService;
+    private final FeedbackProperties properties;
+
+    @Scheduled(fixedDelayString = "${scheduler.mailings.feedback.poll-interval:PT1M}")
+    public void poll() throws IOException {
+        if (properties.inbox().isBlank()) {
+            return;
+        }
+        Path inbox = Path.of(properties.inbox());
+        if (!Files.isDirectory(inbox)) {
+            return;
+        }
+        Path processing = Files.createDirectories(inbox.resolve(".processing"));
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox, Files::isRegularFile)) {
+            for (Path file : files) {
+                Path claimed = claim(file, processing.resolve(file.getFileName()));
+                if (claimed != null) {
+                    process(inbox, claimed);
+                }
+            }
+        }
+    }
+
+    private static Path claim(Path file, Path target) throws IOException {
+        try {
+            return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            return null; // taken by another replica
+        } catch (AtomicMoveNotSupportedException e) {
+            log.warn("Feedback inbox {} does not support atomic moves; not polling it", file.getParent());
+            throw e;
+        }
+    }
+
+    private void process(Path inbox, Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            FeedbackBatch batch = feedbackService.ingest(reader);
+            log.info("Feedback file {} processed: events={}, contactsUpdated={}",
+                    file.getFileName(), batch.events(), batch.updated());
+            Files.delete(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Feedback file {} failed, moving to .failed", file.getFileName(), e);
+            Path failed = Files.createDirectories(inbox.resolve(".failed"));
+            Files.move(file, failed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
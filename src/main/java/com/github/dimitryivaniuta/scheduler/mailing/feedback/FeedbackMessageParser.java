@@ -0,0 +1,162 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Line-by-line parser for delivery status notifications (RFC 3464), ARF complaint reports (RFC 5965) and
+ * mailto list-unsubscribe requests, in a single message or an mbox of many.
+ * <p>
+ * Only the header fields that matter are recognised, wherever they appear in the message (DSN per-recipient
+ * fields live in the {@code message/delivery-status} part), so MIME structure is not decoded and memory use
+ * does not depend on the message or mbox size.
+ */
+public final class FeedbackMessageParser {
+
+    private FeedbackMessageParser() {
+    }
+
+    public static void parse(BufferedReader reader, Consumer<FeedbackEvent> sink) throws IOException {
+        Message message = new Message(sink);
+        String line;
+        String previous = "";
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("From ") && previous.isEmpty()) {
+                // mbox separator
+                message.end();
+                message = new Message(sink);
+            } else {
+                message.line(line);
+            }
+            previous = line;
+        }
+        message.end();
+    }
+
+    private static final class Message {
+
+        private final Consumer<FeedbackEvent> sink;
+
+        private boolean inTopHeaders = true;
+        private String from;
+        private String subject = "";
+        private OffsetDateTime date;
+        private boolean report;
+
+        // current DSN per-recipient group
+        private String recipient;
+        private String action;
+        private String status;
+
+        // ARF
+        private String feedbackType;
+        private String originalRecipient;
+
+        Message(Consumer<FeedbackEvent> sink) {
+            this.sink = sink;
+        }
+
+        void line(String line) {
+            if (line.isEmpty()) {
+                inTopHeaders = false;
+                endRecipient();
+                return;
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0 || Character.isWhitespace(line.charAt(0))) {
+                return;
+            }
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            switch (name) {
+                case "final-recipient" -> {
+                    endRecipient();
+                    recipient = address(value);
+                    report = true;
+                }
+                case "action" -> action = value.toLowerCase(Locale.ROOT);
+                case "status" -> status = value;
+                case "feedback-type" -> {
+                    feedbackType = value.toLowerCase(Locale.ROOT);
+                    report = true;
+                }
+                case "original-rcpt-to" -> originalRecipient = address(value);
+                case "arrival-date" -> date = date(value, date);
+                case "from" -> {
+                    if (inTopHeaders) {
+                        from = address(value);
+                    }
+                }
+                case "subject" -> {
+                    if (inTopHeaders) {
+                        subject = value;
+                    }
+                }
+                case "date" -> {
+                    if (inTopHeaders) {
+                        date = date(value, date);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        void end() {
+            endRecipient();
+            if (feedbackType != null && originalRecipient != null) {
+                emit(FeedbackType.COMPLAINT, originalRecipient);
+            } else if (!report && from != null && subject.toLowerCase(Locale.ROOT).contains("unsubscribe")) {
+                emit(FeedbackType.UNSUBSCRIBE, from);
+            }
+        }
+
+        private void endRecipient() {
+            if (recipient == null) {
+                return;
+            }
+            if ("failed".equals(action) || (status != null && status.startsWith("5"))) {
+                emit(status != null && status.startsWith("4") ? FeedbackType.SOFT_BOUNCE : FeedbackType.HARD_BOUNCE, recipient);
+            } else if ("delayed".equals(action) || (status != null && status.startsWith("4"))) {
+                emit(FeedbackType.SOFT_BOUNCE, recipient);
+            }
+            recipient = null;
+            action = null;
+            status = null;
+        }
+
+        private void emit(FeedbackType type, String email) {
+            sink.accept(new FeedbackEvent(type, email, date != null ? date : OffsetDateTime.now(ZoneOffset.UTC)));
+        }
+
+        /** {@code rfc822; a@b}, {@code Name <a@b>} or {@code a@b} */
+        private static String address(String value) {
+            String v = value;
+            int semicolon = v.indexOf(';');
+            if (semicolon >= 0) {
+                v = v.substring(semicolon + 1);
+            }
+            int lt = v.indexOf('<');
+            int gt = v.indexOf('>', lt + 1);
+            if (lt >= 0 && gt > lt) {
+                v = v.substring(lt + 1, gt);
+            }
+            v = v.trim();
+            return v.indexOf('@') > 0 ? v : null;
+        }
+
+        private static OffsetDateTime date(String value, OffsetDateTime fallback) {
+            try {
+                return OffsetDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            } catch (DateTimeParseException e) {
+                return fallback;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.mailings.feedback.*}; the inbox poll interval is read by {@link FeedbackInboxPoller} via a placeholder.
+ *
+ * @param inbox                directory with bounce / complaint messages ({@code .eml} or mbox files); blank disables polling
+ * @param batchSize            distinct contacts per update statement
+ * @param suppressAfterBounces contacts reaching this many hard bounces are unsubscribed
+ */
+@ConfigurationProperties(prefix = "scheduler.mailings.feedback")
+public record FeedbackProperties(
+        @DefaultValue("") String inbox,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("3") int suppressAfterBounces
+) {
+}
@@ -0,0 +1,62 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactFeedbackRepository;
+import com.github.dimitryivaniuta.scheduler.mailing.suppression.SuppressionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Entry point for bounce / complaint / unsubscribe feedback from any source.
+ * <p>
+ * Events are consumed as they are parsed and written through a {@link FeedbackBatch}, so a source is never
+ * held in memory. Each batch statement commits on its own: a failure part-way keeps the batches already
+ * applied, and re-ingesting the same hard bounces counts them again.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedbackService {
+
+    private final ContactFeedbackRepository repository;
+    private final FeedbackProperties properties;
+    private final SuppressionService suppressionService;
+    private final MeterRegistry meterRegistry;
+
+    /** Newly suppressed addresses go straight into the suppression filter. */
+    public FeedbackBatch newBatch() {
+        return new FeedbackBatch(repository, properties.batchSize(), properties.suppressAfterBounces(),
+                suppressionService::add);
+    }
+
+    /** Ingests one message or mbox. */
+    public FeedbackBatch ingest(BufferedReader messages) throws IOException {
+        try (FeedbackBatch batch = newBatch()) {
+            FeedbackMessageParser.parse(messages, event -> {
+                count(event);
+                batch.accept(event);
+            });
+            return batch;
+        }
+    }
+
+    /** Ingests already parsed events, e.g. from a webhook. */
+    public FeedbackBatch ingest(Iterator<FeedbackEvent> events) {
+        try (FeedbackBatch batch = newBatch()) {
+            while (events.hasNext()) {
+                FeedbackEvent event = events.next();
+                count(event);
+                batch.accept(event);
+            }
+            return batch;
+        }
+    }
+
+    private void count(FeedbackEvent event) {
+        meterRegistry.counter("mailing.feedback.events", "type", event.type().name().toLowerCase(Locale.ROOT)).increment();
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.dimitryivaniuta.scheduler.mailing.feedback;
+
+public enum FeedbackType {
+
+    /** permanent delivery failure (DSN status 5.x.x): counts towards {@code bounce_count} */
+    HARD_BOUNCE,
+
+    /** transient delivery failure (DSN status 4.x.x or action "delayed"): recorded, no contact update */
+    SOFT_BOUNCE,
+
+    /** spam complaint (ARF feedback report): suppresses the contact */
+    COMPLAINT,
+
+    /** list-unsubscribe request: suppresses the contact */
+    UNSUBSCRIBE
+}
@@ -0,0 +1,67 @@
+package com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-(run, contact) idempotency records in {@code mailing_deliveries}; one statement per batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MailingDeliveryRepository {
+
+    private static final String CLAIM = """
+            INSERT INTO mailing_deliveries (run_id, contact_id)
+            SELECT ?, unnest(?)
+            ON CONFLICT DO NOTHING
+            RETURNING contact_id
+            """;
+
+    private static final String UNCLAIMED = """
+            SELECT c.id FROM unnest(?) AS c(id)
+            WHERE NOT EXISTS (SELECT 1 FROM mailing_deliveries d WHERE d.run_id = ? AND d.contact_id = c.id)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Inserts the pairs and returns only the contacts that were not claimed for this run before. */
+    public List<UUID> claim(UUID runId, Collection<UUID> contactIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM);
+            ps.setObject(1, runId);
+            ps.setArray(2, connection.createArrayOf("uuid", contactIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /** Returns the contacts not claimed for this run yet, without claiming them. */
+    public List<UUID> unclaimed(UUID runId, Collection<UUID> contactIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UNCLAIMED);
+            ps.setArray(1, connection.createArrayOf("uuid", contactIds.toArray()));
+            ps.setObject(2, runId);
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /** Drops claims, so the contacts can be claimed (and sent) again. */
+    public int release(UUID runId, Collection<UUID> contactIds) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM mailing_deliveries WHERE run_id = ? AND contact_id = ANY(?)");
+            ps.setObject(1, runId);
+            ps.setArray(2, connection.createArrayOf("uuid", contactIds.toArray()));
+            return ps;
+        });
+    }
+
+    public int deleteRun(UUID runId) {
+        return jdbcTemplate.update("DELETE FROM mailing_deliveries WHERE run_id = ?", runId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository;
+
+import com.github.dimitryivaniuta.scheduler.mailing.domain.MailingRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MailingRunRepository extends JpaRepository<MailingRun, UUID> {
+
+    Optional<MailingRun> findByJobNameAndStatus(String jobName, String status);
+
+    @Modifying
+    @Query("""
+            update MailingRun r
+               set r.lastContactId = :lastContactId, r.sentCount = r.sentCount + :sent, r.updatedAt = :at
+             where r.id = :id
+            """)
+    int checkpoint(@Param("id") UUID id,
+                   @Param("lastContactId") UUID lastContactId,
+                   @Param("sent") long sent,
+                   @Param("at") OffsetDateTime at);
+}
@@ -0,0 +1,76 @@
+package com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Suppressed addresses: unsubscribed or over-bounced contacts plus the external {@code suppressed_emails} list.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SuppressionRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String ALL = """
+            SELECT email::text FROM contacts WHERE unsubscribed OR bounce_count > ?
+            UNION ALL
+            SELECT email::text FROM suppressed_emails
+            """;
+
+    private static final String SINCE = """
+            SELECT email::text FROM contacts WHERE updated_at > ? AND (unsubscribed OR bounce_count > ?)
+            UNION ALL
+            SELECT email::text FROM suppressed_emails WHERE created_at > ?
+            """;
+
+    private static final String EXACT = """
+            SELECT email::text FROM contacts
+             WHERE email = ANY (?::citext[]) AND (unsubscribed OR bounce_count > ?)
+            UNION
+            SELECT email::text FROM suppressed_emails WHERE email = ANY (?::citext[])
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Streams every suppressed address; call inside a transaction so the driver uses a cursor. */
+    public void forEachSuppressed(int maxBounceCount, Consumer<String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ALL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, maxBounceCount);
+            return ps;
+        }, rs -> {
+            consumer.accept(rs.getString(1));
+        });
+    }
+
+    public void forEachSuppressedSince(Instant since, int maxBounceCount, Consumer<String> consumer) {
+        jdbcTemplate.query(SINCE, rs -> {
+            consumer.accept(rs.getString(1));
+        }, Timestamp.from(since), maxBounceCount, Timestamp.from(since));
+    }
+
+    /** Exact check of filter hits; returns the suppressed addresses among {@code emails}, as stored. */
+    public Set<String> findSuppressed(Collection<String> emails, int maxBounceCount) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXACT);
+            ps.setArray(1, connection.createArrayOf("text", emails.toArray()));
+            ps.setInt(2, maxBounceCount);
+            ps.setArray(3, connection.createArrayOf("text", emails.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.dimitryivaniuta.scheduler.mailing.job;
+
+import com.github.dimitryivaniuta.scheduler.job.history.JobRunRecorder;
+import com.github.dimitryivaniuta.scheduler.mailing.service.MailingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every replica schedules the job; ShedLock lets only the lock holder run it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailingJob {
+
+    public static final String LOCK_NAME = "mailings";
+
+    private final MailingService mailingService;
+    private final JobRunRecorder jobRunRecorder;
+
+    @Scheduled(cron = "${scheduler.mailings.cron}")
+    @SchedulerLock(name = LOCK_NAME,
+            lockAtMostFor = "${scheduler.mailings.lock-at-most-for}",
+            lockAtLeastFor = "${scheduler.mailings.lock-at-least-for}")
+    public void run() throws Exception {
+        jobRunRecorder.run(LOCK_NAME, () -> {
+            int sent = mailingService.sendScheduledMailing();
+            log.info("Mailing run finished, sent={}", sent);
+        });
+    }
+}
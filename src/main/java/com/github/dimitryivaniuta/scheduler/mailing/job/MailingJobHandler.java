@@ -0,0 +1,40 @@
+package com.github.dimitryivaniuta.scheduler.mailing.job;
+
+import com.github.dimitryivaniuta.scheduler.job.scheduling.JobHandler;
+import com.github.dimitryivaniuta.scheduler.job.scheduling.ScheduledJob;
+import com.github.dimitryivaniuta.scheduler.mailing.service.MailingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Lets mailings be scheduled dynamically via {@code /api/jobs} with {@code handler = "mailing"}.
+ * <p>
+ * Runs under the lock of the static {@link MailingJob}: the mailing run and its claims are keyed by the lock
+ * name, so every trigger continues the same run and none sends alongside another.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailingJobHandler implements JobHandler {
+
+    private final MailingService mailingService;
+
+    @Override
+    public String name() {
+        return "mailing";
+    }
+
+    @Override
+    public String lockName() {
+        return MailingJob.LOCK_NAME;
+    }
+
+    @Override
+    public void execute(ScheduledJob job, Map<String, Object> payload) {
+        int sent = mailingService.sendScheduledMailing();
+        log.info("Mailing job {} finished, sent={}", job.name(), sent);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.dimitryivaniuta.scheduler.mailing.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.FencedWriteGuard;
+import com.github.dimitryivaniuta.scheduler.mailing.domain.MailingRun;
+import com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository.MailingDeliveryRepository;
+import com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository.MailingRunRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent progress of mailing runs. Every write is fenced by the caller's lock token,
+ * so a node that lost the lock can neither claim contacts nor move the checkpoint.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MailingCheckpointService {
+
+    private final MailingRunRepository runRepository;
+    private final MailingDeliveryRepository deliveryRepository;
+    private final ContactService contactService;
+    private final FencedWriteGuard fencedWriteGuard;
+
+    /** Returns the unfinished run of the job (to resume from its checkpoint) or starts a new one. */
+    public MailingRun startOrResume(ActiveLock lock, String jobName) {
+        fencedWriteGuard.check(lock);
+        return runRepository.findByJobNameAndStatus(jobName, MailingRun.IN_PROGRESS)
+                .orElseGet(() -> {
+                    OffsetDateTime now = OffsetDateTime.now();
+                    return runRepository.save(MailingRun.builder()
+                            .id(UUID.randomUUID())
+                            .jobName(jobName)
+                            .status(MailingRun.IN_PROGRESS)
+                            .sentCount(0)
+                            .startedAt(now)
+                            .updatedAt(now)
+                            .build());
+                });
+    }
+
+    /** Contacts not claimed by this run yet, i.e. not handed to SMTP before an interruption. */
+    public List<UUID> unclaimed(UUID runId, Collection<UUID> contactIds) {
+        return deliveryRepository.unclaimed(runId, contactIds);
+    }
+
+    /**
+     * Claims contacts for the run right before they are handed to SMTP; returns only those never claimed
+     * by this run, which makes re-delivery after a resume impossible (at-most-once per run).
+     */
+    public List<UUID> claim(ActiveLock lock, UUID runId, Collection<UUID> contactIds) {
+        fencedWriteGuard.check(lock);
+        return deliveryRepository.claim(runId, contactIds);
+    }
+
+    /** Drops the claims of contacts that were deferred by SMTP, i.e. not delivered, so they can be retried. */
+    public void release(ActiveLock lock, UUID runId, Collection<UUID> contactIds) {
+        fencedWriteGuard.check(lock);
+        deliveryRepository.release(runId, contactIds);
+    }
+
+    /**
+     * Atomically marks the sent contacts as emailed and advances the keyset checkpoint to
+     * {@code lastContactId}: every contact up to it was sent, failed or skipped, none is still queued.
+     */
+    public void checkpoint(ActiveLock lock, UUID runId, UUID lastContactId, Collection<UUID> sent) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (!sent.isEmpty()) {
+            contactService.markEmailed(lock, sent, now);
+        } else {
+            fencedWriteGuard.check(lock);
+        }
+        runRepository.checkpoint(runId, lastContactId, sent.size(), now);
+    }
+
+    public void complete(ActiveLock lock, UUID runId) {
+        fencedWriteGuard.check(lock);
+        MailingRun run = runRepository.findById(runId).orElseThrow();
+        OffsetDateTime now = OffsetDateTime.now();
+        run.setStatus(MailingRun.COMPLETED);
+        run.setCompletedAt(now);
+        run.setUpdatedAt(now);
+        deliveryRepository.deleteRun(runId);
+    }
+}
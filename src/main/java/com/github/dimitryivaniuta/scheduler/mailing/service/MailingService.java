@@ -0,0 +1,376 @@
+package com.github.dimitryivaniuta.scheduler.mailing.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.job.history.JobRun;
+import com.github.dimitryivaniuta.scheduler.lock.ActiveLock;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import com.github.dimitryivaniuta.scheduler.lock.StaleFencingTokenException;
+import com.github.dimitryivaniuta.scheduler.mailing.MailingProperties;
+import com.github.dimitryivaniuta.scheduler.mailing.domain.MailingRun;
+import com.github.dimitryivaniuta.scheduler.mailing.suppression.SuppressionService;
+import com.github.dimitryivaniuta.scheduler.mailing.throttle.DomainRateLimiter;
+import com.github.dimitryivaniuta.scheduler.mailing.throttle.DomainSendQueue;
+import com.github.dimitryivaniuta.scheduler.mailing.throttle.MailThrottleProperties;
+import com.github.dimitryivaniuta.scheduler.mailing.throttle.SmtpOutcome;
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import com.github.dimitryivaniuta.scheduler.segment.service.SegmentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+public class MailingService {
+
+    private final ContactService contactService;
+    private final MailingCheckpointService checkpoints;
+    private final JavaMailSender mailSender;
+    private final MailingProperties properties;
+    private final ExecutorService mailingExecutor;
+    private final SegmentService segmentService;
+    private final SuppressionService suppressionService;
+    private final DomainRateLimiter rateLimiter;
+    private final MailThrottleProperties throttle;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+
+    public MailingService(ContactService contactService,
+                          MailingCheckpointService checkpoints,
+                          JavaMailSender mailSender,
+                          MailingProperties properties,
+                          @Qualifier("mailingExecutor") ExecutorService mailingExecutor,
+                          SegmentService segmentService,
+                          SuppressionService suppressionService,
+                          DomainRateLimiter rateLimiter,
+                          MailThrottleProperties throttle,
+                          MeterRegistry meterRegistry) {
+        this.contactService = contactService;
+        this.checkpoints = checkpoints;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.mailingExecutor = mailingExecutor;
+        this.segmentService = segmentService;
+        this.suppressionService = suppressionService;
+        this.rateLimiter = rateLimiter;
+        this.throttle = throttle;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(properties.concurrency());
+    }
+
+    /**
+     * Sends the configured mailing to the default audience, resuming an interrupted run if there is one.
+     * With {@code scheduler.mailings.segment} set, the audience is that segment's materialized snapshot
+     * (refreshed incrementally when a new run starts) narrowed by the same audience rules, read by id range.
+     * <p>
+     * Must run under a scheduler lock. The audience is walked in keyset chunks of {@code batchSize} ordered by
+     * id. Contacts already claimed by the run are dropped from each chunk, the rest are sent with up to
+     * {@code concurrency} sends in parallel on the mailing executor, each batch claimed right before it is
+     * handed to SMTP, then checkpointed: sent contacts are marked as emailed and the run's last contact id
+     * advances in one transaction. A new lock holder continues after the last checkpoint. All writes are fenced
+     * by the lock token and workers heartbeat per contact. Progress and the "claim"/"send"/"checkpoint" phases
+     * are reported to the current {@link JobRun}, if any.
+     * <p>
+     * Before claiming, each chunk is checked against the suppression filter ({@link SuppressionService}), which
+     * also catches addresses on the external suppression list and contacts suppressed since the chunk was read.
+     * Sends are throttled per recipient domain ({@link DomainRateLimiter}). Eligible contacts go into a
+     * {@link DomainSendQueue}; a domain out of tokens or answering with SMTP deferrals is skipped and its
+     * contacts carried into later chunks while other domains keep flowing. Only when more than
+     * {@code throttle.maxBacklog} contacts are waiting does the run pause for them. The checkpoint never passes
+     * a contact still waiting, and waiting contacts are not claimed (a deferred one's claim is released), so
+     * a run that stops with contacts waiting leaves them to the next lock holder.
+     *
+     * @return number of contacts emailed by this invocation
+     */
+    public int sendScheduledMailing() {
+        ActiveLock lock = LockContext.require();
+        JobRun run = JobRun.current().orElse(null);
+        MailingRun mailingRun = checkpoints.startOrResume(lock, lock.name());
+        UUID after = mailingRun.getLastContactId();
+        if (after != null) {
+            log.info("Resuming mailing run {} after contact {} ({} already sent)",
+                    mailingRun.getId(), after, mailingRun.getSentCount());
+        }
+
+        Segment segment = properties.segment().isBlank() ? null : segmentService.getByName(properties.segment());
+        if (segment != null && after == null) {
+            // a new run starts from an up-to-date snapshot; a resumed one keeps walking it
+            segment = segmentService.refresh(segment);
+        }
+
+        DomainSendQueue queue = new DomainSendQueue();
+        int sent = 0;
+        AudienceChunk chunk;
+        do {
+            chunk = nextChunk(segment, after);
+            if (Objects.equals(chunk.lastId(), after)) {
+                break;
+            }
+            sent += sendChunk(lock, run, mailingRun.getId(), chunk.contacts(), chunk.lastId(), queue);
+            after = chunk.lastId();
+        } while (chunk.hasMore());
+        if (!queue.isEmpty()) {
+            // contacts of domains that were still throttled when the audience ran out
+            sent += sendQueued(lock, run, mailingRun.getId(), after, queue, 0);
+        }
+
+        checkpoints.complete(lock, mailingRun.getId());
+        return sent;
+    }
+
+    /** Next keyset chunk, from the segment snapshot if one is configured, otherwise from the live table. */
+    private AudienceChunk nextChunk(Segment segment, UUID after) {
+        if (segment != null) {
+            SegmentService.Chunk members = segmentService.membersAfter(segment, audience(), after, properties.batchSize());
+            return new AudienceChunk(members.contacts(), members.lastId(), members.hasMore());
+        }
+        List<Contact> contacts = contactService.findMatchingAfter(audience(), after, properties.batchSize());
+        return new AudienceChunk(contacts, contacts.isEmpty() ? after : contacts.getLast().getId(),
+                contacts.size() == properties.batchSize());
+    }
+
+    /**
+     * @param lastId checkpoint position after this chunk; with a segment it can be past the last contact returned
+     */
+    private record AudienceChunk(List<Contact> contacts, UUID lastId, boolean hasMore) {
+    }
+
+    private ContactFilterRequest audience() {
+        return ContactFilterRequest.builder()
+                .active(true)
+                .marketingOptIn(true)
+                .unsubscribed(false)
+                .maxBounceCount(properties.maxBounceCount())
+                .build();
+    }
+
+    private int sendChunk(ActiveLock lock, JobRun run, UUID runId, List<Contact> chunk, UUID lastId,
+                          DomainSendQueue queue) {
+        if (lock.isLost()) {
+            throw new StaleFencingTokenException(lock.name(), lock.fencingToken());
+        }
+
+        List<Contact> eligible;
+        try (JobRun.Phase ignored = phase(run, "suppress")) {
+            eligible = suppressionService.removeSuppressed(chunk);
+        }
+
+        List<UUID> unclaimed;
+        try (JobRun.Phase ignored = phase(run, "claim")) {
+            // contacts handed to SMTP before an interruption are claimed already
+            unclaimed = eligible.isEmpty()
+                    ? List.of()
+                    : checkpoints.unclaimed(runId, eligible.stream().map(Contact::getId).toList());
+        }
+        Set<UUID> toSend = new HashSet<>(unclaimed);
+        for (Contact contact : eligible) {
+            if (toSend.contains(contact.getId())) {
+                queue.add(contact);
+            }
+        }
+        int backlog = queue.size() > throttle.maxBacklog() ? throttle.maxBacklog() : Integer.MAX_VALUE;
+        return sendQueued(lock, run, runId, lastId, queue, backlog);
+    }
+
+    /**
+     * Sends whatever the queue has ready, then waits for deferred domains until at most {@code backlog}
+     * contacts are left, and checkpoints the contacts sent up to {@code lastId}, or up to just below the
+     * lowest contact still queued if that comes first.
+     */
+    private int sendQueued(ActiveLock lock, JobRun run, UUID runId, UUID lastId,
+                           DomainSendQueue queue, int backlog) {
+        List<UUID> sent = new ArrayList<>();
+        int failed = 0;
+        try (JobRun.Phase ignored = phase(run, "send")) {
+            Map<String, Integer> successes = new HashMap<>();
+            List<Future<SendResult>> futures = new ArrayList<>();
+            while (true) {
+                List<DomainSendQueue.Pending> batch = nextBatch(queue);
+                if (!batch.isEmpty()) {
+                    for (DomainSendQueue.Pending next : handOff(lock, runId, batch)) {
+                        inFlight.acquireUninterruptibly();
+                        futures.add(mailingExecutor.submit(() -> {
+                            try {
+                                return attempt(lock, next);
+                            } finally {
+                                inFlight.release();
+                            }
+                        }));
+                    }
+                    continue;
+                }
+
+                // nothing ready: settle the sends in flight, deferrals go back into the queue
+                List<UUID> deferred = new ArrayList<>();
+                for (Future<SendResult> future : futures) {
+                    SendResult result = await(future);
+                    if (result == null) {
+                        failed++;
+                        continue;
+                    }
+                    DomainSendQueue.Pending pending = result.pending();
+                    sendCounter(result.outcome()).increment();
+                    switch (result.outcome()) {
+                        case SENT -> {
+                            sent.add(pending.contact().getId());
+                            successes.merge(pending.domain(), 1, Integer::sum);
+                        }
+                        case DEFERRED -> {
+                            rateLimiter.onDeferred(pending.domain());
+                            if (pending.attempts() + 1 >= throttle.maxAttempts()) {
+                                log.warn("Mail to {} deferred {} times, giving up: {}", pending.domain(),
+                                        pending.attempts() + 1, result.error().getMessage());
+                                failed++;
+                            } else {
+                                queue.retry(pending.deferredOnce());
+                                queue.defer(pending.domain(), throttle.deferralBackoff().toMillis());
+                                deferred.add(pending.contact().getId());
+                            }
+                        }
+                        default -> {
+                            log.warn("Mail send to {} failed ({})", pending.domain(), result.outcome(), result.error());
+                            failed++;
+                        }
+                    }
+                }
+                futures.clear();
+                if (!deferred.isEmpty()) {
+                    checkpoints.release(lock, runId, deferred);
+                }
+
+                if (queue.size() <= backlog) {
+                    break;
+                }
+                awaitReady(lock, queue);
+            }
+            successes.forEach(rateLimiter::onSuccess);
+        }
+        if (run != null) {
+            run.addItems(sent.size());
+            run.addFailures(failed);
+        }
+
+        UUID lowestQueued = queue.lowestContactId();
+        UUID checkpointId = lowestQueued != null && DomainSendQueue.compareUnsigned(lowestQueued, lastId) <= 0
+                ? predecessor(lowestQueued)
+                : lastId;
+        try (JobRun.Phase ignored = phase(run, "checkpoint")) {
+            checkpoints.checkpoint(lock, runId, checkpointId, sent);
+        }
+        return sent.size();
+    }
+
+    /** Up to {@code concurrency} ready contacts, each holding a token of its domain. */
+    private List<DomainSendQueue.Pending> nextBatch(DomainSendQueue queue) {
+        List<DomainSendQueue.Pending> batch = new ArrayList<>();
+        DomainSendQueue.Pending next;
+        while (batch.size() < properties.concurrency() && (next = queue.pollReady(System.nanoTime())) != null) {
+            long waitMillis = rateLimiter.tryAcquire(next.domain());
+            if (waitMillis > 0) {
+                queue.retry(next);
+                queue.defer(next.domain(), waitMillis);
+                continue;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /** Claims the batch in one statement; contacts claimed before (by an earlier lock holder) are dropped. */
+    private List<DomainSendQueue.Pending> handOff(ActiveLock lock, UUID runId, List<DomainSendQueue.Pending> batch) {
+        Set<UUID> claimed = new HashSet<>(checkpoints.claim(lock, runId,
+                batch.stream().map(p -> p.contact().getId()).toList()));
+        return batch.stream().filter(p -> claimed.contains(p.contact().getId())).toList();
+    }
+
+    /** The uuid right below {@code id}, so a checkpoint at it excludes {@code id} itself. */
+    private static UUID predecessor(UUID id) {
+        long low = id.getLeastSignificantBits();
+        long high = low == 0 ? id.getMostSignificantBits() - 1 : id.getMostSignificantBits();
+        return new UUID(high, low - 1);
+    }
+
+    private SendResult attempt(ActiveLock lock, DomainSendQueue.Pending pending) {
+        try {
+            send(pending.contact());
+            return new SendResult(pending, SmtpOutcome.SENT, null);
+        } catch (MailException e) {
+            return new SendResult(pending, SmtpOutcome.classify(e), e);
+        } finally {
+            lock.heartbeat();
+        }
+    }
+
+    private static SendResult await(Future<SendResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Mail send failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending mailing", e);
+        }
+    }
+
+    /** Sleeps until a deferred domain is ready; waiting on a throttled domain counts as progress for the lock. */
+    private static void awaitReady(ActiveLock lock, DomainSendQueue queue) {
+        long waitNanos = queue.nextReadyNanos() - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending mailing", e);
+            }
+        }
+        if (lock.isLost()) {
+            throw new StaleFencingTokenException(lock.name(), lock.fencingToken());
+        }
+        lock.heartbeat();
+    }
+
+    private Counter sendCounter(SmtpOutcome outcome) {
+        return Counter.builder("mailing.sends")
+                .description("SMTP send attempts by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static JobRun.Phase phase(JobRun run, String name) {
+        return run != null ? run.phase(name) : () -> { };
+    }
+
+    private record SendResult(DomainSendQueue.Pending pending, SmtpOutcome outcome, MailException error) {
+    }
+
+    private void send(Contact contact) throws MailException {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.from());
+        message.setTo(contact.getEmail());
+        message.setSubject(properties.subject());
+        message.setText(properties.text());
+        mailSender.send(message);
+    }
+}
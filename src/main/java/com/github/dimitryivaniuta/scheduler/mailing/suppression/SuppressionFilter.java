@@ -0,0 +1,129 @@
+package com.github.dimitryivaniuta.scheduler.mailing.suppression;
+
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import static org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldType.unsigned;
+
+/**
+ * Bloom filter of suppressed email addresses, kept as one Redis bitmap shared by all replicas.
+ * <p>
+ * Sized from {@link SuppressionProperties} (about 14 bits per entry at a 0.1% false-positive rate, i.e. ~9 MB
+ * for 5M addresses). Bit positions come from two 64-bit halves of the SHA-256 of the lower-cased address
+ * (double hashing). Lookups and inserts for a whole chunk are a single {@code BITFIELD} command. The key name
+ * includes the filter dimensions, so resizing it starts a fresh filter instead of corrupting the old one.
+ */
+@Component
+public class SuppressionFilter {
+
+    private static final String KEY_PREFIX = "job-scheduler:suppression:";
+    private static final int MAX_SUBCOMMANDS = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final long bits;
+    private final int hashes;
+    private final String key;
+
+    public SuppressionFilter(StringRedisTemplate redisTemplate, SuppressionProperties properties) {
+        this.redisTemplate = redisTemplate;
+        double ln2 = Math.log(2);
+        this.bits = Math.max(64, (long) Math.ceil(-properties.expectedEntries() * Math.log(properties.falsePositiveRate()) / (ln2 * ln2)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / properties.expectedEntries() * ln2));
+        this.key = KEY_PREFIX + bits + ":" + hashes;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean exists() {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    /** @return per address, {@code false} if it is certainly not suppressed */
+    public boolean[] mightContain(List<String> emails) {
+        boolean[] result = new boolean[emails.size()];
+        int perCall = Math.max(1, MAX_SUBCOMMANDS / hashes);
+        for (int from = 0; from < emails.size(); from += perCall) {
+            List<String> slice = emails.subList(from, Math.min(emails.size(), from + perCall));
+            BitFieldSubCommands commands = BitFieldSubCommands.create();
+            for (String email : slice) {
+                for (long offset : offsets(email)) {
+                    commands = commands.get(unsigned(1)).valueAt(offset);
+                }
+            }
+            List<Long> values = redisTemplate.opsForValue().bitField(key, commands);
+            for (int i = 0; i < slice.size(); i++) {
+                boolean all = true;
+                for (int h = 0; h < hashes && all; h++) {
+                    all = values != null && values.get(i * hashes + h) == 1L;
+                }
+                result[from + i] = all;
+            }
+        }
+        return result;
+    }
+
+    public void add(Collection<String> emails) {
+        addTo(key, emails);
+    }
+
+    /** Bulk insert into another key, used to build a replacement filter. */
+    void addTo(String target, Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        int perCall = Math.max(1, MAX_SUBCOMMANDS / hashes);
+        List<String> list = emails instanceof List<String> l ? l : new ArrayList<>(emails);
+        for (int from = 0; from < list.size(); from += perCall) {
+            BitFieldSubCommands commands = BitFieldSubCommands.create();
+            for (String email : list.subList(from, Math.min(list.size(), from + perCall))) {
+                for (long offset : offsets(email)) {
+                    commands = commands.set(unsigned(1)).valueAt(offset).to(1);
+                }
+            }
+            redisTemplate.opsForValue().bitField(target, commands);
+        }
+    }
+
+    /** Atomically replaces the live filter with a freshly built one. */
+    void replaceWith(String built) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(built))) {
+            redisTemplate.rename(built, key);
+        } else {
+            // nothing suppressed: an all-zero filter
+            redisTemplate.delete(key);
+            redisTemplate.opsForValue().setBit(key, bits - 1, false);
+        }
+    }
+
+    private long[] offsets(String email) {
+        byte[] digest = sha256(email.trim().toLowerCase(Locale.ROOT));
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        long h1 = buffer.getLong();
+        long h2 = buffer.getLong();
+        long[] offsets = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bits);
+        }
+        return offsets;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
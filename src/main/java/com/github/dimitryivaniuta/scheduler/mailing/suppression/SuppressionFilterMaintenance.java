@@ -0,0 +1,46 @@
+package com.github.dimitryivaniuta.scheduler.mailing.suppression;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the shared suppression filter current: builds it if missing, syncs new suppressions every
+ * {@code sync-interval} and rebuilds it nightly. Both share one lock, so a sync never races a rebuild.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuppressionFilterMaintenance {
+
+    static final String LOCK_NAME = "suppression-filter";
+
+    private final SuppressionService suppressionService;
+    private final SuppressionProperties properties;
+
+    @Scheduled(fixedDelayString = "${scheduler.mailings.suppression.sync-interval:PT1M}", initialDelayString = "PT10S")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT30M")
+    public void sync() {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!suppressionService.isBuilt()) {
+            suppressionService.rebuild();
+            return;
+        }
+        long added = suppressionService.sync();
+        if (added > 0) {
+            log.debug("Suppression filter synced, {} addresses added", added);
+        }
+    }
+
+    @Scheduled(cron = "${scheduler.mailings.suppression.rebuild-cron:0 30 3 * * *}", zone = "UTC")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT30M")
+    public void rebuild() {
+        if (properties.enabled()) {
+            suppressionService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.scheduler.mailing.suppression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code scheduler.mailings.suppression.*}; sync interval and rebuild cron are read by
+ * {@link SuppressionFilterMaintenance} via placeholders.
+ *
+ * @param enabled           check recipients against the filter before sending
+ * @param expectedEntries   suppressed addresses the filter is sized for
+ * @param falsePositiveRate target false-positive rate at {@code expectedEntries}
+ */
+@ConfigurationProperties(prefix = "scheduler.mailings.suppression")
+public record SuppressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5000000") long expectedEntries,
+        @DefaultValue("0.001") double falsePositiveRate
+) {
+}
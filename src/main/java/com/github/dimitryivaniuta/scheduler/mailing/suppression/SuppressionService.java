@@ -0,0 +1,153 @@
+package com.github.dimitryivaniuta.scheduler.mailing.suppression;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import com.github.dimitryivaniuta.scheduler.mailing.MailingProperties;
+import com.github.dimitryivaniuta.scheduler.mailing.infrastructure.repository.SuppressionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-send suppression check backed by {@link SuppressionFilter}.
+ * <p>
+ * A filter miss is final; only hits (suppressed addresses and rare false positives) are verified against
+ * Postgres, in one query per chunk. While the filter does not exist (not built yet, or lost with Redis), the
+ * whole chunk is checked in Postgres instead. The filter is rebuilt from scratch periodically (Bloom filters cannot
+ * forget re-subscribed addresses) and kept current in between by {@link #add} from feedback processing and
+ * by {@link #sync()} from {@code contacts.updated_at} / {@code suppressed_emails.created_at}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuppressionService {
+
+    private static final int BUILD_BATCH = 5_000;
+    /** re-reads a little before the watermark to cover clock differences between writers */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final SuppressionFilter filter;
+    private final SuppressionRepository repository;
+    private final SuppressionProperties properties;
+    private final MailingProperties mailingProperties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /** @return {@code contacts} without the suppressed ones, order preserved */
+    public List<Contact> removeSuppressed(List<Contact> contacts) {
+        if (!properties.enabled() || contacts.isEmpty()) {
+            return contacts;
+        }
+        List<String> emails = contacts.stream().map(Contact::getEmail).toList();
+        if (!filter.exists()) {
+            // a missing bitmap reads as all zeros, i.e. "nobody suppressed": check the whole chunk exactly
+            meterRegistry.counter("mailing.suppression.unfiltered").increment(emails.size());
+            Set<String> suppressed = findSuppressed(emails);
+            return contacts.stream().filter(c -> !suppressed.contains(normalize(c.getEmail()))).toList();
+        }
+        boolean[] hits = filter.mightContain(emails);
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i]) {
+                candidates.add(emails.get(i));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return contacts;
+        }
+
+        Set<String> suppressed = findSuppressed(candidates);
+        meterRegistry.counter("mailing.suppression.hits", "result", "suppressed").increment(suppressed.size());
+        meterRegistry.counter("mailing.suppression.hits", "result", "false_positive")
+                .increment(candidates.size() - suppressed.size());
+        return contacts.stream().filter(c -> !suppressed.contains(normalize(c.getEmail()))).toList();
+    }
+
+    private Set<String> findSuppressed(List<String> emails) {
+        return repository.findSuppressed(emails, mailingProperties.maxBounceCount()).stream()
+                .map(SuppressionService::normalize)
+                .collect(Collectors.toSet());
+    }
+
+    public void add(Collection<String> emails) {
+        if (properties.enabled() && !emails.isEmpty()) {
+            filter.add(emails);
+        }
+    }
+
+    public boolean isBuilt() {
+        return filter.exists();
+    }
+
+    /** Builds a new filter next to the live one and swaps it in. Runs in a transaction so the scan streams. */
+    @Transactional(readOnly = true)
+    public long rebuild() {
+        Instant startedAt = Instant.now();
+        String building = filter.key() + ":building";
+        redisTemplate.delete(building);
+
+        List<String> batch = new ArrayList<>(BUILD_BATCH);
+        long[] count = {0};
+        repository.forEachSuppressed(mailingProperties.maxBounceCount(), email -> {
+            batch.add(email);
+            if (batch.size() == BUILD_BATCH) {
+                filter.addTo(building, batch);
+                count[0] += batch.size();
+                batch.clear();
+                LockContext.heartbeat();
+            }
+        });
+        filter.addTo(building, batch);
+        count[0] += batch.size();
+
+        filter.replaceWith(building);
+        setWatermark(startedAt);
+        log.info("Suppression filter {} rebuilt with {} addresses", filter.key(), count[0]);
+        return count[0];
+    }
+
+    /** Adds addresses suppressed since the last sync. */
+    public long sync() {
+        Instant now = Instant.now();
+        Instant since = watermark().minus(SYNC_OVERLAP);
+        List<String> batch = new ArrayList<>(BUILD_BATCH);
+        long[] count = {0};
+        repository.forEachSuppressedSince(since, mailingProperties.maxBounceCount(), email -> {
+            batch.add(email);
+            if (batch.size() == BUILD_BATCH) {
+                filter.add(batch);
+                count[0] += batch.size();
+                batch.clear();
+            }
+        });
+        filter.add(batch);
+        count[0] += batch.size();
+        setWatermark(now);
+        return count[0];
+    }
+
+    private Instant watermark() {
+        String value = redisTemplate.opsForValue().get(filter.key() + ":synced-at");
+        return value != null ? Instant.parse(value) : Instant.EPOCH;
+    }
+
+    private void setWatermark(Instant at) {
+        redisTemplate.opsForValue().set(filter.key() + ":synced-at", at.toString());
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
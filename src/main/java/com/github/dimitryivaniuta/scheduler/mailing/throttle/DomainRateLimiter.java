@@ -0,0 +1,96 @@
+package com.github.dimitryivaniuta.scheduler.mailing.throttle;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token bucket per recipient domain, shared by all replicas through Redis.
+ * <p>
+ * Each domain has one hash {@code job-scheduler:mail-rate:<domain>} with the bucket ({@code tokens},
+ * {@code ts}) and its current {@code rate}. Acquisition and AIMD adjustments are Lua scripts, so they are
+ * atomic across replicas and use the Redis clock. Idle domains expire after a day and restart at
+ * {@code initialRate}.
+ */
+@Component
+public class DomainRateLimiter {
+
+    static final String KEY_PREFIX = "job-scheduler:mail-rate:";
+    private static final String TTL_SECONDS = "86400";
+
+    /** returns 0 if a token was taken, otherwise the ms until one is available */
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local b = redis.call('HMGET', KEYS[1], 'tokens', 'ts', 'rate')
+            local rate = tonumber(b[3]) or tonumber(ARGV[1])
+            local capacity = math.max(1, rate * tonumber(ARGV[2]))
+            local tokens = tonumber(b[1]) or capacity
+            local ts = tonumber(b[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                wait = math.ceil((1 - tokens) * 1000 / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now), 'rate', tostring(rate))
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return wait
+            """, Long.class);
+
+    /** ARGV: 'inc' | 'dec', amount (step or factor), min, max, initial, ttl; returns the new rate */
+    private static final RedisScript<String> ADJUST = new DefaultRedisScript<>("""
+            local rate = tonumber(redis.call('HGET', KEYS[1], 'rate')) or tonumber(ARGV[5])
+            if ARGV[1] == 'inc' then
+                rate = rate + tonumber(ARGV[2])
+            else
+                rate = rate * tonumber(ARGV[2])
+            end
+            rate = math.max(tonumber(ARGV[3]), math.min(tonumber(ARGV[4]), rate))
+            redis.call('HSET', KEYS[1], 'rate', tostring(rate))
+            redis.call('EXPIRE', KEYS[1], ARGV[6])
+            return tostring(rate)
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MailThrottleProperties properties;
+
+    public DomainRateLimiter(StringRedisTemplate redisTemplate, MailThrottleProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /** @return 0 if the send may proceed now, otherwise milliseconds to wait before trying again */
+    public long tryAcquire(String domain) {
+        if (!properties.enabled()) {
+            return 0L;
+        }
+        Long wait = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + domain),
+                String.valueOf(properties.initialRate()), String.valueOf(properties.burstSeconds()), TTL_SECONDS);
+        return wait != null ? wait : 0L;
+    }
+
+    /** Additive increase for {@code successes} accepted sends. */
+    public void onSuccess(String domain, int successes) {
+        if (properties.enabled() && successes > 0) {
+            adjust(domain, "inc", properties.increaseStep() * successes);
+        }
+    }
+
+    /** Multiplicative decrease after a deferral. */
+    public void onDeferred(String domain) {
+        if (properties.enabled()) {
+            adjust(domain, "dec", properties.decreaseFactor());
+        }
+    }
+
+    private void adjust(String domain, String mode, double amount) {
+        redisTemplate.execute(ADJUST, List.of(KEY_PREFIX + domain), mode, String.valueOf(amount),
+                String.valueOf(properties.minRate()), String.valueOf(properties.maxRate()),
+                String.valueOf(properties.initialRate()), TTL_SECONDS);
+    }
+}
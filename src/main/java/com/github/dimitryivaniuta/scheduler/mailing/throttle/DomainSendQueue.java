@@ -0,0 +1,134 @@
+package com.github.dimitryivaniuta.scheduler.mailing.throttle;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pending sends of one mailing run, grouped by recipient domain and handed out round-robin.
+ * <p>
+ * A domain can be deferred (rate limit reached or SMTP deferral); it is then skipped until its time has
+ * come, so one slow domain never holds back the others. Not thread-safe: owned by the thread driving the run.
+ */
+public final class DomainSendQueue {
+
+    private final Map<String, Deque<Pending>> byDomain = new HashMap<>();
+    /** domains with pending contacts, in round-robin order */
+    private final Deque<String> rotation = new ArrayDeque<>();
+    /** domain -> {@link System#nanoTime()} before which it is skipped */
+    private final Map<String, Long> deferredUntil = new HashMap<>();
+    private int size;
+
+    public void add(Contact contact) {
+        enqueue(new Pending(contact, domainOf(contact.getEmail()), 0), false);
+    }
+
+    /** Puts a contact back at the head of its domain, to be tried again once the domain is ready. */
+    public void retry(Pending pending) {
+        enqueue(pending, true);
+    }
+
+    public void defer(String domain, long millis) {
+        deferredUntil.merge(domain, System.nanoTime() + millis * 1_000_000L, Math::max);
+    }
+
+    /** @return the next contact of the next domain that is not deferred at {@code nanoTime}, or {@code null} */
+    public Pending pollReady(long nanoTime) {
+        for (int i = rotation.size(); i > 0; i--) {
+            String domain = rotation.pollFirst();
+            Long until = deferredUntil.get(domain);
+            if (until != null && until - nanoTime > 0) {
+                rotation.addLast(domain);
+                continue;
+            }
+            deferredUntil.remove(domain);
+            Deque<Pending> pending = byDomain.get(domain);
+            Pending next = pending.pollFirst();
+            if (pending.isEmpty()) {
+                byDomain.remove(domain);
+            } else {
+                rotation.addLast(domain);
+            }
+            size--;
+            return next;
+        }
+        return null;
+    }
+
+    /** @return the {@link System#nanoTime()} at which the earliest deferred domain becomes ready */
+    public long nextReadyNanos() {
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (String domain : rotation) {
+            Long until = deferredUntil.get(domain);
+            if (until == null || until - now <= 0) {
+                return now;
+            }
+            next = Math.min(next, until);
+        }
+        return next == Long.MAX_VALUE ? now : next;
+    }
+
+    /**
+     * @return the lowest id of the contacts still queued, in Postgres {@code uuid} order (unsigned bytes,
+     *         unlike {@link UUID#compareTo}), or {@code null} if the queue is empty
+     */
+    public UUID lowestContactId() {
+        UUID lowest = null;
+        for (Deque<Pending> pending : byDomain.values()) {
+            for (Pending p : pending) {
+                UUID id = p.contact().getId();
+                if (lowest == null || compareUnsigned(id, lowest) < 0) {
+                    lowest = id;
+                }
+            }
+        }
+        return lowest;
+    }
+
+    public static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void enqueue(Pending pending, boolean first) {
+        Deque<Pending> queue = byDomain.computeIfAbsent(pending.domain(), d -> {
+            rotation.addLast(d);
+            return new ArrayDeque<>();
+        });
+        if (first) {
+            queue.addFirst(pending);
+        } else {
+            queue.addLast(pending);
+        }
+        size++;
+    }
+
+    static String domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        return (at >= 0 ? email.substring(at + 1) : email).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param attempts SMTP deferrals seen so far for this contact
+     */
+    public record Pending(Contact contact, String domain, int attempts) {
+
+        public Pending deferredOnce() {
+            return new Pending(contact, domain, attempts + 1);
+        }
+    }
+}
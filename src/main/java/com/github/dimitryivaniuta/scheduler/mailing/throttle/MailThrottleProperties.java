@@ -0,0 +1,35 @@
+package com.github.dimitryivaniuta.scheduler.mailing.throttle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Per-recipient-domain send rate, adapted with AIMD from SMTP feedback.
+ *
+ * @param enabled         throttle sends per domain
+ * @param initialRate     sends per second for a domain seen for the first time
+ * @param minRate         lower bound after repeated deferrals
+ * @param maxRate         upper bound after sustained success
+ * @param increaseStep    additive increase (sends/s) per successful send
+ * @param decreaseFactor  multiplicative decrease applied on each deferral (4xx)
+ * @param burstSeconds    bucket capacity, in seconds worth of the current rate
+ * @param deferralBackoff how long a domain is skipped after a deferral
+ * @param maxAttempts     deferrals tolerated per contact before it counts as failed
+ * @param maxBacklog      deferred contacts held in memory before fetching more of the audience waits
+ */
+@ConfigurationProperties(prefix = "scheduler.mailings.throttle")
+public record MailThrottleProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") double initialRate,
+        @DefaultValue("0.2") double minRate,
+        @DefaultValue("200") double maxRate,
+        @DefaultValue("0.1") double increaseStep,
+        @DefaultValue("0.5") double decreaseFactor,
+        @DefaultValue("1") double burstSeconds,
+        @DefaultValue("PT30S") Duration deferralBackoff,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("1000") int maxBacklog
+) {
+}
@@ -0,0 +1,67 @@
+package com.github.dimitryivaniuta.scheduler.mailing.throttle;
+
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Result of one SMTP send, classified from the reply code.
+ */
+public enum SmtpOutcome {
+
+    /** accepted by the server */
+    SENT,
+
+    /** temporary deferral or rate limiting (421, 450-452, any 4.7.x): slow the domain down and retry */
+    DEFERRED,
+
+    /** permanent rejection (5xx): the address bounced */
+    REJECTED,
+
+    /** anything else (connection problems, unknown replies) */
+    FAILED;
+
+    private static final Pattern REPLY_CODE = Pattern.compile("\\b([245]\\d\\d)[ -]");
+
+    public static SmtpOutcome classify(Throwable error) {
+        int code = replyCode(error);
+        String text = messages(error);
+        if (code == 421 || code == 450 || code == 451 || code == 452 || (code / 100 == 4 && text.contains("4.7."))) {
+            return DEFERRED;
+        }
+        if (code / 100 == 5) {
+            return REJECTED;
+        }
+        return FAILED;
+    }
+
+    private static int replyCode(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SMTPSendFailedException e && e.getReturnCode() > 0) {
+                return e.getReturnCode();
+            }
+            if (t instanceof SMTPAddressFailedException e && e.getReturnCode() > 0) {
+                return e.getReturnCode();
+            }
+            if (t.getMessage() != null) {
+                Matcher m = REPLY_CODE.matcher(t.getMessage());
+                if (m.find()) {
+                    return Integer.parseInt(m.group(1));
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String messages(Throwable error) {
+        StringBuilder text = new StringBuilder();
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t.getMessage() != null) {
+                text.append(t.getMessage()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.dimitryivaniuta.scheduler.mailing.web;
+
+import com.github.dimitryivaniuta.scheduler.mailing.feedback.FeedbackBatch;
+import com.github.dimitryivaniuta.scheduler.mailing.feedback.FeedbackEvent;
+import com.github.dimitryivaniuta.scheduler.mailing.feedback.FeedbackService;
+import com.github.dimitryivaniuta.scheduler.mailing.feedback.FeedbackType;
+import com.github.dimitryivaniuta.scheduler.mailing.web.dto.FeedbackEventRequest;
+import com.github.dimitryivaniuta.scheduler.mailing.web.dto.FeedbackResultDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/mailing/feedback")
+@RequiredArgsConstructor
+public class FeedbackController {
+
+    private final FeedbackService feedbackService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Webhook for ESP feedback: a JSON array or newline-delimited JSON of {@link FeedbackEventRequest}s.
+     * The body is read one event at a time, so large backlogs can be posted in a single request. Events of an
+     * unknown type are skipped and counted as {@code invalid}: failing part-way would make the provider retry
+     * the whole body and count the bounces of the batches already applied twice.
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public FeedbackResultDto events(InputStream body) {
+        try (MappingIterator<FeedbackEventRequest> requests =
+                     objectMapper.readerFor(FeedbackEventRequest.class).readValues(body)) {
+            OffsetDateTime receivedAt = OffsetDateTime.now(ZoneOffset.UTC);
+            long[] invalid = {0};
+            Iterator<FeedbackEvent> events = new Iterator<>() {
+                private FeedbackEvent next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && requests.hasNextValue()) {
+                        next = fromRequest(requests.nextValue(), receivedAt);
+                        if (next == null) {
+                            invalid[0]++;
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public FeedbackEvent next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    FeedbackEvent event = next;
+                    next = null;
+                    return event;
+                }
+            };
+            return toDto(feedbackService.ingest(events), invalid[0]);
+        }
+    }
+
+    /** Raw bounce / complaint messages ({@code message/rfc822}) or an mbox ({@code application/mbox}). */
+    @PostMapping(consumes = {"message/rfc822", "application/mbox", MediaType.TEXT_PLAIN_VALUE})
+    public FeedbackResultDto messages(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.ISO_8859_1));
+        return toDto(feedbackService.ingest(reader), 0);
+    }
+
+    /** @return {@code null} for an unknown type */
+    private static FeedbackEvent fromRequest(FeedbackEventRequest r, OffsetDateTime receivedAt) {
+        String type = r.type() != null ? r.type().toLowerCase(Locale.ROOT) : "";
+        FeedbackType feedbackType = switch (type) {
+            case "bounce" -> r.status() != null && r.status().startsWith("4")
+                    ? FeedbackType.SOFT_BOUNCE : FeedbackType.HARD_BOUNCE;
+            case "hard_bounce" -> FeedbackType.HARD_BOUNCE;
+            case "soft_bounce" -> FeedbackType.SOFT_BOUNCE;
+            case "complaint" -> FeedbackType.COMPLAINT;
+            case "unsubscribe" -> FeedbackType.UNSUBSCRIBE;
+            default -> null;
+        };
+        if (feedbackType == null) {
+            return null;
+        }
+        return new FeedbackEvent(feedbackType, r.email(), r.occurredAt() != null ? r.occurredAt() : receivedAt);
+    }
+
+    private static FeedbackResultDto toDto(FeedbackBatch batch, long invalid) {
+        return new FeedbackResultDto(batch.events(), batch.updated(), invalid);
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.dimitryivaniuta.scheduler.mailing.web.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One webhook event.
+ *
+ * @param type       {@code bounce}, {@code hard_bounce}, {@code soft_bounce}, {@code complaint} or {@code unsubscribe}
+ * @param email      recipient address
+ * @param status     optional enhanced status code of a bounce (e.g. {@code 5.1.1}); {@code 4.x.x} makes it soft
+ * @param occurredAt optional, defaults to the time of receipt
+ */
+public record FeedbackEventRequest(
+        String type,
+        String email,
+        String status,
+        OffsetDateTime occurredAt
+) {
+}
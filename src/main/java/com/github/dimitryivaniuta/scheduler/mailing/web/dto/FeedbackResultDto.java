@@ -0,0 +1,7 @@
+package com.github.dimitryivaniuta.scheduler.mailing.web.dto;
+
+/**
+ * @param invalid webhook events skipped because their type is unknown
+ */
+public record FeedbackResultDto(long events, long contactsUpdated, long invalid) {
+}
@@ -0,0 +1,19 @@
+package com.github.dimitryivaniuta.scheduler.segment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code scheduler.segments.*}; the refresh interval is read by {@code SegmentRefreshJob} via a placeholder.
+ *
+ * @param chunkSize contact ids evaluated / inserted per statement
+ * @param overlap   how far before the last sync changed contacts are re-read, to cover late commits
+ */
+@ConfigurationProperties(prefix = "scheduler.segments")
+public record SegmentProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("PT5M") Duration overlap
+) {
+}
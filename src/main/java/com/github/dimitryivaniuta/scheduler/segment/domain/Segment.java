@@ -0,0 +1,77 @@
+package com.github.dimitryivaniuta.scheduler.segment.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Named, saved contact filter with a materialized member snapshot in {@code segment_members}.
+ */
+@Entity
+@Table(name = "segments")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Segment {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false, length = 128, unique = true)
+    private String name;
+
+    /** {@code ContactFilterRequest} as JSON */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<String, Object> filter;
+
+    /** size of the snapshot as of {@link #refreshedAt} */
+    @Column(name = "member_count", nullable = false)
+    private long memberCount;
+
+    /** contacts updated after this instant are not reflected in the snapshot yet; null forces a rebuild */
+    @Column(name = "synced_through")
+    private OffsetDateTime syncedThrough;
+
+    @Column(name = "refreshed_at")
+    private OffsetDateTime refreshedAt;
+
+    /** audit */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        OffsetDateTime now = OffsetDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.dimitryivaniuta.scheduler.segment.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshot rows in {@code segment_members}; every write is one set-based statement per chunk.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SegmentMemberRepository {
+
+    /** A page of contacts changed since a point in time, keyset-ordered by {@code (updated_at, id)}. */
+    public record Changed(List<UUID> ids, Instant lastUpdatedAt, UUID lastId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Member ids with {@code contact_id > afterId} (null = from the start), ordered; an index range scan. */
+    public List<UUID> findAfter(UUID segmentId, UUID afterId, int limit) {
+        if (afterId == null) {
+            return jdbcTemplate.query(
+                    "SELECT contact_id FROM segment_members WHERE segment_id = ? ORDER BY contact_id LIMIT ?",
+                    (rs, rowNum) -> rs.getObject(1, UUID.class), segmentId, limit);
+        }
+        return jdbcTemplate.query(
+                "SELECT contact_id FROM segment_members WHERE segment_id = ? AND contact_id > ? ORDER BY contact_id LIMIT ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), segmentId, afterId, limit);
+    }
+
+    public int add(UUID segmentId, Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    INSERT INTO segment_members (segment_id, contact_id)
+                    SELECT ?, unnest(?)
+                    ON CONFLICT DO NOTHING
+                    """);
+            ps.setObject(1, segmentId);
+            ps.setArray(2, connection.createArrayOf("uuid", contactIds.toArray()));
+            return ps;
+        });
+    }
+
+    public int remove(UUID segmentId, Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM segment_members WHERE segment_id = ? AND contact_id = ANY (?)");
+            ps.setObject(1, segmentId);
+            ps.setArray(2, connection.createArrayOf("uuid", contactIds.toArray()));
+            return ps;
+        });
+    }
+
+    public int removeAll(UUID segmentId) {
+        return jdbcTemplate.update("DELETE FROM segment_members WHERE segment_id = ?", segmentId);
+    }
+
+    /** Index-only scan of the segment's key range. */
+    public long count(UUID segmentId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM segment_members WHERE segment_id = ?", Long.class, segmentId);
+        return count != null ? count : 0L;
+    }
+
+    /** Contacts with {@code (updated_at, id)} after the given position, oldest first. */
+    public Changed findChangedAfter(Instant updatedAfter, UUID afterId, int limit) {
+        List<Object[]> rows = jdbcTemplate.query("""
+                        SELECT id, updated_at FROM contacts
+                         WHERE (updated_at, id) > (?, ?)
+                         ORDER BY updated_at, id
+                         LIMIT ?
+                        """,
+                (rs, rowNum) -> new Object[]{rs.getObject(1, UUID.class), rs.getTimestamp(2).toInstant()},
+                Timestamp.from(updatedAfter), afterId != null ? afterId : new UUID(0, 0), limit);
+        if (rows.isEmpty()) {
+            return new Changed(List.of(), updatedAfter, afterId);
+        }
+        Object[] last = rows.getLast();
+        return new Changed(rows.stream().map(r -> (UUID) r[0]).toList(), (Instant) last[1], (UUID) last[0]);
+    }
+}
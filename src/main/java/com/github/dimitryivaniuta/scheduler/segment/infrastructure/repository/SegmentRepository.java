@@ -0,0 +1,12 @@
+package com.github.dimitryivaniuta.scheduler.segment.infrastructure.repository;
+
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SegmentRepository extends JpaRepository<Segment, UUID> {
+
+    Optional<Segment> findByName(String name);
+}
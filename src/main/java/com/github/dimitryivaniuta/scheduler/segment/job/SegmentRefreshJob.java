@@ -0,0 +1,34 @@
+package com.github.dimitryivaniuta.scheduler.segment.job;
+
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import com.github.dimitryivaniuta.scheduler.segment.service.SegmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Incrementally refreshes every saved segment; one replica at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentRefreshJob {
+
+    static final String LOCK_NAME = "segments-refresh";
+
+    private final SegmentService segmentService;
+
+    @Scheduled(fixedDelayString = "${scheduler.segments.refresh-interval:PT5M}")
+    @SchedulerLock(name = LOCK_NAME, lockAtMostFor = "PT10M")
+    public void refreshAll() {
+        for (Segment segment : segmentService.findAll()) {
+            try {
+                segmentService.refresh(segment.getName());
+            } catch (RuntimeException e) {
+                log.warn("Segment {} refresh failed", segment.getName(), e);
+            }
+        }
+    }
+}
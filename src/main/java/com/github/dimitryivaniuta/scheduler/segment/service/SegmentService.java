@@ -0,0 +1,188 @@
+package com.github.dimitryivaniuta.scheduler.segment.service;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.lock.LockContext;
+import com.github.dimitryivaniuta.scheduler.segment.SegmentProperties;
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import com.github.dimitryivaniuta.scheduler.segment.infrastructure.repository.SegmentMemberRepository;
+import com.github.dimitryivaniuta.scheduler.segment.infrastructure.repository.SegmentRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Saved segments and their snapshots.
+ * <p>
+ * A rebuild evaluates the filter over the whole table in keyset chunks of ids and replaces the snapshot in one
+ * transaction, so readers see either the old or the new member list. Afterwards {@link #refresh} only
+ * re-evaluates contacts whose {@code updated_at} moved past {@code syncedThrough} (minus {@code overlap}):
+ * matching ones are added, the rest removed. Deleted contacts leave the snapshot through the foreign key
+ * cascade. {@code memberCount} is stored, so counts never touch the contacts table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SegmentService {
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    private final SegmentRepository segmentRepository;
+    private final SegmentMemberRepository memberRepository;
+    private final ContactService contactService;
+    private final SegmentProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // ---------- CRUD ----------
+
+    public Segment create(String name, ContactFilterRequest filter) {
+        if (segmentRepository.findByName(name).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Segment already exists: " + name);
+        }
+        Segment segment = segmentRepository.save(Segment.builder()
+                .name(name)
+                .filter(objectMapper.convertValue(filter, MAP))
+                .build());
+        rebuild(segment);
+        return segment;
+    }
+
+    /** Replaces the filter and rebuilds the snapshot. */
+    public Segment updateFilter(String name, ContactFilterRequest filter) {
+        Segment segment = getByName(name);
+        segment.setFilter(objectMapper.convertValue(filter, MAP));
+        rebuild(segment);
+        return segment;
+    }
+
+    @Transactional(readOnly = true)
+    public Segment getByName(String name) {
+        return segmentRepository.findByName(name)
+                .orElseThrow(() -> new EntityNotFoundException("Segment not found: " + name));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Segment> findAll() {
+        return segmentRepository.findAll();
+    }
+
+    public void delete(String name) {
+        segmentRepository.findByName(name).ifPresent(segmentRepository::delete);
+    }
+
+    public ContactFilterRequest filterOf(Segment segment) {
+        return objectMapper.convertValue(segment.getFilter(), ContactFilterRequest.class);
+    }
+
+    // ---------- snapshot ----------
+
+    public Segment refresh(String name) {
+        return refresh(getByName(name));
+    }
+
+    /** Incremental refresh; falls back to a rebuild if the segment was never materialized. */
+    public Segment refresh(Segment segment) {
+        if (segment.getSyncedThrough() == null) {
+            return rebuild(segment);
+        }
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        ContactFilterRequest filter = filterOf(segment);
+
+        Instant updatedAfter = segment.getSyncedThrough().toInstant().minus(properties.overlap());
+        UUID afterId = null;
+        long changed = 0;
+        SegmentMemberRepository.Changed page;
+        do {
+            page = memberRepository.findChangedAfter(updatedAfter, afterId, properties.chunkSize());
+            if (page.ids().isEmpty()) {
+                break;
+            }
+            Set<UUID> matching = new HashSet<>(contactService.findIdsMatchingIn(filter, page.ids()));
+            List<UUID> leaving = new ArrayList<>(page.ids().size() - matching.size());
+            for (UUID id : page.ids()) {
+                if (!matching.contains(id)) {
+                    leaving.add(id);
+                }
+            }
+            memberRepository.add(segment.getId(), matching);
+            memberRepository.remove(segment.getId(), leaving);
+            changed += page.ids().size();
+            updatedAfter = page.lastUpdatedAt();
+            afterId = page.lastId();
+            LockContext.heartbeat();
+        } while (page.ids().size() == properties.chunkSize());
+
+        return finish(segment, startedAt, changed, "refreshed");
+    }
+
+    /** Re-evaluates the filter over all contacts and replaces the snapshot. */
+    public Segment rebuild(Segment segment) {
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        ContactFilterRequest filter = filterOf(segment);
+
+        memberRepository.removeAll(segment.getId());
+        UUID after = null;
+        long evaluated = 0;
+        List<UUID> ids;
+        do {
+            ids = contactService.findIdsMatchingAfter(filter, after, properties.chunkSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            memberRepository.add(segment.getId(), ids);
+            evaluated += ids.size();
+            after = ids.getLast();
+            LockContext.heartbeat();
+        } while (ids.size() == properties.chunkSize());
+
+        return finish(segment, startedAt, evaluated, "rebuilt");
+    }
+
+    private Segment finish(Segment segment, OffsetDateTime startedAt, long contacts, String what) {
+        segment.setMemberCount(memberRepository.count(segment.getId()));
+        segment.setSyncedThrough(startedAt);
+        segment.setRefreshedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        Segment saved = segmentRepository.save(segment);
+        log.info("Segment {} {}: {} contacts evaluated, {} members", segment.getName(), what, contacts,
+                saved.getMemberCount());
+        return saved;
+    }
+
+    // ---------- reading ----------
+
+    /**
+     * The next chunk of the snapshot after {@code afterId}, narrowed to contacts that still match {@code audience}.
+     * Read on the primary: a new mailing run reads the snapshot right after {@link #refresh} rewrote it.
+     *
+     * @return members in id order (possibly fewer than {@code limit} after narrowing) and the last snapshot id read
+     */
+    public Chunk membersAfter(Segment segment, ContactFilterRequest audience, UUID afterId, int limit) {
+        List<UUID> ids = memberRepository.findAfter(segment.getId(), afterId, limit);
+        if (ids.isEmpty()) {
+            return new Chunk(List.of(), afterId, false);
+        }
+        return new Chunk(contactService.findMatchingIn(audience, ids), ids.getLast(), ids.size() == limit);
+    }
+
+    public record Chunk(List<Contact> contacts, UUID lastId, boolean hasMore) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.dimitryivaniuta.scheduler.segment.web;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import com.github.dimitryivaniuta.scheduler.segment.service.SegmentService;
+import com.github.dimitryivaniuta.scheduler.segment.web.dto.SegmentDto;
+import com.github.dimitryivaniuta.scheduler.segment.web.dto.SegmentRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/segments")
+@RequiredArgsConstructor
+public class SegmentController {
+
+    private final SegmentService segmentService;
+
+    /** Saves the segment and materializes its snapshot. */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public SegmentDto create(@RequestBody @Valid SegmentRequest request) {
+        return toDto(segmentService.create(request.name(), request.filter()));
+    }
+
+    @GetMapping
+    public List<SegmentDto> list() {
+        return segmentService.findAll().stream().map(this::toDto).toList();
+    }
+
+    /** {@code memberCount} is the stored snapshot size, as of {@code refreshedAt}. */
+    @GetMapping("/{name}")
+    public SegmentDto get(@PathVariable String name) {
+        return toDto(segmentService.getByName(name));
+    }
+
+    @PutMapping("/{name}/filter")
+    public SegmentDto updateFilter(@PathVariable String name, @RequestBody ContactFilterRequest filter) {
+        return toDto(segmentService.updateFilter(name, filter));
+    }
+
+    /** Incremental refresh, or a full rebuild with {@code full=true}. */
+    @PostMapping("/{name}/refresh")
+    public SegmentDto refresh(@PathVariable String name, @RequestParam(defaultValue = "false") boolean full) {
+        Segment segment = segmentService.getByName(name);
+        return toDto(full ? segmentService.rebuild(segment) : segmentService.refresh(segment));
+    }
+
+    @DeleteMapping("/{name}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable String name) {
+        segmentService.delete(name);
+    }
+
+    private SegmentDto toDto(Segment s) {
+        return SegmentDto.builder()
+                .id(s.getId())
+                .name(s.getName())
+                .filter(segmentService.filterOf(s))
+                .memberCount(s.getMemberCount())
+                .syncedThrough(s.getSyncedThrough())
+                .refreshedAt(s.getRefreshedAt())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.dimitryivaniuta.scheduler.segment.web.dto;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Builder
+public record SegmentDto(
+        UUID id,
+        String name,
+        ContactFilterRequest filter,
+        long memberCount,
+        OffsetDateTime syncedThrough,
+        OffsetDateTime refreshedAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.github.dimitryivaniuta.scheduler.segment.web.dto;
+
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record SegmentRequest(
+        @NotBlank @Size(max = 128) String name,
+        @NotNull ContactFilterRequest filter
+) {
+}
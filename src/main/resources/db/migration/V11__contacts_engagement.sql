@@ -0,0 +1,106 @@
+-- Derived engagement columns, so targeting by recent engagement is one index range scan instead of
+-- OR/AND chains over last_opened_at / last_clicked_at / bounce_count.
+--
+-- recency_bucket: most recent open or click within 7 days = 0, 30 days = 1, 90 days = 2, 180 days = 3,
+--                 older = 4, never = 5
+-- engagement_score: 0..100; a click is worth up to 60 points, an open up to 40, each decaying by age
+--                 bucket; every bounce costs 20
+-- engagement_expires_at: when the next age boundary is crossed and both must be recomputed
+--                 (ContactEngagementAgingJob); null = they no longer change with time
+--
+-- Maintained by trigger on every write of the inputs, whichever code path makes it.
+
+CREATE FUNCTION contact_engagement_points(event timestamptz, max_points integer, at timestamptz) RETURNS integer
+    LANGUAGE sql STABLE AS
+$$
+SELECT CASE
+           WHEN event IS NULL THEN 0
+           WHEN event > at - interval '7 days' THEN max_points
+           WHEN event > at - interval '30 days' THEN max_points * 3 / 4
+           WHEN event > at - interval '90 days' THEN max_points / 2
+           WHEN event > at - interval '180 days' THEN max_points / 4
+           ELSE 0
+           END
+$$;
+
+CREATE FUNCTION contact_engagement_expiry(event timestamptz, at timestamptz) RETURNS timestamptz
+    LANGUAGE sql STABLE AS
+$$
+SELECT CASE
+           WHEN event IS NULL THEN NULL
+           WHEN event > at - interval '7 days' THEN event + interval '7 days'
+           WHEN event > at - interval '30 days' THEN event + interval '30 days'
+           WHEN event > at - interval '90 days' THEN event + interval '90 days'
+           WHEN event > at - interval '180 days' THEN event + interval '180 days'
+           END
+$$;
+
+CREATE FUNCTION contact_engagement(opened timestamptz, clicked timestamptz, bounces integer, at timestamptz)
+    RETURNS TABLE (score integer, bucket integer, expires_at timestamptz)
+    LANGUAGE sql STABLE AS
+$$
+SELECT greatest(0, least(100, contact_engagement_points(clicked, 60, at)
+                                  + contact_engagement_points(opened, 40, at)
+                                  - 20 * bounces)),
+       CASE
+           WHEN greatest(opened, clicked) IS NULL THEN 5
+           WHEN greatest(opened, clicked) > at - interval '7 days' THEN 0
+           WHEN greatest(opened, clicked) > at - interval '30 days' THEN 1
+           WHEN greatest(opened, clicked) > at - interval '90 days' THEN 2
+           WHEN greatest(opened, clicked) > at - interval '180 days' THEN 3
+           ELSE 4
+           END,
+       least(contact_engagement_expiry(opened, at), contact_engagement_expiry(clicked, at))
+$$;
+
+CREATE FUNCTION contacts_engagement() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    SELECT score, bucket, expires_at
+    INTO NEW.engagement_score, NEW.recency_bucket, NEW.engagement_expires_at
+    FROM contact_engagement(NEW.last_opened_at, NEW.last_clicked_at, NEW.bounce_count, now());
+    RETURN NEW;
+END
+$$;
+
+-- Existing rows start as "due" (-infinity) and are computed by the aging job in batches, so this
+-- migration does not rewrite the table.
+ALTER TABLE contacts
+    ADD COLUMN engagement_score      integer     NOT NULL DEFAULT 0,
+    ADD COLUMN recency_bucket        integer     NOT NULL DEFAULT 5,
+    ADD COLUMN engagement_expires_at timestamptz DEFAULT '-infinity';
+ALTER TABLE contacts
+    ALTER COLUMN engagement_expires_at DROP DEFAULT;
+
+CREATE TRIGGER trg_contacts_engagement
+    BEFORE INSERT OR UPDATE OF last_opened_at, last_clicked_at, bounce_count
+    ON contacts
+    FOR EACH ROW
+EXECUTE FUNCTION contacts_engagement();
+
+-- The indexes on the new columns are built concurrently by V18.
+
+-- Keep the partitioned shadow (V9) in step while it still exists: same columns in the same order.
+DO
+$$
+BEGIN
+    IF to_regclass('contacts_partitioned') IS NOT NULL THEN
+        ALTER TABLE contacts_partitioned
+            ADD COLUMN engagement_score      integer     NOT NULL DEFAULT 0,
+            ADD COLUMN recency_bucket        integer     NOT NULL DEFAULT 5,
+            ADD COLUMN engagement_expires_at timestamptz DEFAULT '-infinity';
+        ALTER TABLE contacts_partitioned
+            ALTER COLUMN engagement_expires_at DROP DEFAULT;
+        CREATE TRIGGER trg_contacts_partitioned_engagement
+            BEFORE INSERT OR UPDATE OF last_opened_at, last_clicked_at, bounce_count
+            ON contacts_partitioned
+            FOR EACH ROW
+        EXECUTE FUNCTION contacts_engagement();
+        CREATE INDEX idx_contacts_p_recency_engagement ON contacts_partitioned (recency_bucket, engagement_score);
+        CREATE INDEX idx_contacts_p_engagement_score ON contacts_partitioned (engagement_score);
+        CREATE INDEX idx_contacts_p_engagement_expires_at ON contacts_partitioned (engagement_expires_at)
+            WHERE engagement_expires_at IS NOT NULL;
+    END IF;
+END
+$$;
@@ -0,0 +1,71 @@
+-- Duplicate detection and merging of contacts, driven by ContactDedupService.
+
+-- Blocking keys: different spellings of the same email / phone / name map to the same key.
+-- Emails: trimmed, lower case, "+tag" removed; Gmail addresses also without dots.
+CREATE FUNCTION contact_email_key(email text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT CASE
+           WHEN e IS NULL OR position('@' IN e) = 0 THEN e
+           WHEN split_part(e, '@', 2) IN ('gmail.com', 'googlemail.com')
+               THEN replace(split_part(split_part(e, '@', 1), '+', 1), '.', '') || '@gmail.com'
+           ELSE split_part(split_part(e, '@', 1), '+', 1) || '@' || split_part(e, '@', 2)
+           END
+FROM (SELECT nullif(lower(regexp_replace(email, '\s', '', 'g')), '') AS e) n
+$$;
+
+-- Phones: the last 9 digits, i.e. the subscriber part of the E.164 number. "+48 600 100 200",
+-- "0048600100200" and "600-100-200" share a key, whether or not the country prefix was entered.
+CREATE FUNCTION contact_phone_key(phone text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT CASE WHEN length(d) >= 7 THEN right(d, 9) END
+FROM (SELECT regexp_replace(phone, '\D', '', 'g') AS d) n
+$$;
+
+-- One row per contact, refreshed from contacts changed since the last run. No foreign key: contacts may be
+-- the partitioned table (V9), whose primary key includes created_at.
+CREATE TABLE contact_match_keys
+(
+    contact_id          uuid PRIMARY KEY,
+    email_key           text        NOT NULL,
+    secondary_email_key text,
+    phone_key           text,              -- mobile only: work and home numbers are shared by colleagues, families
+    name_key            text COLLATE "C",  -- "last f", the sort key of the sorted neighborhood
+    name_text           text,              -- "first last", compared by trigram similarity
+    company_text        text,
+    country_code        char(2),
+    created_at          timestamptz NOT NULL -- the oldest contact of a duplicate group survives
+);
+
+CREATE INDEX idx_contact_match_keys_email ON contact_match_keys (email_key);
+CREATE INDEX idx_contact_match_keys_secondary_email ON contact_match_keys (secondary_email_key)
+    WHERE secondary_email_key IS NOT NULL;
+CREATE INDEX idx_contact_match_keys_phone ON contact_match_keys (phone_key)
+    WHERE phone_key IS NOT NULL;
+CREATE INDEX idx_contact_match_keys_name ON contact_match_keys (name_key)
+    WHERE name_key IS NOT NULL;
+
+-- Every merge, so references to removed contacts (e.g. in mailing logs or client systems) can be resolved.
+CREATE TABLE contact_merges
+(
+    duplicate_id uuid PRIMARY KEY,
+    survivor_id  uuid        NOT NULL,
+    rule         varchar(16) NOT NULL, -- email | secondary | phone | name
+    merged_at    timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_contact_merges_survivor ON contact_merges (survivor_id);
+
+-- Single-row progress: contacts up to (scanned_through_at, scanned_through_id) in updated_at order are done.
+CREATE TABLE contact_dedup_state
+(
+    id                 boolean PRIMARY KEY DEFAULT true CHECK (id),
+    scanned_through_at timestamptz,
+    scanned_through_id uuid,
+    scanned_rows       bigint NOT NULL DEFAULT 0,
+    merged_rows        bigint NOT NULL DEFAULT 0,
+    updated_at         timestamptz
+);
+
+INSERT INTO contact_dedup_state DEFAULT VALUES;
@@ -0,0 +1,25 @@
+-- Progress of bulk rewrites of contacts (ContactBackfillService): one row per backfill, one per id range
+-- walked in parallel. Ranges keep their own position and counters, so workers never update a shared row.
+
+CREATE TABLE contact_backfills
+(
+    name        varchar(64) PRIMARY KEY,
+    status      varchar(16) NOT NULL, -- RUNNING | PAUSED | DONE
+    dry_run     boolean     NOT NULL,
+    started_at  timestamptz NOT NULL DEFAULT now(),
+    finished_at timestamptz
+);
+
+CREATE TABLE contact_backfill_ranges
+(
+    backfill     varchar(64) NOT NULL REFERENCES contact_backfills (name) ON DELETE CASCADE,
+    range_no     integer     NOT NULL,
+    position     uuid        NOT NULL, -- last id done; the rest of the range is (position, upper_bound]
+    upper_bound  uuid        NOT NULL,
+    done         boolean     NOT NULL DEFAULT false,
+    scanned_rows bigint      NOT NULL DEFAULT 0,
+    changed_rows bigint      NOT NULL DEFAULT 0,
+    conflicts    bigint      NOT NULL DEFAULT 0, -- rows changed concurrently between read and write, then redone
+    updated_at   timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (backfill, range_no)
+);
@@ -0,0 +1,42 @@
+-- Retention of inactive contacts (ContactRetentionService): old inactive contacts are moved here in chunks.
+-- One row per chunk, the contacts as a jsonb array: large enough to be TOAST-compressed, unlike single
+-- contacts, and independent of later changes to the contacts columns.
+CREATE TABLE contact_archive_chunks
+(
+    id          bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    archived_at timestamptz NOT NULL DEFAULT now(),
+    row_count   integer     NOT NULL,
+    contacts    jsonb       NOT NULL
+);
+
+-- lz4 compresses and decompresses faster than the default pglz where the server supports it
+DO
+$$
+BEGIN
+    ALTER TABLE contact_archive_chunks ALTER COLUMN contacts SET COMPRESSION lz4;
+EXCEPTION
+    WHEN feature_not_supported THEN NULL;
+END
+$$;
+
+-- Which chunk holds an archived contact, e.g. to answer or restore it.
+CREATE TABLE contact_archive_ids
+(
+    contact_id uuid PRIMARY KEY,
+    chunk_id   bigint NOT NULL REFERENCES contact_archive_chunks (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_contact_archive_ids_chunk ON contact_archive_ids (chunk_id);
+
+-- idx_contacts_retention, walking the retention candidates, is built concurrently by V18.
+
+DO
+$$
+BEGIN
+    IF to_regclass('contacts_partitioned') IS NOT NULL THEN
+        CREATE INDEX idx_contacts_p_retention
+            ON contacts_partitioned (id) INCLUDE (last_activity_at, created_at, updated_at)
+            WHERE NOT is_active;
+    END IF;
+END
+$$;
@@ -0,0 +1,37 @@
+-- contacts_generation (V12) picked its slot by backend pid and kept the row locked until commit, so two
+-- writers on the same slot waited for each other's whole transaction, and could deadlock with row locks
+-- taken in the opposite order (e.g. the dedup merge's FOR UPDATE against a concurrent PUT).
+--
+-- Now a transaction takes any slot no other transaction holds (SKIP LOCKED) and keeps using it for its later
+-- statements; the slot is remembered in a transaction-local setting. When every slot is held, a new one is
+-- added from a sequence, so no insert ever conflicts either. No writer waits on another writer's slot.
+-- The generation is still the sum over all slots.
+
+ALTER TABLE contacts_generation
+    ALTER COLUMN slot TYPE integer;
+
+CREATE SEQUENCE contacts_generation_slot_seq AS integer START WITH 16;
+
+CREATE OR REPLACE FUNCTION contacts_generation_bump() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    held integer := nullif(current_setting('contacts.generation_slot', true), '')::integer;
+BEGIN
+    IF held IS NULL THEN
+        SELECT slot INTO held
+        FROM contacts_generation
+        ORDER BY random()
+        LIMIT 1
+        FOR UPDATE SKIP LOCKED;
+        IF held IS NULL THEN
+            INSERT INTO contacts_generation (slot)
+            VALUES (nextval('contacts_generation_slot_seq'))
+            RETURNING slot INTO held;
+        END IF;
+        PERFORM set_config('contacts.generation_slot', held::text, true);
+    END IF;
+    UPDATE contacts_generation SET value = value + 1 WHERE slot = held;
+    RETURN NULL;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Failed chunks of backfills (ContactBackfillService): a range counts the consecutive failures of its next
+-- chunk and keeps the last error. After scheduler.contacts.backfill.max-failures the backfill is FAILED
+-- (contact_backfills.status) and no longer retried until it is resumed.
+
+ALTER TABLE contact_backfill_ranges
+    ADD COLUMN failures   integer NOT NULL DEFAULT 0, -- consecutive; reset by the next chunk that commits
+    ADD COLUMN last_error text;
@@ -0,0 +1,29 @@
+-- The contacts indexes of V10, V11 and V15, built without blocking writes: a plain CREATE INDEX holds a
+-- SHARE lock on contacts for the whole build. CREATE INDEX CONCURRENTLY can not run in a transaction, so this
+-- script holds nothing else and runs with executeInTransaction=false (see the .conf).
+--
+-- A build that fails leaves an INVALID index behind; drop it before repairing and re-running the migration,
+-- IF NOT EXISTS would otherwise keep it.
+
+-- Mailing audience: is_active AND marketing_opt_in AND NOT unsubscribed AND bounce_count <= N, walked by id.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_mailable
+    ON contacts (id, bounce_count)
+    WHERE is_active AND marketing_opt_in AND NOT unsubscribed;
+
+-- recencyBucket (<=), optionally with minEngagementScore
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_recency_engagement
+    ON contacts (recency_bucket, engagement_score);
+
+-- minEngagementScore alone
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_engagement_score
+    ON contacts (engagement_score);
+
+-- aging job
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_engagement_expires_at
+    ON contacts (engagement_expires_at)
+    WHERE engagement_expires_at IS NOT NULL;
+
+-- Retention candidates walked by id; the age columns are checked in the index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_retention
+    ON contacts (id) INCLUDE (last_activity_at, created_at, updated_at)
+    WHERE NOT is_active;
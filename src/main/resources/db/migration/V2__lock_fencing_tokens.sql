@@ -0,0 +1,8 @@
+-- Newest fencing token seen per ShedLock lock; writes guarded by FencedWriteGuard
+-- are rejected when they carry an older token.
+CREATE TABLE lock_fencing_tokens
+(
+    lock_name  varchar(128) PRIMARY KEY,
+    token      bigint      NOT NULL,
+    updated_at timestamptz NOT NULL
+);
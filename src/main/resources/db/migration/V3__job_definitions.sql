@@ -0,0 +1,40 @@
+CREATE TABLE job_definitions
+(
+    id                  uuid PRIMARY KEY,
+    name                varchar(128) NOT NULL,
+    handler             varchar(64)  NOT NULL,
+    cron                varchar(120),
+    interval_ms         bigint,
+    time_zone           varchar(64),
+    payload             jsonb,
+    owner               varchar(128),
+    concurrency_policy  varchar(16)  NOT NULL DEFAULT 'FORBID',
+    lock_at_most_for_ms bigint       NOT NULL DEFAULT 600000,
+    enabled             boolean      NOT NULL DEFAULT true,
+    created_at          timestamptz  NOT NULL,
+    updated_at          timestamptz  NOT NULL,
+    -- exactly one of cron / interval
+    CONSTRAINT ck_job_definitions_schedule CHECK ((cron IS NULL) <> (interval_ms IS NULL)),
+    CONSTRAINT ck_job_definitions_interval CHECK (interval_ms IS NULL OR interval_ms > 0)
+);
+
+CREATE UNIQUE INDEX ux_job_definitions_name
+    ON job_definitions (name);
+
+CREATE INDEX idx_job_definitions_owner
+    ON job_definitions (owner);
+
+-- Change notifications for the in-memory schedule (LISTEN job_definitions); delivered on commit.
+CREATE FUNCTION notify_job_definitions() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('job_definitions', COALESCE(NEW.id, OLD.id)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_job_definitions_notify
+    AFTER INSERT OR UPDATE OR DELETE
+    ON job_definitions
+    FOR EACH ROW
+EXECUTE FUNCTION notify_job_definitions();
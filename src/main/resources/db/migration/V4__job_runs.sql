@@ -0,0 +1,38 @@
+-- Job run ledger, range-partitioned by day on started_at.
+-- Partitions are created ahead and dropped after retention by JobRunPartitionMaintenance;
+-- there is deliberately no DEFAULT partition (it would make creating new partitions scan it).
+CREATE TABLE job_runs
+(
+    id              uuid        NOT NULL,
+    job_name        varchar(128) NOT NULL,
+    node            varchar(128) NOT NULL,
+    lock_token      bigint,
+    status          varchar(16) NOT NULL,
+    started_at      timestamptz NOT NULL,
+    finished_at     timestamptz NOT NULL,
+    duration_ms     bigint      NOT NULL,
+    items_processed bigint      NOT NULL DEFAULT 0,
+    failures        bigint      NOT NULL DEFAULT 0,
+    phases          jsonb,       -- phase name -> elapsed ms
+    error           varchar(1000),
+    PRIMARY KEY (id, started_at)
+) PARTITION BY RANGE (started_at);
+
+CREATE INDEX idx_job_runs_job_started
+    ON job_runs (job_name, started_at DESC);
+
+-- first partitions (UTC days), so runs recorded before the first maintenance pass have somewhere to go
+DO
+$$
+    DECLARE
+        d date := current_date - 1;
+    BEGIN
+        WHILE d <= current_date + 7
+            LOOP
+                EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF job_runs FOR VALUES FROM (%L) TO (%L)',
+                               'job_runs_p' || to_char(d, 'YYYYMMDD'),
+                               d::timestamp AT TIME ZONE 'UTC', (d + 1)::timestamp AT TIME ZONE 'UTC');
+                d := d + 1;
+            END LOOP;
+    END
+$$;
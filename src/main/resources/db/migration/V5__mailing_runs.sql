@@ -0,0 +1,26 @@
+-- Resumable mailing runs: keyset checkpoint over contacts ordered by id.
+CREATE TABLE mailing_runs
+(
+    id              uuid PRIMARY KEY,
+    job_name        varchar(128) NOT NULL,
+    status          varchar(16)  NOT NULL,
+    last_contact_id uuid,        -- every contact with id <= this is done
+    sent_count      bigint       NOT NULL DEFAULT 0,
+    started_at      timestamptz  NOT NULL,
+    updated_at      timestamptz  NOT NULL,
+    completed_at    timestamptz
+);
+
+-- at most one unfinished run per job; it is what a new lock holder resumes
+CREATE UNIQUE INDEX ux_mailing_runs_job_in_progress
+    ON mailing_runs (job_name)
+    WHERE status = 'IN_PROGRESS';
+
+-- Idempotency: a contact is claimed once per run before it is sent.
+-- Rows are only needed while the run is in progress and are deleted when it completes.
+CREATE TABLE mailing_deliveries
+(
+    run_id     uuid NOT NULL,
+    contact_id uuid NOT NULL,
+    PRIMARY KEY (run_id, contact_id)
+);
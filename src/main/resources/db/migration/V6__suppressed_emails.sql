@@ -0,0 +1,15 @@
+-- Global suppression list maintained outside this service (e.g. imported from the ESP or legal requests).
+-- Addresses here are never mailed, whether or not they exist in contacts.
+CREATE TABLE suppressed_emails
+(
+    email      citext PRIMARY KEY,
+    reason     varchar(64),
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_suppressed_emails_created_at
+    ON suppressed_emails (created_at);
+
+-- incremental sync of the suppression filter reads contacts changed since its last watermark
+CREATE INDEX idx_contacts_updated_at
+    ON contacts (updated_at);
@@ -0,0 +1,9 @@
+-- Transactional outbox of contact changes, written in the same transaction as the change itself.
+-- ContactOutboxRelay publishes rows to a Redis stream and deletes them, so the table stays small.
+CREATE TABLE contact_outbox
+(
+    id          bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    op          varchar(8)  NOT NULL,  -- CREATE | UPDATE | DELETE
+    contact_id  uuid        NOT NULL,
+    occurred_at timestamptz NOT NULL DEFAULT now()
+);
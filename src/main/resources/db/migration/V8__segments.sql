@@ -0,0 +1,24 @@
+-- Saved audience segments and their materialized member snapshots.
+CREATE TABLE segments
+(
+    id              uuid PRIMARY KEY,
+    name            varchar(128) NOT NULL UNIQUE,
+    filter          jsonb        NOT NULL,  -- ContactFilterRequest
+    member_count    bigint       NOT NULL DEFAULT 0,
+    synced_through  timestamptz,           -- contacts updated after this are not reflected yet; null = rebuild
+    refreshed_at    timestamptz,
+    created_at      timestamptz  NOT NULL,
+    updated_at      timestamptz  NOT NULL
+);
+
+-- The primary key doubles as the sorted id list: members of a segment are read by id range.
+CREATE TABLE segment_members
+(
+    segment_id uuid NOT NULL REFERENCES segments (id) ON DELETE CASCADE,
+    contact_id uuid NOT NULL REFERENCES contacts (id) ON DELETE CASCADE,
+    PRIMARY KEY (segment_id, contact_id)
+);
+
+-- for the cascade when a contact is deleted
+CREATE INDEX idx_segment_members_contact
+    ON segment_members (contact_id);
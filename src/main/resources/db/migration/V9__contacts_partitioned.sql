@@ -0,0 +1,104 @@
+-- Opt-in path to a contacts table range-partitioned by created_at, driven by ContactPartitionMigrationService.
+-- Applying this migration changes nothing at runtime: the shadow table stays empty and no trigger is
+-- attached to contacts until the migration is started.
+
+-- Same columns in the same order as contacts, so rows can be copied with SELECT *.
+-- Activity can not predate creation; this is what lets activity windows prune by created_at.
+CREATE TABLE contacts_partitioned
+(
+    LIKE contacts INCLUDING DEFAULTS,
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT ck_contacts_activity_after_created CHECK (
+        (last_activity_at IS NULL OR last_activity_at >= created_at)
+            AND (last_emailed_at IS NULL OR last_emailed_at >= created_at)
+            AND (last_opened_at IS NULL OR last_opened_at >= created_at)
+            AND (last_clicked_at IS NULL OR last_clicked_at >= created_at))
+) PARTITION BY RANGE (created_at);
+
+-- Yearly partitions are created by the migration service; this only catches rows outside of them.
+CREATE TABLE contacts_partitioned_default PARTITION OF contacts_partitioned DEFAULT;
+
+-- Same indexes as contacts (V1, V6), created on every partition.
+CREATE INDEX idx_contacts_p_email ON contacts_partitioned (email);
+CREATE INDEX idx_contacts_p_secondary_email_ci ON contacts_partitioned (secondary_email);
+CREATE INDEX idx_contacts_p_last_first ON contacts_partitioned (lower(last_name), lower(first_name));
+CREATE INDEX idx_contacts_p_company ON contacts_partitioned (lower(company_name));
+CREATE INDEX idx_contacts_p_country_city ON contacts_partitioned (country_code, lower(city));
+CREATE INDEX idx_contacts_p_active_marketing ON contacts_partitioned (is_active, marketing_opt_in, unsubscribed);
+CREATE INDEX idx_contacts_p_created_at ON contacts_partitioned (created_at);
+CREATE INDEX idx_contacts_p_last_activity_at ON contacts_partitioned (last_activity_at);
+CREATE INDEX idx_contacts_p_last_emailed_at ON contacts_partitioned (last_emailed_at);
+CREATE INDEX idx_contacts_p_updated_at ON contacts_partitioned (updated_at);
+CREATE INDEX gin_contacts_p_email_trgm ON contacts_partitioned USING gin (email gin_trgm_ops);
+CREATE INDEX gin_contacts_p_name_trgm ON contacts_partitioned USING gin ((first_name || ' ' || last_name) gin_trgm_ops);
+CREATE INDEX gin_contacts_p_company_trgm ON contacts_partitioned USING gin (company_name gin_trgm_ops);
+CREATE INDEX gin_contacts_p_tags_trgm ON contacts_partitioned USING gin (tags gin_trgm_ops);
+
+-- A unique index on a partitioned table must contain the partition key, so unique emails are enforced
+-- through this table instead; its primary key is renamed to ux_contacts_email_ci at cutover.
+CREATE TABLE contact_emails
+(
+    email      citext PRIMARY KEY,
+    contact_id uuid NOT NULL
+);
+
+CREATE FUNCTION contacts_partitioned_emails() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.email IS DISTINCT FROM NEW.email) THEN
+        DELETE FROM contact_emails WHERE email = OLD.email AND contact_id = OLD.id;
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND OLD.email IS DISTINCT FROM NEW.email) THEN
+        INSERT INTO contact_emails (email, contact_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_contacts_partitioned_emails
+    AFTER INSERT OR UPDATE OR DELETE
+    ON contacts_partitioned
+    FOR EACH ROW
+EXECUTE FUNCTION contacts_partitioned_emails();
+
+-- Foreign keys can not reference a partitioned table by id alone; this replaces
+-- segment_members.contact_id ... ON DELETE CASCADE after cutover.
+CREATE FUNCTION contacts_partitioned_delete_members() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    DELETE FROM segment_members WHERE contact_id = OLD.id;
+    RETURN NULL;
+END
+$$;
+
+-- Dual write: attached to contacts while the copy runs. An update is a delete plus insert, which also
+-- covers rows the backfill has not reached yet.
+CREATE FUNCTION contacts_dual_write() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM contacts_partitioned WHERE id = OLD.id AND created_at = OLD.created_at;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO contacts_partitioned SELECT (NEW).*;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Single-row progress of the migration.
+CREATE TABLE contacts_partition_migration
+(
+    id             boolean PRIMARY KEY DEFAULT true CHECK (id),
+    state          varchar(16) NOT NULL DEFAULT 'IDLE', -- IDLE, COPYING, COPIED, DONE
+    copied_through uuid,                                -- backfill keyset position
+    copied_rows    bigint      NOT NULL DEFAULT 0,
+    started_at     timestamptz,
+    copied_at      timestamptz,
+    cut_over_at    timestamptz
+);
+
+INSERT INTO contacts_partition_migration DEFAULT VALUES;
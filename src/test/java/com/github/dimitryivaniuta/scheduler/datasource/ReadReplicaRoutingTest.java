@@ -0,0 +1,239 @@
+package com.github.dimitryivaniuta.scheduler.datasource;
+
+import com.github.dimitryivaniuta.scheduler.contact.domain.Contact;
+import com.github.dimitryivaniuta.scheduler.contact.infrastructure.repository.ContactOutboxRepository;
+import com.github.dimitryivaniuta.scheduler.contact.outbox.ContactOutboxService;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactETagService;
+import com.github.dimitryivaniuta.scheduler.contact.service.ContactService;
+import com.github.dimitryivaniuta.scheduler.contact.web.dto.contact.ContactFilterRequest;
+import com.github.dimitryivaniuta.scheduler.segment.domain.Segment;
+import com.github.dimitryivaniuta.scheduler.segment.service.SegmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only routing against a real streaming-replication pair: a primary and a hot standby cloned from it with
+ * {@code pg_basebackup}. Replay on the standby is paused where a test needs the replica to be behind.
+ */
+@SpringBootTest
+class ReadReplicaRoutingTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    /** lets the standby connect for replication; the image's pg_hba.conf only admits ordinary connections */
+    private static final String ALLOW_REPLICATION = """
+            #!/bin/sh
+            echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+            """;
+
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of(ALLOW_REPLICATION, 0755),
+                    "/docker-entrypoint-initdb.d/allow-replication.sh");
+
+    static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withEnv("PGPASSWORD", "test")
+            .withCommand("sh", "-c", """
+                    until pg_basebackup -h primary -U test -D /tmp/pgdata -R -X stream; do sleep 1; done
+                    chmod 700 /tmp/pgdata
+                    exec postgres -D /tmp/pgdata
+                    """)
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    static {
+        PRIMARY.start();
+        REPLICA.start();
+        REDIS.start();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("scheduler.datasource.replicas[0].url", ReadReplicaRoutingTest::replicaUrl);
+        registry.add("scheduler.datasource.replicas[0].username", PRIMARY::getUsername);
+        registry.add("scheduler.datasource.replicas[0].password", PRIMARY::getPassword);
+        // paused replay must not take the replica out of rotation mid-test
+        registry.add("scheduler.datasource.max-lag", () -> "PT1H");
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ContactService contactService;
+    @Autowired
+    private ContactOutboxService outboxService;
+    @Autowired
+    private ContactETagService etagService;
+    @Autowired
+    private SegmentService segmentService;
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        assertThat(inRecovery(true)).isTrue();
+        assertThat(inRecovery(false)).isFalse();
+    }
+
+    @Test
+    void readYourWritesPathsStayOnThePrimary() throws SQLException {
+        String email = "routing-" + UUID.randomUUID() + "@example.com";
+        ContactFilterRequest filter = ContactFilterRequest.builder().email(email).build();
+        String tagBefore = etagService.searchTag(filter, PageRequest.of(0, 20), "json");
+
+        pauseReplay(true);
+        try {
+            UUID id = contactService.create(Contact.builder().email(email).active(true).build()).getId();
+            Segment segment = segmentService.create("routing-" + id, filter);
+
+            // the replica has not replayed the insert ...
+            assertThat(readOnly().execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM contacts WHERE id = ?", Long.class, id))).isZero();
+            // ... yet every read-your-writes path sees it
+            assertThat(contactService.version(id)).isPresent();
+            assertThat(outboxService.pending(10_000))
+                    .extracting(ContactOutboxRepository.Row::contactId)
+                    .contains(id);
+            assertThat(etagService.searchTag(filter, PageRequest.of(0, 20), "json")).isNotEqualTo(tagBefore);
+            assertThat(segmentService.membersAfter(segment, filter, null, 10).contacts())
+                    .extracting(Contact::getId)
+                    .containsExactly(id);
+        } finally {
+            pauseReplay(false);
+        }
+    }
+
+    @Test
+    void lagBeyondMaxLagFallsBackToThePrimary() throws Exception {
+        ReadReplicaRouter router = router(replicaUrl(), Duration.ofSeconds(1));
+        DataSource readOnly = router.readOnlyDataSource(primary());
+        try {
+            router.checkLag();
+            assertThat(inRecovery(readOnly)).isTrue();
+
+            pauseReplay(true);
+            try {
+                contactService.create(Contact.builder().email("lag-" + UUID.randomUUID() + "@example.com").build());
+                Thread.sleep(1_500);
+                router.checkLag();
+                assertThat(inRecovery(readOnly)).isFalse();
+            } finally {
+                pauseReplay(false);
+            }
+        } finally {
+            router.destroy();
+        }
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws SQLException {
+        ReadReplicaRouter router = router("jdbc:postgresql://localhost:1/test", Duration.ofSeconds(10));
+        try {
+            assertThat(inRecovery(router.readOnlyDataSource(primary()))).isFalse();
+            router.checkLag();
+            assertThat(inRecovery(router.readOnlyDataSource(primary()))).isFalse();
+        } finally {
+            router.destroy();
+        }
+    }
+
+    @Test
+    void connectionsWithExplicitCredentialsComeFromThePrimary() throws SQLException {
+        ReadReplicaRouter router = router(replicaUrl(), Duration.ofSeconds(10));
+        try (Connection connection = router.readOnlyDataSource(primary())
+                .getConnection(PRIMARY.getUsername(), PRIMARY.getPassword())) {
+            assertThat(inRecovery(connection)).isFalse();
+        } finally {
+            router.destroy();
+        }
+    }
+
+    private boolean inRecovery(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static boolean inRecovery(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return inRecovery(connection);
+        }
+    }
+
+    private static boolean inRecovery(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_is_in_recovery()")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private static void pauseReplay(boolean pause) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(), PRIMARY.getUsername(),
+                PRIMARY.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(pause ? "SELECT pg_wal_replay_pause()" : "SELECT pg_wal_replay_resume()");
+        }
+    }
+
+    private static ReadReplicaRouter router(String replicaUrl, Duration maxLag) {
+        ReadReplicaProperties properties = new ReadReplicaProperties(
+                List.of(new ReadReplicaProperties.Replica(replicaUrl, PRIMARY.getUsername(), PRIMARY.getPassword())),
+                maxLag, 2, Map.of());
+        return new ReadReplicaRouter(properties, new SimpleMeterRegistry());
+    }
+
+    private static DataSource primary() {
+        return new DriverManagerDataSource(PRIMARY.getJdbcUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":" + REPLICA.getMappedPort(5432) + "/"
+                + PRIMARY.getDatabaseName();
+    }
+}